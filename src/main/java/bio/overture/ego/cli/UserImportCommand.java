@@ -0,0 +1,75 @@
+package bio.overture.ego.cli;
+
+import static bio.overture.ego.utils.Ndjson.writeNdjsonLine;
+import static bio.overture.ego.utils.UserImportReader.readUsers;
+
+import bio.overture.ego.model.enums.UserImportFormat;
+import bio.overture.ego.service.UserImportService;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports users from a file when the application is started with {@code
+ * --import.users.file=<path>}, writing the rejected rows and the summary to stdout as newline
+ * delimited JSON, then exits. The exit status is 1 if any row was rejected.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("import.users.file")
+public class UserImportCommand implements ApplicationRunner {
+
+  /** Dependencies */
+  private final UserImportService userImportService;
+
+  private final ConfigurableApplicationContext applicationContext;
+
+  /** Configuration */
+  private final String file;
+
+  private final String format;
+
+  @Autowired
+  public UserImportCommand(
+      @NonNull UserImportService userImportService,
+      @NonNull ConfigurableApplicationContext applicationContext,
+      @Value("${import.users.file}") String file,
+      @Value("${import.users.format:}") String format) {
+    this.userImportService = userImportService;
+    this.applicationContext = applicationContext;
+    this.file = file;
+    this.format = format;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    log.info("Importing users from '{}' as {}", file, resolveFormat());
+    long failed;
+    try (val in = Files.newInputStream(Paths.get(file))) {
+      val summary =
+          userImportService.importUsers(
+              readUsers(in, resolveFormat()), r -> writeNdjsonLine(System.out, r));
+      writeNdjsonLine(System.out, summary);
+      failed = summary.getFailed();
+    }
+    System.out.flush();
+    System.exit(SpringApplication.exit(applicationContext, () -> failed > 0 ? 1 : 0));
+  }
+
+  private UserImportFormat resolveFormat() {
+    if (!format.isBlank()) {
+      return UserImportFormat.valueOf(format.trim().toUpperCase());
+    }
+    return file.toLowerCase().endsWith(".csv") ? UserImportFormat.CSV : UserImportFormat.NDJSON;
+  }
+}
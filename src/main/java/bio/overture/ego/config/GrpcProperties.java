@@ -0,0 +1,89 @@
+package bio.overture.ego.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Transport settings of the gRPC server. Durations are in milliseconds, and a zero limit leaves the
+ * gRPC default in place.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "grpc")
+public class GrpcProperties {
+
+  private int port = 50051;
+
+  private Executor executor = new Executor();
+  private EventLoop eventLoop = new EventLoop();
+  private Connection connection = new Connection();
+
+  /** Longest a unary call may run, applied when the client sets no earlier deadline */
+  private long maxCallDurationMs = 0;
+
+  /** Gzip responses for clients that accept it */
+  private boolean gzipResponses = false;
+
+  /** How long shutdown waits for in-flight calls before cancelling them */
+  private long shutdownGraceMs = 10000;
+
+  @Data
+  public static class Executor {
+
+    /**
+     * Runs handlers on the Netty event loop instead of the bounded pool. Only safe when no handler
+     * blocks, which rules out every handler that reaches the database.
+     */
+    private boolean direct = false;
+
+    private int threads = 32;
+
+    /**
+     * Admitted calls that may wait for a thread to start on before new calls are refused with
+     * RESOURCE_EXHAUSTED. Callbacks of calls already running are always queued.
+     */
+    private int queueCapacity = 1000;
+  }
+
+  @Data
+  public static class EventLoop {
+
+    /** Threads accepting connections */
+    private int bossThreads = 1;
+
+    /** Threads doing network I/O, 0 for Netty's default of twice the available processors */
+    private int workerThreads = 0;
+  }
+
+  @Data
+  public static class Connection {
+
+    /** Idle time after which the server pings a client to check the connection is alive */
+    private long keepAliveTimeMs = 0;
+
+    private long keepAliveTimeoutMs = 0;
+
+    /** Most frequent keepalive ping a client may send before its connection is closed */
+    private long permitKeepAliveTimeMs = 0;
+
+    private boolean permitKeepAliveWithoutCalls = false;
+
+    /**
+     * Age after which a connection is gracefully closed, so clients reconnect and load spreads over
+     * replicas that were added since they connected.
+     */
+    private long maxConnectionAgeMs = 0;
+
+    private long maxConnectionAgeGraceMs = 0;
+
+    private long maxConnectionIdleMs = 0;
+
+    private int maxConcurrentCallsPerConnection = 0;
+
+    private int maxInboundMessageSize = 0;
+
+    /** Initial HTTP/2 flow control window, in bytes */
+    private int flowControlWindow = 0;
+  }
+}
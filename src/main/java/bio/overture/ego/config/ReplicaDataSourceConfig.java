@@ -0,0 +1,70 @@
+package bio.overture.ego.config;
+
+import static bio.overture.ego.config.ReplicaRoutingDataSource.Target.PRIMARY;
+import static bio.overture.ego.config.ReplicaRoutingDataSource.Target.REPLICA;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * When {@code replica.enabled} is set, replaces the single datasource with one that sends read-only
+ * transactions to the replica pool and everything else, including reads while the replica is
+ * lagging, to the primary pool configured under {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    val dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(
+      DataSourceProperties primaryProperties, ReplicaProperties properties) {
+    val dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+    dataSource.setJdbcUrl(properties.getUrl());
+    dataSource.setUsername(properties.getUsername());
+    dataSource.setPassword(properties.getPassword());
+    dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagGuard replicaLagGuard(
+      @Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaProperties properties) {
+    return new ReplicaLagGuard(
+        replicaDataSource, properties.getMaxLagSeconds(), properties.getLagCheckIntervalMs());
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") DataSource replicaDataSource,
+      ReplicaLagGuard replicaLagGuard) {
+    val routing = new ReplicaRoutingDataSource(replicaLagGuard);
+    routing.setTargetDataSources(
+        Map.<Object, Object>of(PRIMARY, primaryDataSource, REPLICA, replicaDataSource));
+    routing.setDefaultTargetDataSource(primaryDataSource);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
@@ -0,0 +1,89 @@
+package bio.overture.ego.config;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Periodically measures how far the replica is behind the primary. The replica is only reported as
+ * usable while the last check succeeded and measured a lag within the configured limit, so a
+ * replica that is down, falling behind or of unknown lag stops receiving reads until it catches up.
+ */
+@Slf4j
+public class ReplicaLagGuard implements DisposableBean {
+
+  /** Constants */
+  // An idle primary produces no new WAL, so a replica that has replayed everything it received is
+  // caught up no matter how old its last replayed transaction is. The lag is unknown (null) when
+  // the server is not a replica, or has not replayed a transaction yet.
+  private static final String LAG_SECONDS =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() THEN NULL "
+          + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+          + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+  /** Dependencies */
+  private final JdbcTemplate replicaJdbcTemplate;
+
+  /** Configuration */
+  private final long maxLagSeconds;
+
+  private final ScheduledExecutorService scheduler;
+  private volatile boolean replicaUsable;
+
+  public ReplicaLagGuard(
+      @NonNull DataSource replicaDataSource, long maxLagSeconds, long checkIntervalMs) {
+    this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+    this.maxLagSeconds = maxLagSeconds;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              final Thread thread = new Thread(r, "replica-lag-guard");
+              thread.setDaemon(true);
+              return thread;
+            });
+    check();
+    scheduler.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, MILLISECONDS);
+  }
+
+  public boolean isReplicaUsable() {
+    return replicaUsable;
+  }
+
+  void check() {
+    boolean usable;
+    try {
+      val lag = replicaJdbcTemplate.queryForObject(LAG_SECONDS, Double.class);
+      usable = lag != null && lag <= maxLagSeconds;
+      if (!usable && replicaUsable) {
+        if (lag == null) {
+          log.warn("Replica lag is unknown, sending reads to the primary");
+        } else {
+          log.warn(
+              "Replica is {} seconds behind the primary, sending reads to the primary",
+              lag.longValue());
+        }
+      }
+    } catch (RuntimeException e) {
+      usable = false;
+      if (replicaUsable) {
+        log.warn("Replica lag check failed, sending reads to the primary: {}", e.getMessage());
+      }
+    }
+    if (usable && !replicaUsable) {
+      log.info("Replica is caught up, sending read-only transactions to the replica");
+    }
+    replicaUsable = usable;
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+  }
+}
@@ -0,0 +1,22 @@
+package bio.overture.ego.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+
+  private boolean enabled;
+  private String url;
+  private String username;
+  private String password;
+  private int maximumPoolSize = 10;
+
+  /** Replication lag, in seconds, above which read-only transactions go to the primary */
+  private long maxLagSeconds = 10;
+
+  private long lagCheckIntervalMs = 5000;
+}
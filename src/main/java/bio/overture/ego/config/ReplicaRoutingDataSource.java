@@ -0,0 +1,35 @@
+package bio.overture.ego.config;
+
+import lombok.NonNull;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica, and everything else to the primary.
+ *
+ * <p>The read-only flag of a transaction is only known once the transaction has begun, so this must
+ * be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} to
+ * defer choosing a target until the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  /** Dependencies */
+  private final ReplicaLagGuard lagGuard;
+
+  public ReplicaRoutingDataSource(@NonNull ReplicaLagGuard lagGuard) {
+    this.lagGuard = lagGuard;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && lagGuard.isReplicaUsable()
+        ? Target.REPLICA
+        : Target.PRIMARY;
+  }
+}
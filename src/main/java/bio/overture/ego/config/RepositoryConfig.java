@@ -0,0 +1,11 @@
+package bio.overture.ego.config;
+
+import bio.overture.ego.repository.EgoJpaRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(
+    basePackages = "bio.overture.ego.repository",
+    repositoryBaseClass = EgoJpaRepository.class)
+public class RepositoryConfig {}
@@ -203,6 +203,8 @@ public class SecureServerConfig {
           .apply(authorizationServerConfigurer)
           .and()
           .authorizeRequests()
+          .antMatchers("/actuator/metrics/**")
+          .access("@authorizationManager.authorizeWithAdminRole(authentication)")
           .antMatchers(
               "/",
               "/favicon.ico",
@@ -16,12 +16,15 @@
 
 package bio.overture.ego.config;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.AFTER;
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
 import static bio.overture.ego.utils.SwaggerConstants.AUTH_CONTROLLER;
 import static bio.overture.ego.utils.SwaggerConstants.POST_ACCESS_TOKEN;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static springfox.documentation.builders.RequestHandlerSelectors.basePackage;
 import static springfox.documentation.spi.DocumentationType.SWAGGER_2;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import com.fasterxml.classmate.TypeResolver;
 import com.google.common.base.Predicates;
 import java.util.ArrayList;
@@ -47,7 +50,9 @@ import springfox.documentation.service.Parameter;
 import springfox.documentation.service.SecurityReference;
 import springfox.documentation.service.VendorExtension;
 import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spi.service.OperationBuilderPlugin;
 import springfox.documentation.spi.service.ParameterBuilderPlugin;
+import springfox.documentation.spi.service.contexts.OperationContext;
 import springfox.documentation.spi.service.contexts.ParameterContext;
 import springfox.documentation.spi.service.contexts.SecurityContext;
 import springfox.documentation.spring.web.paths.RelativePathProvider;
@@ -68,6 +73,13 @@ public class SwaggerConfig {
           "/transaction/group_permissions",
           "/transaction/mass_delete");
 
+  private static final String AFTER_DESCRIPTION =
+      "Keyset cursor: the 'next' value of the previous page. Pass it empty to start keyset paging, which ignores offset";
+  private static final String COUNT_DESCRIPTION =
+      "How to compute the total: EXACT|ESTIMATE|NONE. ESTIMATE reads planner statistics for unfiltered listings. Default: EXACT";
+  private static final String KEYSET_COUNT_DESCRIPTION =
+      COUNT_DESCRIPTION + ", or NONE with keyset paging";
+
   private final BuildProperties buildProperties;
 
   @Autowired
@@ -102,6 +114,24 @@ public class SwaggerConfig {
     };
   }
 
+  @Bean
+  public OperationBuilderPlugin pagingParamsPlugin() {
+    return new OperationBuilderPlugin() {
+      @Override
+      public void apply(OperationContext context) {
+        val annotation = context.findAnnotation(ApiPagingParams.class);
+        if (annotation.isPresent()) {
+          context.operationBuilder().parameters(generatePagingParameters(annotation.get()));
+        }
+      }
+
+      @Override
+      public boolean supports(DocumentationType delimiter) {
+        return SwaggerPluginSupport.pluginDoesApply(delimiter);
+      }
+    };
+  }
+
   @Bean
   public Docket productApi(SwaggerProperties swaggerProperties) {
     return new Docket(SWAGGER_2)
@@ -175,6 +205,26 @@ public class SwaggerConfig {
         .collect(toUnmodifiableList());
   }
 
+  private static List<Parameter> generatePagingParameters(ApiPagingParams annotation) {
+    if (!annotation.keyset()) {
+      return List.of(generateQueryParameter(COUNT, COUNT_DESCRIPTION));
+    }
+    return List.of(
+        generateQueryParameter(AFTER, AFTER_DESCRIPTION),
+        generateQueryParameter(COUNT, KEYSET_COUNT_DESCRIPTION));
+  }
+
+  private static Parameter generateQueryParameter(String name, String description) {
+    return new ParameterBuilder()
+        .type(new TypeResolver().resolve(String.class))
+        .name(name)
+        .description(description)
+        .parameterType("query")
+        .required(false)
+        .modelRef(new ModelRef("string"))
+        .build();
+  }
+
   @Component
   @ConfigurationProperties(prefix = "swagger")
   @Setter
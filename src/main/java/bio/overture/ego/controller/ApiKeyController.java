@@ -32,6 +32,7 @@ import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import bio.overture.ego.model.dto.*;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.entity.Application;
@@ -195,6 +196,7 @@ public class ApiKeyController {
   }
 
   @RequestMapping(method = GET, value = "/api_key")
+  @ApiPagingParams
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
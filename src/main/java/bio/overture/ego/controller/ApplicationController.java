@@ -27,6 +27,7 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import bio.overture.ego.model.dto.*;
 import bio.overture.ego.model.entity.*;
 import bio.overture.ego.model.search.Filters;
@@ -81,6 +82,7 @@ public class ApplicationController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "")
+  @ApiPagingParams
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -264,6 +266,7 @@ public class ApplicationController {
    */
   @AdminScoped
   @RequestMapping(method = GET, value = "/{id}/permissions")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -299,8 +302,15 @@ public class ApplicationController {
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @PathVariable(value = "id", required = true) UUID id,
+      @RequestParam(value = "query", required = false) String query,
+      @ApiIgnore @Filters List<SearchFilter> filters,
       @ApiIgnore Pageable pageable) {
-    return new PageDTO<>(applicationPermissionService.getPermissions(id, pageable));
+    if (isEmpty(query)) {
+      return new PageDTO<>(applicationPermissionService.listPermissions(id, filters, pageable));
+    } else {
+      return new PageDTO<>(
+          applicationPermissionService.findPermissions(id, filters, query, pageable));
+    }
   }
 
   @AdminScoped
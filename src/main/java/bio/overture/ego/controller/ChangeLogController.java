@@ -0,0 +1,125 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.service.ChangeLogService.DEFAULT_LIMIT;
+import static bio.overture.ego.service.ChangeLogService.MAX_WAIT_MS;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import bio.overture.ego.model.dto.ChangeLogResponse;
+import bio.overture.ego.security.ApplicationScoped;
+import bio.overture.ego.service.ChangeLogService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Slf4j
+@RestController
+@RequestMapping("/changes")
+@Api(tags = "Changes")
+public class ChangeLogController implements DisposableBean {
+
+  /** Constants */
+  private static final long POLL_INTERVAL_MS = 250L;
+
+  private static final int POLL_THREADS = 2;
+
+  /** Dependencies */
+  private final ChangeLogService changeLogService;
+
+  /** Re-reads the change log for every waiting long-poll, so that no request thread waits */
+  private final ScheduledExecutorService pollScheduler;
+
+  @Autowired
+  public ChangeLogController(@NonNull ChangeLogService changeLogService) {
+    this.changeLogService = changeLogService;
+    this.pollScheduler =
+        Executors.newScheduledThreadPool(
+            POLL_THREADS,
+            new ThreadFactoryBuilder()
+                .setNameFormat("http-change-poll-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  @ApplicationScoped
+  @RequestMapping(method = GET, value = "")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Changes committed after the supplied cursor, in sequence order",
+            response = ChangeLogResponse.class)
+      })
+  public @ResponseBody DeferredResult<ChangeLogResponse> listChanges(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Sequence number to resume from. Use the cursor of the previous response")
+          @RequestParam(value = "after", required = false, defaultValue = "0")
+          long after,
+      @ApiParam(value = "Maximum number of changes to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT)
+          int limit,
+      @ApiParam(value = "Milliseconds to wait for new changes when none are available (long-poll)")
+          @RequestParam(value = "waitMs", required = false, defaultValue = "0")
+          long waitMs) {
+    val wait = min(max(waitMs, 0L), MAX_WAIT_MS);
+    val noChanges = ChangeLogResponse.builder().cursor(after).changes(emptyList()).build();
+    val result = new DeferredResult<ChangeLogResponse>(wait + POLL_INTERVAL_MS * 4, noChanges);
+    poll(result, after, limit, System.currentTimeMillis() + wait);
+    return result;
+  }
+
+  @Override
+  public void destroy() {
+    pollScheduler.shutdownNow();
+  }
+
+  /**
+   * Completes the result as soon as there are changes after the cursor, or with the empty response
+   * once the deadline has passed. Otherwise reads again after POLL_INTERVAL_MS on the poll
+   * scheduler, and gives up if the request has already completed or timed out.
+   */
+  private void poll(
+      DeferredResult<ChangeLogResponse> result, long after, int limit, long deadline) {
+    if (result.isSetOrExpired()) {
+      return;
+    }
+    try {
+      val response = changeLogService.listChanges(after, limit);
+      if (!response.getChanges().isEmpty() || System.currentTimeMillis() >= deadline) {
+        result.setResult(response);
+        return;
+      }
+      pollScheduler.schedule(
+          () -> poll(result, after, limit, deadline), POLL_INTERVAL_MS, MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      result.setErrorResult(
+          new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is shutting down."));
+    } catch (RuntimeException e) {
+      log.error("Change log poll failed at cursor {}: {}", after, e.getMessage());
+      result.setErrorResult(e);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.utils.Ndjson.NDJSON_VALUE;
+import static bio.overture.ego.utils.Ndjson.writeNdjsonLine;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import bio.overture.ego.model.enums.ExportType;
+import bio.overture.ego.security.AdminScoped;
+import bio.overture.ego.service.ExportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Slf4j
+@RestController
+@RequestMapping("/export")
+@Api(tags = "Export")
+public class ExportController {
+
+  /** Dependencies */
+  private final ExportService exportService;
+
+  @Autowired
+  public ExportController(@NonNull ExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  @AdminScoped
+  @RequestMapping(method = GET, value = "", produces = NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Stream users, groups, applications, policies, memberships and permissions as "
+                    + "newline delimited JSON, from a single consistent snapshot. The first line "
+                    + "holds the change log cursor the snapshot corresponds to.")
+      })
+  public void export(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Types of record to export. Defaults to all of them")
+          @RequestParam(value = "types", required = false)
+          List<ExportType> types,
+      @ApiIgnore HttpServletResponse response)
+      throws IOException {
+    response.setContentType(NDJSON_VALUE);
+    val out = response.getOutputStream();
+    exportService.export(
+        types == null || types.isEmpty() ? Arrays.asList(ExportType.values()) : types,
+        r -> writeNdjsonLine(out, r));
+    out.flush();
+  }
+}
@@ -20,13 +20,17 @@ import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
+import static bio.overture.ego.utils.JsonArrayIterator.readJsonArray;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.util.StringUtils.isEmpty;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
+import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import bio.overture.ego.model.dto.GroupRequest;
+import bio.overture.ego.model.dto.MembershipSyncResponse;
 import bio.overture.ego.model.dto.PageDTO;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.entity.Application;
@@ -48,6 +52,7 @@ import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 import lombok.NonNull;
@@ -95,6 +100,7 @@ public class GroupController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "")
+  @ApiPagingParams
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -188,6 +194,7 @@ public class GroupController {
    */
   @AdminScoped
   @RequestMapping(method = GET, value = "/{id}/permissions")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = Fields.ID,
@@ -229,8 +236,14 @@ public class GroupController {
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @PathVariable(value = "id", required = true) UUID id,
+      @RequestParam(value = "query", required = false) String query,
+      @ApiIgnore @Filters List<SearchFilter> filters,
       @ApiIgnore Pageable pageable) {
-    return new PageDTO<>(groupPermissionService.getPermissions(id, pageable));
+    if (isEmpty(query)) {
+      return new PageDTO<>(groupPermissionService.listPermissions(id, filters, pageable));
+    } else {
+      return new PageDTO<>(groupPermissionService.findPermissions(id, filters, query, pageable));
+    }
   }
 
   @AdminScoped
@@ -400,6 +413,34 @@ public class GroupController {
     return groupService.associateUsersWithGroup(id, userIds);
   }
 
+  @AdminScoped
+  @RequestMapping(method = PUT, value = "/{id}/users")
+  @ApiImplicitParams({
+    @ApiImplicitParam(
+        name = "userIds",
+        required = true,
+        dataType = "string",
+        allowMultiple = true,
+        paramType = "body",
+        value =
+            "JSON array of every user id that should be a member of the group. "
+                + "The body is streamed, so it may be arbitrarily large.")
+  })
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Replace the Users of a Group",
+            response = MembershipSyncResponse.class)
+      })
+  public @ResponseBody MembershipSyncResponse replaceUsersOfGroup(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @ApiIgnore InputStream userIds) {
+    return groupService.replaceUsersOfGroup(id, readJsonArray(userIds, UUID.class));
+  }
+
   @AdminScoped
   @RequestMapping(method = DELETE, value = "/{id}/users/{userIds}")
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Delete Users from Group")})
@@ -5,12 +5,16 @@ import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
 import static bio.overture.ego.model.dto.GenericResponse.createGenericResponse;
+import static bio.overture.ego.service.UserPermissionService.DEFAULT_EFFECTIVE_ACCESS_LIMIT;
+import static bio.overture.ego.utils.Ndjson.NDJSON_VALUE;
+import static bio.overture.ego.utils.Ndjson.writeNdjsonLine;
 import static org.springframework.util.StringUtils.isEmpty;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import bio.overture.ego.model.dto.*;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
@@ -37,7 +41,9 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 @Slf4j
@@ -79,6 +85,7 @@ public class PolicyController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "")
+  @ApiPagingParams
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = Fields.ID,
@@ -265,6 +272,7 @@ public class PolicyController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "/{id}/users")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -320,6 +328,7 @@ public class PolicyController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "/{id}/groups")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -378,6 +387,7 @@ public class PolicyController {
 
   @AdminScoped
   @RequestMapping(method = GET, value = "/{id}/applications")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -434,4 +444,53 @@ public class PolicyController {
               id, filters, query, decoratedPageable));
     }
   }
+
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/{id}/access")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Get users with effective access to the given policy, through direct or group "
+                    + "permissions, with DENY overriding any other grant")
+      })
+  public @ResponseBody KeysetPageDTO<PolicyResponse> listEffectiveUserAccess(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @ApiParam(value = "User id returned as 'next' by the previous page", required = false)
+          @RequestParam(value = "after", required = false)
+          UUID after,
+      @ApiParam(value = "Number of results to retrieve", required = false)
+          @RequestParam(
+              value = "limit",
+              required = false,
+              defaultValue = "" + DEFAULT_EFFECTIVE_ACCESS_LIMIT)
+          int limit) {
+    return userPermissionService.listEffectiveUserAccess(id, after, limit);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/{id}/access/export", produces = NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Stream every user with effective access to the given policy as newline "
+                    + "delimited JSON")
+      })
+  public ResponseEntity<StreamingResponseBody> exportEffectiveUserAccess(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id) {
+    policyService.checkExistence(id);
+    StreamingResponseBody body =
+        out -> {
+          userPermissionService.forEachEffectiveUserAccess(id, x -> writeNdjsonLine(out, x));
+          out.flush();
+        };
+    return ResponseEntity.ok().body(body);
+  }
 }
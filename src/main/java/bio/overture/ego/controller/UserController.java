@@ -20,8 +20,14 @@ import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
+import static bio.overture.ego.model.enums.UserImportFormat.CSV;
+import static bio.overture.ego.model.enums.UserImportFormat.NDJSON;
+import static bio.overture.ego.utils.Ndjson.NDJSON_VALUE;
+import static bio.overture.ego.utils.Ndjson.writeNdjsonLine;
+import static bio.overture.ego.utils.UserImportReader.readUsers;
 import static org.springframework.util.StringUtils.isEmpty;
 
+import bio.overture.ego.controller.resolver.ApiPagingParams;
 import bio.overture.ego.model.dto.*;
 import bio.overture.ego.model.entity.*;
 import bio.overture.ego.model.enums.Fields;
@@ -37,14 +43,20 @@ import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import javax.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -62,9 +74,14 @@ import springfox.documentation.annotations.ApiIgnore;
 @Api(tags = "Users")
 public class UserController {
 
+  /** Constants */
+  private static final String CSV_VALUE = "text/csv";
+
   /** Dependencies */
   private final UserService userService;
 
+  private final UserImportService userImportService;
+
   private final GroupService groupService;
   private final ApplicationService applicationService;
   private final UserPermissionService userPermissionService;
@@ -72,10 +89,12 @@ public class UserController {
   @Autowired
   public UserController(
       @NonNull UserService userService,
+      @NonNull UserImportService userImportService,
       @NonNull GroupService groupService,
       @NonNull UserPermissionService userPermissionService,
       @NonNull ApplicationService applicationService) {
     this.userService = userService;
+    this.userImportService = userImportService;
     this.groupService = groupService;
     this.applicationService = applicationService;
     this.userPermissionService = userPermissionService;
@@ -83,6 +102,7 @@ public class UserController {
 
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "")
+  @ApiPagingParams
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = Fields.ID,
@@ -135,6 +155,37 @@ public class UserController {
     }
   }
 
+  @AdminScoped
+  @RequestMapping(
+      method = RequestMethod.POST,
+      value = "/import",
+      consumes = {NDJSON_VALUE, CSV_VALUE},
+      produces = NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Create users from newline delimited JSON or CSV. The input is read and written "
+                    + "in batches as it arrives. Every row that does not create a user is "
+                    + "reported as a JSON line while the import runs, followed by a summary line.")
+      })
+  public void importUsers(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiIgnore @RequestHeader(value = HttpHeaders.CONTENT_TYPE) String contentType,
+      @ApiIgnore InputStream body,
+      @ApiIgnore HttpServletResponse response)
+      throws IOException {
+    val csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf(CSV_VALUE));
+    val rows = readUsers(body, csv ? CSV : NDJSON);
+    response.setContentType(NDJSON_VALUE);
+    val out = response.getOutputStream();
+    val summary = userImportService.importUsers(rows, r -> writeNdjsonLine(out, r));
+    writeNdjsonLine(out, summary);
+    out.flush();
+  }
+
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "/{id}")
   @ApiResponses(value = {@ApiResponse(code = 200, message = "User Details", response = User.class)})
@@ -178,6 +229,7 @@ public class UserController {
    */
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "/{id}/permissions")
+  @ApiPagingParams(keyset = false)
   @ApiImplicitParams({
     @ApiImplicitParam(
         name = LIMIT,
@@ -210,8 +262,14 @@ public class UserController {
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @PathVariable(value = "id", required = true) UUID id,
+      @RequestParam(value = "query", required = false) String query,
+      @ApiIgnore @Filters List<SearchFilter> filters,
       @ApiIgnore Pageable pageable) {
-    return new PageDTO<>(userPermissionService.getPermissions(id, pageable));
+    if (isEmpty(query)) {
+      return new PageDTO<>(userPermissionService.listPermissions(id, filters, pageable));
+    } else {
+      return new PageDTO<>(userPermissionService.findPermissions(id, filters, query, pageable));
+    }
   }
 
   @AdminScoped
@@ -0,0 +1,19 @@
+package bio.overture.ego.controller.resolver;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Documents the keyset cursor and count mode query parameters that {@link PageableResolver} reads,
+ * on listing endpoints whose other parameters are declared with ApiImplicitParams. Springfox reads
+ * only one ApiImplicitParams per method, so these are added by a plugin in SwaggerConfig instead.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ApiPagingParams {
+
+  /** Whether the endpoint pages by keyset cursor, or only offers the count mode */
+  boolean keyset() default true;
+}
@@ -16,6 +16,16 @@
 
 package bio.overture.ego.controller.resolver;
 
+import static bio.overture.ego.model.enums.CountMode.EXACT;
+import static bio.overture.ego.model.enums.CountMode.NONE;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.utils.Joiners.COMMA;
+
+import bio.overture.ego.model.domain.CountedPageable;
+import bio.overture.ego.model.domain.KeysetPageable;
+import bio.overture.ego.model.enums.CountMode;
+import java.util.Arrays;
+import lombok.val;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,6 +41,8 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
   public static final String SORTORDER = "sortOrder";
   public static final String OFFSET = "offset";
   public static final String LIMIT = "limit";
+  public static final String AFTER = "after";
+  public static final String COUNT = "count";
 
   @Override
   public boolean supportsParameter(MethodParameter methodParameter) {
@@ -49,19 +61,51 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
     String offset = nativeWebRequest.getParameter(OFFSET);
     String sort = nativeWebRequest.getParameter(SORT);
     String sortOrder = nativeWebRequest.getParameter(SORTORDER);
-
-    return getPageable(limit, offset, sort, sortOrder);
+    String after = nativeWebRequest.getParameter(AFTER);
+    String count = nativeWebRequest.getParameter(COUNT);
+
+    if (after == null) {
+      return getPageable(limit, offset, sort, sortOrder, parseCountMode(count, EXACT));
+    }
+    // The presence of "after" (even empty, for the first page) opts into keyset pagination
+    val pageable = getPageable(limit, offset, sort, sortOrder, NONE);
+    return new KeysetPageable(
+        pageable.getPageSize(), pageable.getSort(), after, parseCountMode(count, NONE));
   }
 
   public Pageable getPageable() {
-    return getPageable(null, null, null, null);
+    return getPageable(null, null, null, null, EXACT);
+  }
+
+  /** Accepts a CountMode name, or the booleans that keyset paging used to take. */
+  private static CountMode parseCountMode(String count, CountMode defaultMode) {
+    if (StringUtils.isEmpty(count)) {
+      return defaultMode;
+    } else if ("true".equalsIgnoreCase(count)) {
+      return EXACT;
+    } else if ("false".equalsIgnoreCase(count)) {
+      return NONE;
+    }
+    return Arrays.stream(CountMode.values())
+        .filter(m -> m.name().equalsIgnoreCase(count))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                buildMalformedRequest(
+                    "The count '%s' must be one of: %s", count, COMMA.join(CountMode.values())));
   }
 
-  private Pageable getPageable(String limit, String offset, String sort, String sortOrder) {
-    return new Pageable() {
+  private Pageable getPageable(
+      String limit, String offset, String sort, String sortOrder, CountMode countMode) {
+    return new CountedPageable() {
       private final int DEFAULT_LIMIT = 20;
       private final int DEFAULT_PAGE_NUM = 0;
 
+      @Override
+      public CountMode getCountMode() {
+        return countMode;
+      }
+
       @Override
       public int getPageNumber() {
         return 0;
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package bio.overture.ego.event.auth;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthEventsPublisher {
+
+  private ApplicationEventPublisher applicationEventPublisher;
+
+  @Autowired
+  public AuthEventsPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    this.applicationEventPublisher = applicationEventPublisher;
+  }
+
+  public void principalChanged(@NonNull final UUID principalId) {
+    principalsChanged(ImmutableSet.of(principalId));
+  }
+
+  public void principalsChanged(@NonNull final Set<UUID> principalIds) {
+    if (!principalIds.isEmpty()) {
+      applicationEventPublisher.publishEvent(new PrincipalChangedEvent(this, principalIds));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2019. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package bio.overture.ego.event.auth;
+
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.context.ApplicationEvent;
+
+/** A user or application whose status, type or existence changed, so its auth may be stale */
+public class PrincipalChangedEvent extends ApplicationEvent {
+
+  @Getter private Set<UUID> principalIds;
+
+  public PrincipalChangedEvent(@NonNull Object source, Set<UUID> principalIds) {
+    super(source);
+    this.principalIds = principalIds;
+  }
+}
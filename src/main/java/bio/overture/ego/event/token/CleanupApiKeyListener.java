@@ -22,10 +22,10 @@ import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import bio.overture.ego.model.dto.ApiKeyResponse;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.entity.Policy;
-import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.params.ScopeName;
 import bio.overture.ego.service.TokenService;
 import java.util.Set;
+import java.util.UUID;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -47,17 +47,17 @@ public class CleanupApiKeyListener implements ApplicationListener<CleanupUserApi
 
   @Override
   public void onApplicationEvent(@NonNull CleanupUserApiKeysEvent event) {
-    log.debug("Number of users to be checked for api key cleanup: {}", event.getUsers().size());
-    cleanupApiKeys(event.getUsers());
+    log.debug("Number of users to be checked for api key cleanup: {}", event.getUserIds().size());
+    cleanupApiKeys(event.getUserIds());
   }
 
-  private void cleanupApiKeys(@NonNull Set<User> users) {
-    users.forEach(this::cleanupApiKeysForUser);
+  private void cleanupApiKeys(@NonNull Set<UUID> userIds) {
+    userIds.forEach(this::cleanupApiKeysForUser);
   }
 
-  private void cleanupApiKeysForUser(@NonNull User user) {
-    val scopes = tokenService.userScopes(user.getId()).getScopes();
-    val apiKeys = tokenService.listApiKey(user.getId());
+  private void cleanupApiKeysForUser(@NonNull UUID userId) {
+    val scopes = tokenService.userScopes(userId).getScopes();
+    val apiKeys = tokenService.listApiKey(userId);
     apiKeys.forEach(t -> verifyApiKey(t, scopes));
   }
 
@@ -17,7 +17,6 @@
 
 package bio.overture.ego.event.token;
 
-import bio.overture.ego.model.entity.ApiKey;
 import bio.overture.ego.service.TokenService;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +36,6 @@ public class RevokeApiKeyListener implements ApplicationListener<RevokeApiKeysEv
 
   @Override
   public void onApplicationEvent(@NonNull RevokeApiKeysEvent event) {
-    event.getApiKeys().stream().map(ApiKey::getName).forEach(tokenService::revoke);
+    tokenService.revokeApiKeys(event.getApiKeyIds());
   }
 }
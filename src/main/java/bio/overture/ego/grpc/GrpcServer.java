@@ -1,17 +1,38 @@
 package bio.overture.ego.grpc;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import bio.overture.ego.config.GrpcProperties;
 import bio.overture.ego.grpc.interceptor.AuthInterceptor;
+import bio.overture.ego.grpc.interceptor.CallDeadlineInterceptor;
+import bio.overture.ego.grpc.interceptor.CallDispatchInterceptor;
+import bio.overture.ego.grpc.interceptor.GzipResponseInterceptor;
+import bio.overture.ego.grpc.service.ChangeLogServiceGrpcImpl;
+import bio.overture.ego.grpc.service.TokenServiceGrpcImpl;
 import bio.overture.ego.grpc.service.UserServiceGrpcImpl;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.BindableService;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
 import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
@@ -21,32 +42,160 @@ import org.springframework.stereotype.Component;
 @Profile("grpc")
 public class GrpcServer implements CommandLineRunner, DisposableBean {
 
-  @Value("${grpc.port}")
-  private int port;
+  /** Constants */
+  private static final long EXECUTOR_KEEP_ALIVE_MS = 60000L;
+
+  /** Configuration */
+  private final GrpcProperties properties;
 
   private Server server;
 
+  /** Resources owned by the running server, released on shutdown */
+  private ThreadPoolExecutor executor;
+
+  private EventLoopGroup bossGroup;
+  private EventLoopGroup workerGroup;
+  private ScheduledExecutorService deadlineScheduler;
+
   private final AuthInterceptor authInterceptor;
   private final UserServiceGrpcImpl userServiceImpl;
+  private final ChangeLogServiceGrpcImpl changeLogServiceImpl;
+  private final TokenServiceGrpcImpl tokenServiceImpl;
 
   @Autowired
   public GrpcServer(
-      @NonNull AuthInterceptor authInterceptor, @NonNull UserServiceGrpcImpl userServiceImpl) {
+      @NonNull GrpcProperties properties,
+      @NonNull AuthInterceptor authInterceptor,
+      @NonNull UserServiceGrpcImpl userServiceImpl,
+      @NonNull ChangeLogServiceGrpcImpl changeLogServiceImpl,
+      @NonNull TokenServiceGrpcImpl tokenServiceImpl) {
+    this.properties = properties;
 
     this.authInterceptor = authInterceptor;
 
     this.userServiceImpl = userServiceImpl;
+    this.changeLogServiceImpl = changeLogServiceImpl;
+    this.tokenServiceImpl = tokenServiceImpl;
   }
 
   @Override
   public void run(String... args) throws Exception {
+    server = buildServer().start();
+
+    log.info("gRPC Server started, listening on " + server.getPort());
+    startDaemonAwaitThread();
+  }
 
-    val userService = ServerInterceptors.intercept(userServiceImpl, authInterceptor);
+  /** The port the server is bound to, which differs from the configured one when that is 0 */
+  public int getPort() {
+    return server.getPort();
+  }
 
-    server = ServerBuilder.forPort(port).addService(userService).build().start();
+  private Server buildServer() {
+    val builder = NettyServerBuilder.forPort(properties.getPort());
+    configureThreads(builder);
+    configureConnections(builder, properties.getConnection());
 
-    log.info("gRPC Server started, listening on " + port);
-    startDaemonAwaitThread();
+    val interceptors = buildInterceptors();
+    builder
+        .addService(intercept(userServiceImpl, interceptors))
+        .addService(intercept(changeLogServiceImpl, interceptors))
+        .addService(intercept(tokenServiceImpl, interceptors));
+    return builder.build();
+  }
+
+  private void configureThreads(NettyServerBuilder builder) {
+    val eventLoop = properties.getEventLoop();
+    bossGroup = new NioEventLoopGroup(eventLoop.getBossThreads(), threadFactory("grpc-boss-%d"));
+    workerGroup =
+        new NioEventLoopGroup(eventLoop.getWorkerThreads(), threadFactory("grpc-worker-%d"));
+    builder
+        .channelType(NioServerSocketChannel.class)
+        .bossEventLoopGroup(bossGroup)
+        .workerEventLoopGroup(workerGroup);
+
+    // Calls reach the application executor through CallDispatchInterceptor, which can refuse them
+    builder.directExecutor();
+    val executorProperties = properties.getExecutor();
+    if (executorProperties.isDirect()) {
+      log.warn(
+          "gRPC handlers run on the Netty event loop (grpc.executor.direct). Handlers that block, "
+              + "which includes every one reading the database, stall all connections on their loop.");
+    } else {
+      executor =
+          new ThreadPoolExecutor(
+              executorProperties.getThreads(),
+              executorProperties.getThreads(),
+              EXECUTOR_KEEP_ALIVE_MS,
+              MILLISECONDS,
+              new LinkedBlockingQueue<>(),
+              threadFactory("grpc-app-%d"));
+      executor.allowCoreThreadTimeOut(true);
+    }
+  }
+
+  private static void configureConnections(
+      NettyServerBuilder builder, GrpcProperties.Connection connection) {
+    if (connection.getKeepAliveTimeMs() > 0) {
+      builder.keepAliveTime(connection.getKeepAliveTimeMs(), MILLISECONDS);
+    }
+    if (connection.getKeepAliveTimeoutMs() > 0) {
+      builder.keepAliveTimeout(connection.getKeepAliveTimeoutMs(), MILLISECONDS);
+    }
+    if (connection.getPermitKeepAliveTimeMs() > 0) {
+      builder.permitKeepAliveTime(connection.getPermitKeepAliveTimeMs(), MILLISECONDS);
+    }
+    builder.permitKeepAliveWithoutCalls(connection.isPermitKeepAliveWithoutCalls());
+    if (connection.getMaxConnectionAgeMs() > 0) {
+      builder.maxConnectionAge(connection.getMaxConnectionAgeMs(), MILLISECONDS);
+    }
+    if (connection.getMaxConnectionAgeGraceMs() > 0) {
+      builder.maxConnectionAgeGrace(connection.getMaxConnectionAgeGraceMs(), MILLISECONDS);
+    }
+    if (connection.getMaxConnectionIdleMs() > 0) {
+      builder.maxConnectionIdle(connection.getMaxConnectionIdleMs(), MILLISECONDS);
+    }
+    if (connection.getMaxConcurrentCallsPerConnection() > 0) {
+      builder.maxConcurrentCallsPerConnection(connection.getMaxConcurrentCallsPerConnection());
+    }
+    if (connection.getMaxInboundMessageSize() > 0) {
+      builder.maxInboundMessageSize(connection.getMaxInboundMessageSize());
+    }
+    if (connection.getFlowControlWindow() > 0) {
+      builder.flowControlWindow(connection.getFlowControlWindow());
+    }
+  }
+
+  /**
+   * In the order they run: the deadline, which so covers time spent queued, then the hand-over to
+   * the executor, then compression and authentication on the executor's threads
+   */
+  private ServerInterceptor[] buildInterceptors() {
+    val interceptors = new ArrayList<ServerInterceptor>();
+    interceptors.add(authInterceptor);
+    if (properties.isGzipResponses()) {
+      interceptors.add(new GzipResponseInterceptor());
+    }
+    if (executor != null) {
+      interceptors.add(
+          new CallDispatchInterceptor(executor, properties.getExecutor().getQueueCapacity()));
+    }
+    if (properties.getMaxCallDurationMs() > 0) {
+      deadlineScheduler =
+          Executors.newSingleThreadScheduledExecutor(threadFactory("grpc-deadline-%d"));
+      interceptors.add(
+          new CallDeadlineInterceptor(properties.getMaxCallDurationMs(), deadlineScheduler));
+    }
+    return interceptors.toArray(new ServerInterceptor[0]);
+  }
+
+  private static ServerServiceDefinition intercept(
+      BindableService service, ServerInterceptor[] interceptors) {
+    return ServerInterceptors.intercept(service, interceptors);
+  }
+
+  private static ThreadFactory threadFactory(String nameFormat) {
+    return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
   }
 
   private void startDaemonAwaitThread() {
@@ -62,10 +211,25 @@ public class GrpcServer implements CommandLineRunner, DisposableBean {
     awaitThread.start();
   }
 
+  /**
+   * Stops accepting calls and lets in-flight calls drain for up to shutdownGraceMs before
+   * cancelling the rest, then releases the threads the server ran on.
+   */
   @Override
   public final void destroy() throws Exception {
     log.info("Shutting down gRPC server ...");
-    Optional.ofNullable(server).ifPresent(Server::shutdown);
+    if (server != null) {
+      server.shutdown();
+      if (!server.awaitTermination(properties.getShutdownGraceMs(), MILLISECONDS)) {
+        log.warn("gRPC calls still running after the shutdown grace period, cancelling them.");
+        server.shutdownNow();
+        server.awaitTermination(properties.getShutdownGraceMs(), MILLISECONDS);
+      }
+    }
+    Optional.ofNullable(executor).ifPresent(ExecutorService::shutdown);
+    Optional.ofNullable(deadlineScheduler).ifPresent(ExecutorService::shutdown);
+    Optional.ofNullable(bossGroup).ifPresent(EventLoopGroup::shutdownGracefully);
+    Optional.ofNullable(workerGroup).ifPresent(EventLoopGroup::shutdownGracefully);
     log.info("gRPC server stopped.");
   }
 }
@@ -1,7 +1,15 @@
 package bio.overture.ego.grpc;
 
+import static bio.overture.ego.model.enums.CountMode.ESTIMATE;
+import static bio.overture.ego.model.enums.CountMode.EXACT;
+import static bio.overture.ego.model.enums.CountMode.NONE;
 import static java.util.stream.Collectors.toList;
 
+import bio.overture.ego.model.domain.CountedPageable;
+import bio.overture.ego.model.domain.KeysetPage;
+import bio.overture.ego.model.domain.KeysetPageable;
+import bio.overture.ego.model.domain.SlicePage;
+import bio.overture.ego.model.enums.CountMode;
 import bio.overture.ego.model.enums.JavaFields;
 import com.google.protobuf.StringValue;
 import com.google.protobuf.UInt32Value;
@@ -30,8 +38,14 @@ public class ProtoUtils {
   }
 
   public static PagedResponse createPagedResponse(Page page, int currentPageNum) {
+    if (page instanceof SlicePage) {
+      return createSlicePagedResponse((SlicePage) page, currentPageNum);
+    }
+
     val pageBuilder =
-        PagedResponse.newBuilder().setMaxResults(Long.valueOf(page.getTotalElements()).intValue());
+        PagedResponse.newBuilder()
+            .setMaxResults(Long.valueOf(page.getTotalElements()).intValue())
+            .setTotalCount(TotalCount.TOTAL_COUNT_EXACT);
 
     if (page.getTotalPages() - 1 > currentPageNum) {
       val nextPage = UInt32Value.of(currentPageNum + 1);
@@ -41,6 +55,46 @@ public class ProtoUtils {
     return pageBuilder.build();
   }
 
+  private static PagedResponse createSlicePagedResponse(SlicePage page, int currentPageNum) {
+    val pageBuilder = PagedResponse.newBuilder().setTotalCount(toTotalCount(page.getCountMode()));
+    if (page.getTotal() != null) {
+      pageBuilder.setMaxResults(page.getTotal().intValue());
+    }
+    if (page instanceof KeysetPage) {
+      val next = ((KeysetPage) page).getNext();
+      if (next != null) {
+        pageBuilder.setNextPageToken(StringValue.of(next));
+      }
+    } else if (page.hasNext()) {
+      pageBuilder.setNextPage(UInt32Value.of(currentPageNum + 1));
+    }
+    return pageBuilder.build();
+  }
+
+  private static TotalCount toTotalCount(CountMode countMode) {
+    switch (countMode) {
+      case EXACT:
+        return TotalCount.TOTAL_COUNT_EXACT;
+      case ESTIMATE:
+        return TotalCount.TOTAL_COUNT_ESTIMATE;
+      default:
+        return TotalCount.TOTAL_COUNT_NONE;
+    }
+  }
+
+  private static CountMode toCountMode(TotalCount totalCount, CountMode defaultMode) {
+    switch (totalCount) {
+      case TOTAL_COUNT_EXACT:
+        return EXACT;
+      case TOTAL_COUNT_ESTIMATE:
+        return ESTIMATE;
+      case TOTAL_COUNT_NONE:
+        return NONE;
+      default:
+        return defaultMode;
+    }
+  }
+
   public static Pageable getPageable(PagedRequest pagedRequest) {
 
     val pageSize = pagedRequest.getPageSize();
@@ -48,9 +102,23 @@ public class ProtoUtils {
 
     val limit = pageSize == 0 ? DEFAULT_LIMIT : pageSize > MAX_LIMIT ? MAX_LIMIT : pageSize;
 
+    if (pagedRequest.hasPageToken()) {
+      return new KeysetPageable(
+          limit,
+          parseSort(sort),
+          pagedRequest.getPageToken().getValue(),
+          toCountMode(pagedRequest.getTotalCount(), pagedRequest.getIncludeTotal() ? EXACT : NONE));
+    }
+
     val pageNumber = pagedRequest.getPageNumber();
+    val countMode = toCountMode(pagedRequest.getTotalCount(), EXACT);
+
+    return new CountedPageable() {
 
-    return new Pageable() {
+      @Override
+      public CountMode getCountMode() {
+        return countMode;
+      }
 
       @Override
       public int getPageNumber() {
@@ -0,0 +1,69 @@
+package bio.overture.ego.grpc;
+
+import static bio.overture.ego.utils.Collectors.toImmutableSet;
+
+import bio.overture.ego.model.domain.UserFetchPlan;
+import com.google.protobuf.FieldMask;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * The top level User fields a caller asked for with a FieldMask. An empty mask selects every field,
+ * as before masks existed. Only the collection fields cost extra queries, so they decide the fetch
+ * plan; the remaining fields are trimmed from the converted message.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UserFieldMask {
+
+  /** Constants */
+  public static final UserFieldMask ALL = new UserFieldMask(null);
+
+  private static final String APPLICATIONS = "applications";
+  private static final String GROUPS = "groups";
+  private static final String SCOPES = "scopes";
+
+  /** Selected proto field names, or null for all of them */
+  private final Set<String> paths;
+
+  /** @throws IllegalArgumentException if a path does not name a top level User field */
+  public static UserFieldMask from(@NonNull FieldMask mask) {
+    if (mask.getPathsCount() == 0) {
+      return ALL;
+    }
+    val descriptor = User.getDescriptor();
+    for (val path : mask.getPathsList()) {
+      if (descriptor.findFieldByName(path) == null) {
+        throw new IllegalArgumentException("Unknown User field '" + path + "'");
+      }
+    }
+    return new UserFieldMask(mask.getPathsList().stream().collect(toImmutableSet()));
+  }
+
+  public boolean includes(@NonNull String field) {
+    return paths == null || paths.contains(field);
+  }
+
+  public UserFetchPlan toFetchPlan() {
+    return UserFetchPlan.builder()
+        .applications(includes(APPLICATIONS))
+        .userGroups(includes(GROUPS))
+        .userPermissions(includes(SCOPES))
+        .groupPermissions(includes(SCOPES))
+        .build();
+  }
+
+  public User toProto(@NonNull bio.overture.ego.model.entity.User user) {
+    val proto = user.toProto(includes(APPLICATIONS), includes(GROUPS), includes(SCOPES));
+    if (paths == null) {
+      return proto;
+    }
+    val builder = proto.toBuilder();
+    User.getDescriptor().getFields().stream()
+        .filter(field -> !paths.contains(field.getName()))
+        .forEach(builder::clearField);
+    return builder.build();
+  }
+}
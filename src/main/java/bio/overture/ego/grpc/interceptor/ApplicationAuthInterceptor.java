@@ -1,18 +1,18 @@
 package bio.overture.ego.grpc.interceptor;
 
+import static bio.overture.ego.model.enums.TokenType.resolveTokenType;
 import static io.grpc.Metadata.ASCII_STRING_MARSHALLER;
 
-import bio.overture.ego.model.entity.Application;
-import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ApplicationType;
 import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.model.enums.TokenType;
 import bio.overture.ego.model.enums.UserType;
-import bio.overture.ego.model.exceptions.NotFoundException;
 import bio.overture.ego.service.ApplicationService;
 import bio.overture.ego.service.TokenService;
 import bio.overture.ego.service.UserService;
 import io.grpc.*;
-import java.util.Optional;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import java.util.UUID;
 import lombok.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +31,7 @@ public class ApplicationAuthInterceptor implements AuthInterceptor {
   @Autowired private TokenService tokenService;
   @Autowired private UserService userService;
   @Autowired private ApplicationService applicationService;
+  @Autowired private AuthInfoCache authInfoCache;
 
   private static final Metadata.Key<String> JWT_METADATA_KEY =
       Metadata.Key.of("jwt", ASCII_STRING_MARSHALLER);
@@ -40,72 +41,75 @@ public class ApplicationAuthInterceptor implements AuthInterceptor {
   @Override
   public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
       ServerCall<ReqT, RespT> call, Metadata metadata, ServerCallHandler<ReqT, RespT> next) {
-    try {
-      // You need to implement validateIdentity
-      String token = metadata.get(JWT_METADATA_KEY);
-
-      val userInfo = getUserInfo(token);
-      val appInfo = getAppInfo(token);
-
-      if (!validateJwt(token) || !(userInfo.isPresent() || appInfo.isPresent())) {
-        call.close(Status.UNAUTHENTICATED.withDescription("Invalid JWT"), metadata);
-        return NOOP_LISTENER;
-      }
-
-      val isApproved =
-          (userInfo.isPresent() && userInfo.get().getStatus() == StatusType.APPROVED)
-              || (appInfo.isPresent() && appInfo.get().getStatus() == StatusType.APPROVED);
-
-      if (!isApproved) {
-        call.close(Status.UNAUTHENTICATED.withDescription("Status not approved."), metadata);
-        return NOOP_LISTENER;
-      }
+    String token = metadata.get(JWT_METADATA_KEY);
+    if (token == null || token.isEmpty()) {
+      call.close(Status.UNAUTHENTICATED.withDescription("Missing JWT"), metadata);
+      return NOOP_LISTENER;
+    }
 
-      val isAdmin =
-          (userInfo.isPresent() && userInfo.get().getType() == UserType.ADMIN)
-              || (appInfo.isPresent() && appInfo.get().getType() == ApplicationType.ADMIN);
-      val id = userInfo.isPresent() ? userInfo.get().getId() : appInfo.get().getId();
+    final AuthInfo authInfo;
+    try {
+      authInfo = authInfoCache.get(token).orElseGet(() -> resolveAndCache(token));
+    } catch (StatusRuntimeException e) {
+      call.close(e.getStatus(), metadata);
+      return NOOP_LISTENER;
+    }
 
-      val authInfo = new AuthInfo(userInfo.isPresent(), appInfo.isPresent(), isAdmin, id);
+    Context context =
+        Context.current().withValue(AUTHORIZED_JWT, token).withValue(AUTH_INFO, authInfo);
+    return Contexts.interceptCall(context, call, metadata, next);
+  }
 
-      Context context =
-          Context.current().withValue(AUTHORIZED_JWT, token).withValue(AUTH_INFO, authInfo);
-      return Contexts.interceptCall(context, call, metadata, next);
+  /**
+   * Verifies the token once and looks up only the principal its claims name. Only approved
+   * principals are cached; a rejected token is resolved again on its next call.
+   */
+  private AuthInfo resolveAndCache(String token) {
+    val generation = authInfoCache.getGeneration();
 
-    } catch (IllegalArgumentException e) {
-      call.close(Status.UNAUTHENTICATED.withDescription("Missing JWT"), metadata);
-      return NOOP_LISTENER;
+    final Claims claims;
+    try {
+      claims = tokenService.getTokenClaims(token);
+    } catch (JwtException | IllegalArgumentException e) {
+      throw unauthenticated("Invalid JWT");
     }
-  }
 
-  private boolean validateJwt(String token) {
-    return tokenService.isValidToken(token);
+    val authInfo = resolveAuthInfo(claims);
+    authInfoCache.put(token, authInfo, claims.getExpiration(), generation);
+    return authInfo;
   }
 
-  @SneakyThrows
-  private Optional<User> getUserInfo(String token) {
+  private AuthInfo resolveAuthInfo(Claims claims) {
+    val tokenType = resolveTokenType(claims).orElseThrow(() -> unauthenticated("Invalid JWT"));
+    final UUID id;
     try {
-      val claims = tokenService.getTokenUserInfo(token);
-      return claims == null ? Optional.empty() : userService.findById(claims.getId());
-    } catch (NotFoundException e) {
-      return Optional.empty();
+      id = UUID.fromString(claims.getSubject());
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw unauthenticated("Invalid JWT");
     }
+
+    if (tokenType == TokenType.USER) {
+      val user = userService.findById(id).orElseThrow(() -> unauthenticated("Invalid JWT"));
+      checkApproved(user.getStatus());
+      return new AuthInfo(true, false, user.getType() == UserType.ADMIN, id);
+    }
+    val app = applicationService.findById(id).orElseThrow(() -> unauthenticated("Invalid JWT"));
+    checkApproved(app.getStatus());
+    return new AuthInfo(false, true, app.getType() == ApplicationType.ADMIN, id);
   }
 
-  @SneakyThrows
-  private Optional<Application> getAppInfo(String token) {
-    try {
-      val claims = tokenService.getTokenAppInfo(token);
-      return claims == null
-          ? Optional.empty()
-          : applicationService.getClientApplication(claims.getClientId());
-    } catch (Exception e) {
-      return Optional.empty();
+  private static void checkApproved(StatusType status) {
+    if (status != StatusType.APPROVED) {
+      throw unauthenticated("Status not approved.");
     }
   }
 
+  private static StatusRuntimeException unauthenticated(String description) {
+    return Status.UNAUTHENTICATED.withDescription(description).asRuntimeException();
+  }
+
   @Getter
-  public class AuthInfo {
+  public static class AuthInfo {
 
     boolean user;
 
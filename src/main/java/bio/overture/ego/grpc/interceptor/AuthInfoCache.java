@@ -0,0 +1,119 @@
+package bio.overture.ego.grpc.interceptor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import bio.overture.ego.event.auth.PrincipalChangedEvent;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor.AuthInfo;
+import com.google.common.hash.Hashing;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Remembers the AuthInfo resolved for a token until the token expires, so a client reusing its
+ * token across calls is verified and looked up once. Tokens are keyed by their SHA-256 digest so
+ * the cache never holds a usable credential. Entries are dropped once a change to their user or
+ * application commits, and never outlive maxTtlMs, which bounds how long a change made by another
+ * instance can go unnoticed.
+ */
+@Component
+public class AuthInfoCache {
+
+  /** Configuration */
+  private final long maxTtlMs;
+
+  private final int maxEntries;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Bumped by every invalidation, so a lookup that raced one does not cache what it read */
+  private final AtomicLong generation = new AtomicLong();
+
+  @Autowired
+  public AuthInfoCache(
+      @Value("${grpc.authCache.maxTtlMs:300000}") long maxTtlMs,
+      @Value("${grpc.authCache.maxEntries:10000}") int maxEntries) {
+    this.maxTtlMs = maxTtlMs;
+    this.maxEntries = maxEntries;
+  }
+
+  public Optional<AuthInfo> get(@NonNull String token) {
+    val key = digest(token);
+    val entry = entries.get(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.isExpired(System.currentTimeMillis())) {
+      entries.remove(key, entry);
+      return Optional.empty();
+    }
+    return Optional.of(entry.getAuthInfo());
+  }
+
+  /** Read before resolving a token, and handed back to put with what was resolved */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  public void put(
+      @NonNull String token,
+      @NonNull AuthInfo authInfo,
+      @NonNull Date expiration,
+      long resolvedAtGeneration) {
+    val now = System.currentTimeMillis();
+    val expiresAt = Math.min(expiration.getTime(), now + maxTtlMs);
+    if (expiresAt <= now) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      entries.values().removeIf(e -> e.isExpired(now));
+      if (entries.size() >= maxEntries) {
+        entries.clear();
+      }
+    }
+    val key = digest(token);
+    val entry = new Entry(authInfo, expiresAt);
+    entries.put(key, entry);
+    if (generation.get() != resolvedAtGeneration) {
+      entries.remove(key, entry);
+    }
+  }
+
+  public void invalidate(@NonNull Collection<UUID> principalIds) {
+    generation.incrementAndGet();
+    entries.values().removeIf(e -> principalIds.contains(e.getAuthInfo().getId()));
+  }
+
+  /** Runs after commit, so a concurrent call cannot re-cache the state being replaced */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPrincipalChanged(@NonNull PrincipalChangedEvent event) {
+    invalidate(event.getPrincipalIds());
+  }
+
+  private static String digest(String token) {
+    return Hashing.sha256().hashString(token, UTF_8).toString();
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class Entry {
+    private final AuthInfo authInfo;
+    private final long expiresAt;
+
+    boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package bio.overture.ego.grpc.interceptor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Ends unary calls that outlive maxCallDurationMs with DEADLINE_EXCEEDED, unless the client set an
+ * earlier deadline, which gRPC already enforces. Streaming calls are left alone since they are
+ * meant to stay open. The call's context is cancelled at the deadline, so handlers that check it
+ * can stop early, and anything the handler sends afterwards is dropped.
+ */
+public class CallDeadlineInterceptor implements ServerInterceptor {
+
+  private final long maxCallDurationMs;
+  private final ScheduledExecutorService scheduler;
+
+  public CallDeadlineInterceptor(
+      long maxCallDurationMs, @NonNull ScheduledExecutorService scheduler) {
+    this.maxCallDurationMs = maxCallDurationMs;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (call.getMethodDescriptor().getType() != MethodType.UNARY) {
+      return next.startCall(call, headers);
+    }
+    val deadline = Deadline.after(maxCallDurationMs, MILLISECONDS);
+    val clientDeadline = Context.current().getDeadline();
+    if (clientDeadline != null && clientDeadline.isBefore(deadline)) {
+      return next.startCall(call, headers);
+    }
+
+    val closeOnce = new CloseOnceServerCall<>(call);
+    val context = Context.current().withDeadline(deadline, scheduler);
+    context.addListener(
+        c -> {
+          if (c.cancellationCause() instanceof TimeoutException) {
+            closeOnce.close(
+                Status.DEADLINE_EXCEEDED.withDescription(
+                    "Call exceeded the server's deadline of " + maxCallDurationMs + "ms"),
+                new Metadata());
+          }
+        },
+        MoreExecutors.directExecutor());
+
+    val listener = Contexts.interceptCall(context, closeOnce, headers, next);
+    return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+      @Override
+      public void onComplete() {
+        try {
+          super.onComplete();
+        } finally {
+          context.cancel(null);
+        }
+      }
+
+      @Override
+      public void onCancel() {
+        try {
+          super.onCancel();
+        } finally {
+          context.cancel(null);
+        }
+      }
+    };
+  }
+
+  /**
+   * Serializes the handler's writes with the deadline's close, which runs on the scheduler thread,
+   * and drops whichever comes second.
+   */
+  private static class CloseOnceServerCall<ReqT, RespT>
+      extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+    private boolean closed = false;
+
+    CloseOnceServerCall(ServerCall<ReqT, RespT> delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public synchronized void sendHeaders(Metadata headers) {
+      if (!closed) {
+        super.sendHeaders(headers);
+      }
+    }
+
+    @Override
+    public synchronized void sendMessage(RespT message) {
+      if (!closed) {
+        super.sendMessage(message);
+      }
+    }
+
+    @Override
+    public synchronized void close(Status status, Metadata trailers) {
+      if (!closed) {
+        closed = true;
+        super.close(status, trailers);
+      }
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+      return !closed && super.isReady();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package bio.overture.ego.grpc.interceptor;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves calls from the transport thread, where a server built with a direct executor delivers them,
+ * onto the application executor. A new call is refused with RESOURCE_EXHAUSTED while queueCapacity
+ * admitted calls are still waiting for a thread to start on, so an overloaded server fails fast
+ * instead of queueing without bound. Once admitted, a call's callbacks are always queued, so it is
+ * never dropped halfway through. Each call's callbacks run one at a time and in order, as gRPC runs
+ * them.
+ */
+@Slf4j
+public class CallDispatchInterceptor implements ServerInterceptor {
+
+  private final Executor executor;
+  private final int queueCapacity;
+
+  /**
+   * Calls admitted whose start has not run yet. The executor's queue also holds callbacks of calls
+   * already running, so its size would refuse calls on a server that is not busy.
+   */
+  private final AtomicInteger waitingCalls = new AtomicInteger();
+
+  public CallDispatchInterceptor(@NonNull Executor executor, int queueCapacity) {
+    this.executor = executor;
+    this.queueCapacity = queueCapacity;
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (waitingCalls.incrementAndGet() > queueCapacity) {
+      waitingCalls.decrementAndGet();
+      call.close(
+          Status.RESOURCE_EXHAUSTED.withDescription("Server is busy, retry later."),
+          new Metadata());
+      return new ServerCall.Listener<ReqT>() {};
+    }
+    final DispatchingListener<ReqT> listener =
+        new DispatchingListener<>(
+            call, MoreExecutors.newSequentialExecutor(executor), Context.current());
+    listener.start(
+        () -> {
+          waitingCalls.decrementAndGet();
+          return next.startCall(call, headers);
+        });
+    return listener;
+  }
+
+  /** Replays the transport's callbacks on the executor, in the call's context */
+  private static class DispatchingListener<ReqT> extends ServerCall.Listener<ReqT> {
+
+    private final ServerCall<ReqT, ?> call;
+    private final Executor sequentialExecutor;
+    private final Context context;
+
+    /** Only accessed from tasks of sequentialExecutor, which runs them one after another */
+    private ServerCall.Listener<ReqT> delegate = new ServerCall.Listener<ReqT>() {};
+
+    DispatchingListener(ServerCall<ReqT, ?> call, Executor sequentialExecutor, Context context) {
+      this.call = call;
+      this.sequentialExecutor = sequentialExecutor;
+      this.context = context;
+    }
+
+    void start(Supplier<ServerCall.Listener<ReqT>> startCall) {
+      dispatch(() -> delegate = startCall.get());
+    }
+
+    @Override
+    public void onMessage(ReqT message) {
+      dispatch(() -> delegate.onMessage(message));
+    }
+
+    @Override
+    public void onHalfClose() {
+      dispatch(() -> delegate.onHalfClose());
+    }
+
+    @Override
+    public void onCancel() {
+      dispatch(() -> delegate.onCancel());
+    }
+
+    @Override
+    public void onComplete() {
+      dispatch(() -> delegate.onComplete());
+    }
+
+    @Override
+    public void onReady() {
+      dispatch(() -> delegate.onReady());
+    }
+
+    /** Failures end the call, as gRPC does for exceptions thrown by its own listener callbacks */
+    private void dispatch(Runnable task) {
+      sequentialExecutor.execute(
+          context.wrap(
+              () -> {
+                try {
+                  task.run();
+                } catch (RuntimeException e) {
+                  log.error(
+                      "gRPC call {} failed", call.getMethodDescriptor().getFullMethodName(), e);
+                  closeQuietly(Status.fromThrowable(e));
+                }
+              }));
+    }
+
+    private void closeQuietly(Status status) {
+      try {
+        call.close(status, new Metadata());
+      } catch (IllegalStateException e) {
+        log.debug("gRPC call already closed: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package bio.overture.ego.grpc.interceptor;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * Compresses responses with gzip. gRPC falls back to sending them uncompressed to clients that do
+ * not list gzip in their accepted encodings.
+ */
+public class GzipResponseInterceptor implements ServerInterceptor {
+
+  /** Constants */
+  private static final String GZIP = "gzip";
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    call.setCompression(GZIP);
+    return next.startCall(call, headers);
+  }
+}
@@ -0,0 +1,168 @@
+package bio.overture.ego.grpc.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import bio.overture.ego.grpc.ChangeEvent;
+import bio.overture.ego.grpc.ChangeLogServiceGrpc;
+import bio.overture.ego.grpc.StreamChangesRequest;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import bio.overture.ego.service.ChangeLogService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class ChangeLogServiceGrpcImpl extends ChangeLogServiceGrpc.ChangeLogServiceImplBase
+    implements DisposableBean {
+
+  /** Constants */
+  private static final long POLL_INTERVAL_MS = 250L;
+
+  private static final int POLL_THREADS = 2;
+
+  private final ChangeLogService changeLogService;
+
+  /** Reads the next entries of every open stream, so that no call thread waits for changes */
+  private final ScheduledExecutorService pollScheduler;
+
+  @Autowired
+  public ChangeLogServiceGrpcImpl(ChangeLogService changeLogService) {
+    this.changeLogService = changeLogService;
+    this.pollScheduler =
+        Executors.newScheduledThreadPool(
+            POLL_THREADS,
+            new ThreadFactoryBuilder()
+                .setNameFormat("grpc-change-poll-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Streams change log entries after the requested cursor, then keeps the stream open and pushes
+   * new entries as they are committed, until the client cancels the call. Each event carries its
+   * sequence number so that a client can resume from the last one it processed.
+   */
+  @Override
+  public void streamChanges(
+      StreamChangesRequest request, StreamObserver<ChangeEvent> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    val serverObserver = (ServerCallStreamObserver<ChangeEvent>) responseObserver;
+    val streamer = new ChangeStreamer(serverObserver, request.getAfter(), request.getBatchSize());
+    serverObserver.setOnCancelHandler(streamer::cancel);
+    serverObserver.setOnReadyHandler(streamer);
+  }
+
+  @Override
+  public void destroy() {
+    pollScheduler.shutdownNow();
+  }
+
+  /**
+   * Emits one change stream from gRPC's onReady callbacks. Once the buffered entries are sent, the
+   * next read is scheduled on the poll scheduler, and repeated every POLL_INTERVAL_MS while there
+   * are no new changes. Neither a client that reads slowly nor a quiet change log holds a thread.
+   */
+  private class ChangeStreamer implements Runnable {
+
+    private final ServerCallStreamObserver<ChangeEvent> observer;
+    private final int batchSize;
+    private final Queue<ChangeLogEntry> buffer = new ArrayDeque<>();
+
+    /** Sequence number of the last entry read */
+    private volatile long cursor;
+
+    /** Whether a read is scheduled or running */
+    private boolean polling = false;
+
+    private volatile boolean done = false;
+
+    ChangeStreamer(ServerCallStreamObserver<ChangeEvent> observer, long cursor, int batchSize) {
+      this.observer = observer;
+      this.cursor = cursor;
+      this.batchSize = batchSize;
+    }
+
+    /** Sends buffered entries while the client keeps up, reading more once they run out */
+    @Override
+    public synchronized void run() {
+      while (!done && observer.isReady()) {
+        val next = buffer.poll();
+        if (next == null) {
+          schedulePoll(0L);
+          return;
+        }
+        observer.onNext(next.toProto());
+      }
+    }
+
+    void cancel() {
+      done = true;
+      log.debug("gRPC change stream cancelled by client at cursor {}", cursor);
+    }
+
+    private synchronized void schedulePoll(long delayMs) {
+      if (done || polling) {
+        return;
+      }
+      try {
+        pollScheduler.schedule(this::poll, delayMs, MILLISECONDS);
+        polling = true;
+      } catch (RejectedExecutionException e) {
+        fail(Status.UNAVAILABLE.withDescription("Server is shutting down."));
+      }
+    }
+
+    private void poll() {
+      try {
+        val response = changeLogService.listChanges(cursor, batchSize);
+        synchronized (this) {
+          polling = false;
+          cursor = response.getCursor();
+          buffer.addAll(response.getChanges());
+        }
+        if (response.getChanges().isEmpty()) {
+          schedulePoll(POLL_INTERVAL_MS);
+        } else {
+          run();
+        }
+      } catch (RuntimeException e) {
+        if (!done) {
+          log.error("gRPC change stream failed at cursor {}: {}", cursor, e.getMessage());
+          fail(Status.INTERNAL.withDescription("Change stream failed."));
+        }
+      }
+    }
+
+    private synchronized void fail(Status status) {
+      if (!done) {
+        done = true;
+        observer.onError(status.asRuntimeException());
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.model.enums.TokenType.resolveTokenScopes;
+import static bio.overture.ego.model.enums.TokenType.resolveTokenType;
+
+import bio.overture.ego.grpc.CheckApiKeyRequest;
+import bio.overture.ego.grpc.CheckApiKeyResponse;
+import bio.overture.ego.grpc.GetUserScopesRequest;
+import bio.overture.ego.grpc.GetUserScopesResponse;
+import bio.overture.ego.grpc.IntrospectTokenRequest;
+import bio.overture.ego.grpc.IntrospectTokenResponse;
+import bio.overture.ego.grpc.TokenServiceGrpc;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.exceptions.InvalidTokenException;
+import bio.overture.ego.model.exceptions.NotFoundException;
+import bio.overture.ego.service.TokenService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The api key and token checks that services run on every request they serve, as an alternative to
+ * the REST endpoints for high rate callers.
+ */
+@Component
+@Slf4j
+public class TokenServiceGrpcImpl extends TokenServiceGrpc.TokenServiceImplBase {
+
+  private final TokenService tokenService;
+
+  @Autowired
+  public TokenServiceGrpcImpl(TokenService tokenService) {
+    this.tokenService = tokenService;
+  }
+
+  /** Same as POST /o/check_api_key, which is also restricted to applications */
+  @Override
+  public void checkApiKey(
+      CheckApiKeyRequest request, StreamObserver<CheckApiKeyResponse> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be an app
+      if (!authInfo.isApp()) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED.withDescription("Must be an application.").asRuntimeException());
+        return;
+      }
+    }
+
+    final CheckApiKeyResponse output;
+    try {
+      val response = tokenService.checkApiKey(request.getApiKey());
+      output =
+          CheckApiKeyResponse.newBuilder()
+              .setUserId(response.getUser_id().toString())
+              .setExp(response.getExp())
+              .addAllScopes(response.getScope())
+              .build();
+    } catch (InvalidTokenException e) {
+      log.debug("gRPC CheckApiKey rejected api key: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    responseObserver.onNext(output);
+    responseObserver.onCompleted();
+  }
+
+  /**
+   * Verifies the token once and reports what its claims say. An invalid token is a normal answer
+   * rather than an error, so it comes back as inactive.
+   */
+  @Override
+  public void introspectToken(
+      IntrospectTokenRequest request, StreamObserver<IntrospectTokenResponse> responseObserver) {
+    final Claims claims;
+    try {
+      claims = tokenService.getTokenClaims(request.getToken());
+    } catch (JwtException | IllegalArgumentException e) {
+      log.debug("gRPC IntrospectToken received an invalid token: {}", e.getMessage());
+      responseObserver.onNext(IntrospectTokenResponse.newBuilder().setActive(false).build());
+      responseObserver.onCompleted();
+      return;
+    }
+
+    val output =
+        IntrospectTokenResponse.newBuilder()
+            .setActive(true)
+            .setType(toProtoTokenType(claims))
+            .addAllScopes(resolveTokenScopes(claims));
+    if (claims.getSubject() != null) {
+      output.setSubject(claims.getSubject());
+    }
+    if (claims.getExpiration() != null) {
+      output.setExp(claims.getExpiration().getTime() / 1000L);
+    }
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void getUserScopes(
+      GetUserScopesRequest request, StreamObserver<GetUserScopesResponse> responseObserver) {
+    final GetUserScopesResponse output;
+    try {
+      val userId = UUID.fromString(request.getUserId());
+
+      val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+      if (authInfo != null) {
+
+        // Auth Checks - must be Admin, or an app, or a user requesting their own scopes.
+        val selfRequest = authInfo.isUser() && userId.equals(authInfo.getId());
+        if (!(authInfo.isAdmin() || authInfo.isApp() || selfRequest)) {
+          responseObserver.onError(
+              Status.UNAUTHENTICATED
+                  .withDescription("Must be ADMIN or a user requesting themselves.")
+                  .asRuntimeException());
+          return;
+        }
+      }
+
+      output =
+          GetUserScopesResponse.newBuilder()
+              .addAllScopes(tokenService.userScopes(userId).getScopes())
+              .build();
+
+    } catch (NotFoundException e) {
+      log.debug("gRPC GetUserScopes could not find user with requested ID: {}", e.getMessage());
+      responseObserver.onError(
+          Status.NOT_FOUND.withDescription("No User found for provided ID.").asRuntimeException());
+      return;
+    } catch (IllegalArgumentException e) {
+      log.info("gRPC GetUserScopes received invalid ID: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription("ID is not a valid UUID.").asRuntimeException());
+      return;
+    }
+
+    responseObserver.onNext(output);
+    responseObserver.onCompleted();
+  }
+
+  private static bio.overture.ego.grpc.TokenType toProtoTokenType(Claims claims) {
+    return resolveTokenType(claims)
+        .map(
+            type -> {
+              switch (type) {
+                case USER:
+                  return bio.overture.ego.grpc.TokenType.TOKEN_TYPE_USER;
+                case APPLICATION:
+                  return bio.overture.ego.grpc.TokenType.TOKEN_TYPE_APPLICATION;
+                default:
+                  return bio.overture.ego.grpc.TokenType.TOKEN_TYPE_UNKNOWN;
+              }
+            })
+        .orElse(bio.overture.ego.grpc.TokenType.TOKEN_TYPE_UNKNOWN);
+  }
+}
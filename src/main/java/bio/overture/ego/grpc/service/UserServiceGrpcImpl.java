@@ -2,26 +2,53 @@ package bio.overture.ego.grpc.service;
 
 import static bio.overture.ego.grpc.ProtoUtils.createPagedResponse;
 import static bio.overture.ego.grpc.ProtoUtils.getPageable;
+import static bio.overture.ego.model.enums.CountMode.NONE;
+import static bio.overture.ego.model.enums.JavaFields.ID;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static java.util.stream.Collectors.toList;
 
 import bio.overture.ego.grpc.*;
 import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.domain.KeysetCursor;
+import bio.overture.ego.model.domain.KeysetPage;
+import bio.overture.ego.model.domain.KeysetPageable;
+import bio.overture.ego.model.domain.UserFetchPlan;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
 import bio.overture.ego.model.exceptions.NotFoundException;
 import bio.overture.ego.service.UserService;
-import bio.overture.ego.utils.CollectionUtils;
+import com.google.common.collect.Maps;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
 
+  /** Constants */
+  private static final Sort STREAM_SORT = Sort.by(Sort.Direction.ASC, ID);
+
+  private static final int DEFAULT_BATCH_SIZE = 100;
+  private static final int MAX_BATCH_SIZE = 1000;
+  private static final int MAX_GET_IDS = 1000;
+
+  /** Everything User.toProto reads: groups, applications, and user and group permissions */
+  private static final UserFetchPlan PROTO_FETCH_PLAN = UserFetchPlan.of(true, true, true, false);
+
   private final UserService userService;
 
   @Autowired
@@ -50,8 +77,9 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
         }
       }
 
-      val user = userService.getWithRelationships(id);
-      output = user.toProto();
+      val mask = UserFieldMask.from(request.getFieldMask());
+      val user = userService.get(id, mask.toFetchPlan());
+      output = mask.toProto(user);
 
     } catch (NotFoundException e) {
       log.debug("gRPC Get UserService could not find user with requested ID:", e.getMessage());
@@ -59,9 +87,9 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
           Status.NOT_FOUND.withDescription("No User found for provided ID.").asRuntimeException());
       return;
     } catch (IllegalArgumentException e) {
-      log.info("gRPC Get UserService received invalid ID:", e.getMessage());
+      log.info("gRPC Get UserService received invalid request: {}", e.getMessage());
       responseObserver.onError(
-          Status.INVALID_ARGUMENT.withDescription("ID is not a valid UUID.").asRuntimeException());
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
       return;
     }
 
@@ -69,6 +97,49 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
     responseObserver.onCompleted();
   }
 
+  /**
+   * Looks up many users at once, loading each collection the field mask asks for with one query
+   * across all of them.
+   */
+  @Override
+  public void getUsers(GetUsersRequest request, StreamObserver<GetUsersResponse> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    if (request.getIdsCount() > MAX_GET_IDS) {
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT
+              .withDescription(String.format("At most %s ids may be requested.", MAX_GET_IDS))
+              .asRuntimeException());
+      return;
+    }
+
+    val output = GetUsersResponse.newBuilder();
+    try {
+      val mask = UserFieldMask.from(request.getFieldMask());
+      val ids = request.getIdsList().stream().map(UUID::fromString).distinct().collect(toList());
+      fetchInOrder(ids, mask.toFetchPlan()).forEach(user -> output.addUsers(mask.toProto(user)));
+    } catch (IllegalArgumentException e) {
+      log.info("gRPC GetUsers received invalid request: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
   @Override
   public void listUsers(
       ListUsersRequest request, StreamObserver<ListUsersResponse> responseObserver) {
@@ -90,20 +161,7 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
     // Find Page of users (filtered by groups if provided)
     val userPage = findUsersForListRequest(request);
 
-    if (userPage.hasContent()) {
-      val userIds = CollectionUtils.mapToImmutableSet(userPage.getContent(), user -> user.getId());
-
-      // Only run this fetch if we have at least 1 user ID, filtering by empty list throws error
-      val users = userService.getMany(userIds, true, true, true);
-
-      // Add to output in order from first query
-      userIds.forEach(
-          id ->
-              users.stream()
-                  .filter(user -> user.getId().equals(id))
-                  .findFirst()
-                  .ifPresent(user -> output.addUsers(user.toProto())));
-    }
+    fetchInPageOrder(userPage.getContent()).forEach(user -> output.addUsers(user.toProto()));
 
     output.setPage(createPagedResponse(userPage, request.getPage().getPageNumber()));
 
@@ -111,18 +169,170 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
     responseObserver.onCompleted();
   }
 
-  private Page<bio.overture.ego.model.entity.User> findUsersForListRequest(
-      ListUsersRequest request) {
+  /**
+   * Streams every user matching the query and groups in id order, reading them a batch at a time
+   * with keyset paging. Users are only read and converted while the client keeps up: emission
+   * pauses whenever the transport stops being ready and resumes from the onReady callback, so a
+   * slow client holds at most one batch in server memory.
+   */
+  @Override
+  public void streamUsers(StreamUsersRequest request, StreamObserver<User> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    final Collection<UUID> groupIds;
+    final String cursor;
+    try {
+      groupIds = mapToImmutableSet(request.getGroupIdsList(), UUID::fromString);
+      cursor =
+          request.hasAfterId()
+              ? KeysetCursor.from(
+                      STREAM_SORT,
+                      bio.overture.ego.model.entity.User.builder()
+                          .id(UUID.fromString(request.getAfterId().getValue()))
+                          .build())
+                  .encode()
+              : "";
+    } catch (IllegalArgumentException e) {
+      log.info("gRPC Stream UserService received invalid ID: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription("ID is not a valid UUID.").asRuntimeException());
+      return;
+    }
+
     val query = request.hasQuery() ? request.getQuery().getValue() : "";
-    val groups = request.getGroupIdsList();
-    val pageable = getPageable(request.getPage());
+    val batchSize = request.getBatchSize();
+    val limit =
+        batchSize == 0
+            ? DEFAULT_BATCH_SIZE
+            : batchSize > MAX_BATCH_SIZE ? MAX_BATCH_SIZE : batchSize;
 
-    if (groups.isEmpty()) {
-      return userService.findUsers(query, Collections.EMPTY_LIST, pageable);
+    val serverObserver = (ServerCallStreamObserver<User>) responseObserver;
+    val streamer = new UserStreamer(serverObserver, query, groupIds, limit, cursor);
+    serverObserver.setOnCancelHandler(streamer::cancel);
+    serverObserver.setOnReadyHandler(streamer);
+  }
+
+  /**
+   * Loads the relationships toProto needs for a page of users with one query per collection, and
+   * returns them in the page's order. Users deleted since the page was read are left out.
+   */
+  private List<bio.overture.ego.model.entity.User> fetchInPageOrder(
+      List<bio.overture.ego.model.entity.User> page) {
+    return fetchInOrder(
+        mapToList(page, bio.overture.ego.model.entity.User::getId), PROTO_FETCH_PLAN);
+  }
 
+  private List<bio.overture.ego.model.entity.User> fetchInOrder(
+      List<UUID> userIds, UserFetchPlan plan) {
+    if (userIds.isEmpty()) {
+      // filtering by an empty list of ids throws an error
+      return Collections.emptyList();
+    }
+    val usersById =
+        Maps.uniqueIndex(
+            userService.findMany(userIds, plan), bio.overture.ego.model.entity.User::getId);
+    return userIds.stream().map(usersById::get).filter(user -> user != null).collect(toList());
+  }
+
+  private Page<bio.overture.ego.model.entity.User> findUsers(
+      String query, Collection<UUID> groupIds, Pageable pageable) {
+    if (groupIds.isEmpty()) {
+      return userService.findUsers(query, Collections.EMPTY_LIST, pageable);
     } else {
-      val groupIds = CollectionUtils.mapToImmutableSet(groups, group -> UUID.fromString(group));
       return userService.findUsersForGroups(groupIds, query, Collections.EMPTY_LIST, pageable);
     }
   }
+
+  private Page<bio.overture.ego.model.entity.User> findUsersForListRequest(
+      ListUsersRequest request) {
+    val query = request.hasQuery() ? request.getQuery().getValue() : "";
+    val groupIds = mapToImmutableSet(request.getGroupIdsList(), UUID::fromString);
+    return findUsers(query, groupIds, getPageable(request.getPage()));
+  }
+
+  /**
+   * Drains one stream from gRPC's onReady callbacks, which the call delivers one at a time. The
+   * next batch is only read once the previous one has been handed to the transport.
+   */
+  private class UserStreamer implements Runnable {
+
+    private final ServerCallStreamObserver<User> observer;
+    private final String query;
+    private final Collection<UUID> groupIds;
+    private final int batchSize;
+    private final Queue<bio.overture.ego.model.entity.User> buffer = new ArrayDeque<>();
+
+    /** Position after the last batch read, null once the last batch has been read */
+    private String cursor;
+
+    private volatile boolean done = false;
+
+    UserStreamer(
+        ServerCallStreamObserver<User> observer,
+        String query,
+        Collection<UUID> groupIds,
+        int batchSize,
+        String cursor) {
+      this.observer = observer;
+      this.query = query;
+      this.groupIds = groupIds;
+      this.batchSize = batchSize;
+      this.cursor = cursor;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!done && observer.isReady()) {
+          val next = buffer.poll();
+          if (next != null) {
+            observer.onNext(next.toProto());
+          } else if (cursor != null) {
+            readBatch();
+          } else {
+            done = true;
+            observer.onCompleted();
+          }
+        }
+      } catch (NotFoundException e) {
+        fail(Status.NOT_FOUND.withDescription(e.getMessage()));
+      } catch (MalformedRequestException e) {
+        fail(Status.INVALID_ARGUMENT.withDescription(e.getMessage()));
+      } catch (RuntimeException e) {
+        if (!done) {
+          log.error("gRPC user stream failed at cursor {}: {}", cursor, e.getMessage());
+          fail(Status.INTERNAL.withDescription("User stream failed."));
+        }
+      }
+    }
+
+    void cancel() {
+      done = true;
+      log.debug("gRPC user stream cancelled by client at cursor {}", cursor);
+    }
+
+    private void readBatch() {
+      val page =
+          (KeysetPage<bio.overture.ego.model.entity.User>)
+              findUsers(query, groupIds, new KeysetPageable(batchSize, STREAM_SORT, cursor, NONE));
+      buffer.addAll(fetchInPageOrder(page.getContent()));
+      cursor = page.getNext();
+    }
+
+    private void fail(Status status) {
+      done = true;
+      observer.onError(status.asRuntimeException());
+    }
+  }
 }
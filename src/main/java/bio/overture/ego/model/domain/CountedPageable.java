@@ -0,0 +1,20 @@
+package bio.overture.ego.model.domain;
+
+import static bio.overture.ego.model.enums.CountMode.EXACT;
+
+import bio.overture.ego.model.enums.CountMode;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+
+/** A {@link Pageable} that also states how the total of the listing should be computed. */
+public interface CountedPageable extends Pageable {
+
+  CountMode getCountMode();
+
+  /** Pageables that do not carry a count mode are counted exactly, as Spring Data does. */
+  static CountMode countModeOf(@NonNull Pageable pageable) {
+    return pageable instanceof CountedPageable
+        ? ((CountedPageable) pageable).getCountMode()
+        : EXACT;
+  }
+}
@@ -0,0 +1,27 @@
+package bio.overture.ego.model.domain;
+
+import java.util.Set;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/** The ids on the other side of the associations removed along with a deleted entity */
+@Value
+@Builder
+public class DeletedRelations {
+
+  @NonNull @Singular private Set<UUID> userIds;
+  @NonNull @Singular private Set<UUID> groupIds;
+  @NonNull @Singular private Set<UUID> applicationIds;
+  @NonNull @Singular private Set<UUID> policyIds;
+
+  /** Api keys that had a scope removed */
+  @NonNull @Singular private Set<UUID> apiKeyIds;
+
+  /** Users in userIds owning at least one unrevoked api key, whose keys must be rechecked */
+  @NonNull
+  @Singular("userIdWithApiKeys")
+  private Set<UUID> userIdsWithApiKeys;
+}
@@ -0,0 +1,21 @@
+package bio.overture.ego.model.domain;
+
+import java.util.Set;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/** The groups and policies on either side of the group permissions a batch created or changed */
+@Value
+@Builder
+public class GroupPermissionChanges {
+
+  @NonNull @Singular private Set<UUID> groupIds;
+  @NonNull @Singular private Set<UUID> policyIds;
+
+  public boolean isEmpty() {
+    return groupIds.isEmpty();
+  }
+}
@@ -0,0 +1,114 @@
+package bio.overture.ego.model.domain;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque position of a row within a sorted listing: the row's value for every sort property (the
+ * last of which is always the id). Clients receive it base64url encoded and pass it back unchanged;
+ * the sort it was produced for is embedded so it cannot be replayed against a different ordering.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetCursor {
+
+  /** Constants */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private List<String> sort;
+  private List<String> values;
+
+  public static KeysetCursor from(@NonNull Sort sort, @NonNull Object row) {
+    val wrapper = new BeanWrapperImpl(row);
+    return new KeysetCursor(
+        signature(sort),
+        mapToList(sort.toList(), o -> encodeValue(wrapper.getPropertyValue(o.getProperty()))));
+  }
+
+  public static KeysetCursor decode(@NonNull String encoded, @NonNull Sort expectedSort) {
+    val cursor = parse(encoded);
+    checkMalformedRequest(
+        signature(expectedSort).equals(cursor.getSort())
+            && cursor.getValues() != null
+            && cursor.getValues().size() == cursor.getSort().size(),
+        "The cursor '%s' was not issued for the requested sort order",
+        encoded);
+    return cursor;
+  }
+
+  @SneakyThrows
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+  }
+
+  /** Converts the i-th cursor value back to the Java type of the property it was read from */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Object getValue(int i, @NonNull Class<?> type) {
+    val value = values.get(i);
+    if (value == null) {
+      return null;
+    }
+    try {
+      if (type == String.class) {
+        return value;
+      } else if (type == UUID.class) {
+        return UUID.fromString(value);
+      } else if (Date.class.isAssignableFrom(type)) {
+        return Timestamp.from(Instant.parse(value));
+      } else if (type.isEnum()) {
+        return Enum.valueOf((Class<Enum>) type, value);
+      } else if (type == Boolean.class || type == boolean.class) {
+        return Boolean.valueOf(value);
+      } else if (type == Integer.class || type == int.class) {
+        return Integer.valueOf(value);
+      } else if (type == Long.class || type == long.class) {
+        return Long.valueOf(value);
+      }
+    } catch (RuntimeException e) {
+      throw buildMalformedRequest("The cursor value '%s' is not a valid %s", value, type);
+    }
+    throw buildMalformedRequest("Cannot page by a property of type %s", type.getSimpleName());
+  }
+
+  private static KeysetCursor parse(String encoded) {
+    try {
+      return MAPPER.readValue(Base64.getUrlDecoder().decode(encoded), KeysetCursor.class);
+    } catch (Exception e) {
+      throw buildMalformedRequest("The cursor '%s' is malformed", encoded);
+    }
+  }
+
+  private static String encodeValue(Object value) {
+    if (value == null) {
+      return null;
+    } else if (value instanceof Date) {
+      // Timestamp.toInstant keeps the sub-millisecond part, so equal values compare equal
+      return ((Date) value).toInstant().toString();
+    } else if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return value.toString();
+  }
+
+  private static List<String> signature(Sort sort) {
+    return mapToList(sort.toList(), o -> o.getProperty() + ":" + o.getDirection());
+  }
+}
@@ -0,0 +1,42 @@
+package bio.overture.ego.model.domain;
+
+import bio.overture.ego.model.enums.CountMode;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page read with a {@link KeysetPageable}. {@code next} is the cursor for the following page and
+ * is null on the last page; {@code total} is null unless a count was requested.
+ */
+public class KeysetPage<T> extends SlicePage<T> {
+
+  @Getter private final String next;
+
+  private final KeysetPageable keysetPageable;
+
+  public KeysetPage(
+      @NonNull List<T> content,
+      @NonNull KeysetPageable pageable,
+      String next,
+      Long total,
+      @NonNull CountMode countMode) {
+    super(content, pageable, next != null, total, countMode);
+    this.next = next;
+    this.keysetPageable = pageable;
+  }
+
+  /** Requests the page after this one, or is unpaged on the last page as Spring Data's pages are */
+  @Override
+  public Pageable nextPageable() {
+    return next == null ? Pageable.unpaged() : keysetPageable.withCursor(next);
+  }
+
+  @Override
+  public <U> KeysetPage<U> map(@NonNull Function<? super T, ? extends U> converter) {
+    return new KeysetPage<>(
+        getConvertedContent(converter), keysetPageable, next, getTotal(), getCountMode());
+  }
+}
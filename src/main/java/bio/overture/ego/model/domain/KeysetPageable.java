@@ -0,0 +1,72 @@
+package bio.overture.ego.model.domain;
+
+import bio.overture.ego.model.enums.CountMode;
+import java.util.Optional;
+import lombok.NonNull;
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Requests a page that starts right after the row encoded in {@code cursor} instead of at an
+ * offset. An empty cursor requests the first page. The total is only computed when {@code
+ * countMode} asks for it, since an exact count costs a full scan of the filtered rows.
+ */
+@Value
+public class KeysetPageable implements CountedPageable {
+
+  int pageSize;
+  @NonNull Sort sort;
+  @NonNull String cursor;
+  @NonNull CountMode countMode;
+
+  public Optional<String> getCursorValue() {
+    return cursor.isEmpty() ? Optional.empty() : Optional.of(cursor);
+  }
+
+  @Override
+  public int getPageNumber() {
+    return 0;
+  }
+
+  @Override
+  public long getOffset() {
+    return 0;
+  }
+
+  /** The same request, starting after the row encoded in {@code cursor} */
+  public KeysetPageable withCursor(@NonNull String cursor) {
+    return new KeysetPageable(pageSize, sort, cursor, countMode);
+  }
+
+  /**
+   * The next cursor is taken from the last row read, which this request does not know, so the
+   * following page is only available from {@link KeysetPage#nextPageable()}. Unpaged, as Spring
+   * Data answers when there is no next page.
+   */
+  @Override
+  public Pageable next() {
+    return Pageable.unpaged();
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return this;
+  }
+
+  @Override
+  public Pageable first() {
+    return withCursor("");
+  }
+
+  /** Keyset pages have no page number, so the request is left as is */
+  @Override
+  public Pageable withPage(int pageNumber) {
+    return this;
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return false;
+  }
+}
@@ -0,0 +1,22 @@
+package bio.overture.ego.model.domain;
+
+import java.util.Set;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/** The users added to and removed from a group by a membership sync */
+@Value
+@Builder
+public class MembershipChanges {
+
+  @NonNull @Singular private Set<UUID> addedUserIds;
+  @NonNull @Singular private Set<UUID> removedUserIds;
+
+  /** Changed users owning at least one unrevoked api key, whose keys must be rechecked */
+  @NonNull
+  @Singular("userIdWithApiKeys")
+  private Set<UUID> userIdsWithApiKeys;
+}
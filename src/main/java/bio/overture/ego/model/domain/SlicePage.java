@@ -0,0 +1,52 @@
+package bio.overture.ego.model.domain;
+
+import bio.overture.ego.model.enums.CountMode;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A page whose total was not counted exactly: {@code total} is the planner's estimate for {@link
+ * CountMode#ESTIMATE} and null for {@link CountMode#NONE}, in which case only {@link #hasNext()} is
+ * known.
+ */
+public class SlicePage<T> extends SliceImpl<T> implements Page<T> {
+
+  @Getter private final Long total;
+  @Getter private final CountMode countMode;
+
+  public SlicePage(
+      @NonNull List<T> content,
+      @NonNull Pageable pageable,
+      boolean hasNext,
+      Long total,
+      @NonNull CountMode countMode) {
+    super(content, pageable, hasNext);
+    this.total = total;
+    this.countMode = countMode;
+  }
+
+  /** Unknown totals are reported as -1 */
+  @Override
+  public long getTotalElements() {
+    return total == null ? -1 : total;
+  }
+
+  @Override
+  public int getTotalPages() {
+    if (total == null) {
+      return -1;
+    }
+    return getSize() == 0 ? 1 : (int) Math.ceil((double) total / (double) getSize());
+  }
+
+  @Override
+  public <U> SlicePage<U> map(@NonNull Function<? super T, ? extends U> converter) {
+    return new SlicePage<>(
+        getConvertedContent(converter), getPageable(), hasNext(), total, countMode);
+  }
+}
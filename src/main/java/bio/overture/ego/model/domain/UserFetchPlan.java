@@ -0,0 +1,61 @@
+package bio.overture.ego.model.domain;
+
+import static bio.overture.ego.model.enums.FetchStrategy.MULTI_QUERY;
+import static bio.overture.ego.model.enums.FetchStrategy.SINGLE_QUERY;
+
+import bio.overture.ego.model.enums.FetchStrategy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Describes which relationships of a {@link bio.overture.ego.model.entity.User} to load, and how.
+ * With {@link FetchStrategy#MULTI_QUERY} each collection is loaded by its own query, so the number
+ * of rows read is the sum of the collection sizes instead of their product.
+ */
+@Value
+@Builder(toBuilder = true)
+public class UserFetchPlan {
+
+  /** Only the user row (and its refresh token) */
+  public static final UserFetchPlan ROOT_ONLY = UserFetchPlan.builder().build();
+
+  /** Everything needed to resolve scopes and build a user JWT */
+  public static final UserFetchPlan ALL_RELATIONSHIPS =
+      UserFetchPlan.builder()
+          .userPermissions(true)
+          .groupPermissions(true)
+          .userGroups(true)
+          .applications(true)
+          .refreshToken(true)
+          .build();
+
+  @NonNull @Builder.Default private FetchStrategy strategy = MULTI_QUERY;
+
+  private boolean userPermissions;
+
+  /** Implies {@code userGroups}, since group permissions are reached through the user's groups */
+  private boolean groupPermissions;
+
+  private boolean userGroups;
+  private boolean applications;
+  private boolean refreshToken;
+
+  public boolean isSingleQuery() {
+    return strategy == SINGLE_QUERY;
+  }
+
+  public static UserFetchPlan of(
+      boolean fetchUserAndGroupPermissions,
+      boolean fetchUserGroups,
+      boolean fetchApplications,
+      boolean fetchRefreshToken) {
+    return UserFetchPlan.builder()
+        .userPermissions(fetchUserAndGroupPermissions)
+        .groupPermissions(fetchUserAndGroupPermissions)
+        .userGroups(fetchUserGroups)
+        .applications(fetchApplications)
+        .refreshToken(fetchRefreshToken)
+        .build();
+  }
+}
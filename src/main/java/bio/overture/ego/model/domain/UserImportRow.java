@@ -0,0 +1,28 @@
+package bio.overture.ego.model.domain;
+
+import bio.overture.ego.model.dto.CreateUserRequest;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A row read by the bulk user import: either a request to validate, or the reason it is unreadable
+ */
+@Value
+public class UserImportRow {
+
+  long line;
+  CreateUserRequest request;
+  String error;
+
+  public static UserImportRow parsed(long line, @NonNull CreateUserRequest request) {
+    return new UserImportRow(line, request, null);
+  }
+
+  public static UserImportRow unreadable(long line, @NonNull String error) {
+    return new UserImportRow(line, null, error);
+  }
+
+  public boolean isReadable() {
+    return error == null;
+  }
+}
@@ -0,0 +1,17 @@
+package bio.overture.ego.model.domain;
+
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * The user an identity provider login resolved to, and whether the login created it or changed an
+ * existing user
+ */
+@Value
+public class UserLogin {
+
+  @NonNull private UUID userId;
+  private boolean created;
+  private boolean updated;
+}
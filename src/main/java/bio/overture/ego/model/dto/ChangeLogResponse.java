@@ -0,0 +1,21 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeLogResponse {
+
+  /** Sequence number to pass as {@code after} on the next request */
+  private long cursor;
+
+  @NonNull private List<ChangeLogEntry> changes;
+}
@@ -0,0 +1,24 @@
+package bio.overture.ego.model.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A line of an export. The first line is a {@code SNAPSHOT} record holding the change log cursor
+ * the export is consistent with; every other line holds one row of the given type, keyed by column.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportRecord {
+
+  /** Constants */
+  public static final String SNAPSHOT = "SNAPSHOT";
+
+  private String type;
+  private Map<String, Object> data;
+}
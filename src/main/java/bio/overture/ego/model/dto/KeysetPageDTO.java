@@ -0,0 +1,26 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.List;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A page of results addressed by a keyset cursor instead of an offset. {@code next} is the value to
+ * pass back as {@code after} to fetch the following page, and is null on the last page.
+ */
+@Getter
+@JsonView(Views.REST.class)
+public class KeysetPageDTO<T> {
+
+  private final int limit;
+  private final String next;
+  private final List<T> resultSet;
+
+  public KeysetPageDTO(int limit, String next, @NonNull List<T> resultSet) {
+    this.limit = limit;
+    this.next = next;
+    this.resultSet = resultSet;
+  }
+}
@@ -0,0 +1,23 @@
+package bio.overture.ego.model.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MembershipSyncResponse {
+
+  @NonNull private UUID groupId;
+
+  /** Number of users that became members */
+  private long added;
+
+  /** Number of users that stopped being members */
+  private long removed;
+}
@@ -16,11 +16,19 @@
 
 package bio.overture.ego.model.dto;
 
+import static bio.overture.ego.model.enums.CountMode.EXACT;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+import bio.overture.ego.model.domain.KeysetPage;
+import bio.overture.ego.model.domain.SlicePage;
+import bio.overture.ego.model.enums.CountMode;
 import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
 import java.util.List;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.val;
 import org.springframework.data.domain.Page;
 
 @Getter
@@ -29,13 +37,32 @@ public class PageDTO<T> {
 
   private final int limit;
   private final int offset;
-  private final long count;
+
+  /** Omitted when the count was skipped (countMode NONE) */
+  @JsonInclude(NON_NULL)
+  private final Long count;
+
+  /** Whether count is exact, a planner estimate, or was not computed */
+  private final CountMode countMode;
+
+  /** Cursor for the next keyset page. Omitted for offset pages and on the last keyset page */
+  @JsonInclude(NON_NULL)
+  private final String next;
+
   private final List<T> resultSet;
 
   public PageDTO(@NonNull final Page<T> page) {
     this.limit = page.getSize();
     this.offset = page.getNumber();
-    this.count = page.getTotalElements();
     this.resultSet = page.getContent();
+    if (page instanceof SlicePage) {
+      val slicePage = (SlicePage<T>) page;
+      this.count = slicePage.getTotal();
+      this.countMode = slicePage.getCountMode();
+    } else {
+      this.count = page.getTotalElements();
+      this.countMode = EXACT;
+    }
+    this.next = page instanceof KeysetPage ? ((KeysetPage<T>) page).getNext() : null;
   }
 }
@@ -13,7 +13,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class PolicyRequest {
 
+  /** Policy names are also scope prefixes, so they are limited to letters, digits, '_' and '-' */
+  public static final String NAME_PATTERN = "^[A-Za-z0-9_-]+$";
+
   @NotNull
-  @Pattern(regexp = "^[A-Za-z0-9_-]+$")
+  @Pattern(regexp = NAME_PATTERN)
   private String name;
 }
@@ -0,0 +1,21 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.UserImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Reports a row of a bulk user import that did not create a user */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResult {
+
+  /** 1-based line number of the row in the input */
+  private long line;
+
+  private UserImportStatus status;
+  private String message;
+}
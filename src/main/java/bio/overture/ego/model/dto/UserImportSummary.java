@@ -0,0 +1,17 @@
+package bio.overture.ego.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportSummary {
+
+  private long imported;
+  private long skipped;
+  private long failed;
+}
@@ -18,6 +18,7 @@ package bio.overture.ego.model.entity;
 
 import static bio.overture.ego.model.enums.AccessLevel.EGO_ENUM;
 import static com.google.common.collect.Sets.newHashSet;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 import bio.overture.ego.model.enums.ApplicationType;
 import bio.overture.ego.model.enums.JavaFields;
@@ -34,6 +35,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.vladmihalcea.hibernate.type.basic.PostgreSQLEnumType;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -53,10 +55,13 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 
+@Cacheable
+@Cache(usage = READ_WRITE)
 @Entity
 @Table(name = Tables.APPLICATION)
 @Data
@@ -148,6 +153,7 @@ public class Application implements PolicyOwner, NameableEntity<UUID> {
       orphanRemoval = true)
   private Set<UserApplication> userApplications = newHashSet();
 
+  @Cache(usage = READ_WRITE)
   @JsonIgnore
   @OneToMany(
       mappedBy = JavaFields.OWNER,
@@ -1,5 +1,7 @@
 package bio.overture.ego.model.entity;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+
 import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.model.enums.SqlFields;
 import bio.overture.ego.model.enums.Tables;
@@ -8,7 +10,10 @@ import com.fasterxml.jackson.annotation.JsonView;
 import javax.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.Cache;
 
+@Cacheable
+@Cache(usage = READ_WRITE)
 @Entity
 @Table(name = Tables.APPLICATION_PERMISSION)
 @Data
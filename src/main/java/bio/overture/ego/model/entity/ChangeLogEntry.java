@@ -0,0 +1,85 @@
+package bio.overture.ego.model.entity;
+
+import static bio.overture.ego.grpc.ProtoUtils.toProtoString;
+
+import bio.overture.ego.grpc.ChangeEvent;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeType;
+import bio.overture.ego.model.enums.SqlFields;
+import bio.overture.ego.model.enums.Tables;
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldNameConstants;
+
+/**
+ * A single row of the change log (transactional outbox). Rows are written in the same transaction
+ * as the mutation they describe. The sequence number is the cursor consumers resume from; it is
+ * assigned by {@link bio.overture.ego.service.ChangeLogRelay} once the row has committed, and is
+ * empty until then.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldNameConstants
+@Table(name = Tables.CHANGELOG)
+public class ChangeLogEntry {
+
+  @Id
+  @Column(name = SqlFields.ID, nullable = false, updatable = false)
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = SqlFields.SEQ, insertable = false, updatable = false)
+  private Long seq;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(name = SqlFields.ENTITY_TYPE, nullable = false, updatable = false)
+  private ChangeEntityType entityType;
+
+  @NotNull
+  @Column(name = SqlFields.ENTITY_ID, nullable = false, updatable = false)
+  private UUID entityId;
+
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(name = SqlFields.CHANGE_TYPE, nullable = false, updatable = false)
+  private ChangeType changeType;
+
+  @Column(name = SqlFields.CREATEDAT, nullable = false, updatable = false)
+  @Temporal(value = TemporalType.TIMESTAMP)
+  private Date createdAt;
+
+  @PrePersist
+  private void onCreate() {
+    this.createdAt = new Date();
+  }
+
+  public ChangeEvent toProto() {
+    return ChangeEvent.newBuilder()
+        .setSeq(seq)
+        .setEntityType(entityType.toString())
+        .setEntityId(entityId.toString())
+        .setChangeType(changeType.toString())
+        .setCreatedAt(toProtoString(createdAt))
+        .build();
+  }
+}
@@ -18,6 +18,7 @@ package bio.overture.ego.model.entity;
 
 import static bio.overture.ego.model.enums.AccessLevel.EGO_ENUM;
 import static com.google.common.collect.Sets.newHashSet;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.model.enums.SqlFields;
@@ -32,6 +33,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.vladmihalcea.hibernate.type.basic.PostgreSQLEnumType;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -49,11 +51,14 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 
 @Data
+@Cacheable
+@Cache(usage = READ_WRITE)
 @Entity
 @Builder
 @NoArgsConstructor
@@ -94,6 +99,7 @@ public class Group implements PolicyOwner, NameableEntity<UUID> {
 
   // TODO: [rtisma] rename this to groupPermissions.
   // Ensure anything using JavaFields.PERMISSIONS is also replaced with JavaFields.GROUPPERMISSIONS
+  @Cache(usage = READ_WRITE)
   @JsonIgnore
   @Builder.Default
   @OneToMany(
@@ -1,6 +1,8 @@
 package bio.overture.ego.model.entity;
 
+import static bio.overture.ego.model.dto.PolicyRequest.NAME_PATTERN;
 import static com.google.common.collect.Sets.newHashSet;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.model.enums.SqlFields;
@@ -12,6 +14,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonView;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -30,8 +33,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.GenericGenerator;
 
+@Cacheable
+@Cache(usage = READ_WRITE)
 @Entity
 @Table(name = Tables.POLICY)
 @JsonInclude()
@@ -58,10 +64,11 @@ public class Policy implements Identifiable<UUID> {
   private UUID id;
 
   @NotNull
-  @Pattern(regexp = "^[A-Za-z0-9_-]+$")
+  @Pattern(regexp = NAME_PATTERN)
   @Column(name = SqlFields.NAME, unique = true, nullable = false)
   private String name;
 
+  @Cache(usage = READ_WRITE)
   @JsonIgnore
   @Builder.Default
   @OneToMany(
@@ -89,6 +96,7 @@ public class Policy implements Identifiable<UUID> {
       fetch = FetchType.LAZY)
   private Set<ApiKeyScope> apiKeyScopes = newHashSet();
 
+  @Cache(usage = READ_WRITE)
   @JsonIgnore
   @Builder.Default
   @OneToMany(
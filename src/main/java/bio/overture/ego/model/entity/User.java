@@ -224,6 +224,12 @@ public class User implements PolicyOwner, Identifiable<UUID> {
    */
 
   public bio.overture.ego.grpc.User toProto() {
+    return toProto(true, true, true);
+  }
+
+  /** Leaves out the collections that were not requested, which therefore need not be loaded */
+  public bio.overture.ego.grpc.User toProto(
+      boolean withApplications, boolean withGroups, boolean withScopes) {
 
     val builder =
         bio.overture.ego.grpc.User.newBuilder()
@@ -239,39 +245,45 @@ public class User implements PolicyOwner, Identifiable<UUID> {
             .setProviderType(toProtoString(this.getProviderType()))
             .setProviderSubjectId(toProtoString(this.getProviderSubjectId()));
 
-    try {
-      final Set<String> applications =
-          mapToImmutableSet(
-              this.getUserApplications(),
-              userApplication -> userApplication.getApplication().getId().toString());
-      builder.addAllApplications(applications);
-
-    } catch (LazyInitializationException e) {
-      log.error(
-          "Could not add applications to gRPC User Object, cannot lazy load values:",
-          e.getMessage());
+    if (withApplications) {
+      try {
+        final Set<String> applications =
+            mapToImmutableSet(
+                this.getUserApplications(),
+                userApplication -> userApplication.getApplication().getId().toString());
+        builder.addAllApplications(applications);
+
+      } catch (LazyInitializationException e) {
+        log.error(
+            "Could not add applications to gRPC User Object, cannot lazy load values:",
+            e.getMessage());
+      }
     }
 
-    try {
-      final Set<String> groups =
-          mapToImmutableSet(this.getUserGroups(), group -> group.getGroup().getId().toString());
-      builder.addAllGroups(groups);
+    if (withGroups) {
+      try {
+        final Set<String> groups =
+            mapToImmutableSet(this.getUserGroups(), group -> group.getGroup().getId().toString());
+        builder.addAllGroups(groups);
 
-    } catch (LazyInitializationException e) {
-      log.error(
-          "Could not add groups to gRPC User Object, cannot lazy load values:", e.getMessage());
+      } catch (LazyInitializationException e) {
+        log.error(
+            "Could not add groups to gRPC User Object, cannot lazy load values:", e.getMessage());
+      }
     }
 
-    try {
-      final Set<String> permissions =
-          mapToImmutableSet(
-              resolveUsersPermissions(this), permission -> new Scope(permission).toString());
-      builder.addAllScopes(permissions);
-
-    } catch (LazyInitializationException e) {
-      log.error(
-          "Could not add permissions to gRPC User Object, cannot lazy load values:",
-          e.getMessage());
+    if (withScopes) {
+      try {
+        final Set<String> permissions =
+            mapToImmutableSet(
+                resolveUsersPermissions(this), permission -> new Scope(permission).toString());
+        builder.addAllScopes(permissions);
+
+      } catch (LazyInitializationException e) {
+        log.error(
+            "Could not add permissions to gRPC User Object, cannot lazy load values:",
+            e.getMessage());
+      }
     }
 
     return builder.build();
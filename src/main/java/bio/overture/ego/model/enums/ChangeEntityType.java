@@ -0,0 +1,42 @@
+package bio.overture.ego.model.enums;
+
+import static bio.overture.ego.utils.Joiners.COMMA;
+import static bio.overture.ego.utils.Streams.stream;
+import static java.lang.String.format;
+
+import bio.overture.ego.model.entity.ApiKey;
+import bio.overture.ego.model.entity.Application;
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.model.entity.User;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum ChangeEntityType {
+  USER(User.class),
+  GROUP(Group.class),
+  APPLICATION(Application.class),
+  POLICY(Policy.class),
+  API_KEY(ApiKey.class);
+
+  @Getter @NonNull private final Class<?> entityClass;
+
+  public static ChangeEntityType resolveChangeEntityType(@NonNull Class<?> entityClass) {
+    return stream(values())
+        .filter(x -> x.getEntityClass().equals(entityClass))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    format(
+                        "The entity class '%s' cannot be resolved. Must be one of: [%s]",
+                        entityClass.getSimpleName(), COMMA.join(values()))));
+  }
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
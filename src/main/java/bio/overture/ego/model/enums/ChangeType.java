@@ -0,0 +1,16 @@
+package bio.overture.ego.model.enums;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED,
+  MEMBERSHIP_CHANGED,
+  APPLICATIONS_CHANGED,
+  PERMISSIONS_CHANGED,
+  REVOKED;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
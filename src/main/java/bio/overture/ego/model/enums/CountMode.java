@@ -0,0 +1,17 @@
+package bio.overture.ego.model.enums;
+
+/**
+ * How the total of a listing is computed. EXACT runs a count query over the filtered rows; ESTIMATE
+ * reads the planner's row estimate when the listing is unfiltered, and counts otherwise; NONE skips
+ * the count, so the page only reports whether another page follows.
+ */
+public enum CountMode {
+  EXACT,
+  ESTIMATE,
+  NONE;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
@@ -0,0 +1,23 @@
+package bio.overture.ego.model.enums;
+
+/**
+ * Kinds of record in a full export, in the order they are written: entities first, then the
+ * associations and permissions referencing them.
+ */
+public enum ExportType {
+  USER,
+  GROUP,
+  APPLICATION,
+  POLICY,
+  USER_GROUP,
+  USER_APPLICATION,
+  GROUP_APPLICATION,
+  USER_PERMISSION,
+  GROUP_PERMISSION,
+  APPLICATION_PERMISSION;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
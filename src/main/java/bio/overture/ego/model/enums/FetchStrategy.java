@@ -0,0 +1,14 @@
+package bio.overture.ego.model.enums;
+
+public enum FetchStrategy {
+  /** Fetch join every requested relationship into one query. Rows multiply across collections. */
+  SINGLE_QUERY,
+
+  /** Load the root entities first, then each requested collection with its own IN query. */
+  MULTI_QUERY;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
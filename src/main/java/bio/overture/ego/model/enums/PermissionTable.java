@@ -0,0 +1,37 @@
+package bio.overture.ego.model.enums;
+
+import static bio.overture.ego.utils.Joiners.COMMA;
+import static bio.overture.ego.utils.Streams.stream;
+import static java.lang.String.format;
+
+import bio.overture.ego.model.entity.ApplicationPermission;
+import bio.overture.ego.model.entity.GroupPermission;
+import bio.overture.ego.model.entity.UserPermission;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/** The table and owner column of each permission entity, for permissions written with SQL */
+@Getter
+@RequiredArgsConstructor
+public enum PermissionTable {
+  USER(UserPermission.class, Tables.USER_PERMISSION, SqlFields.USERID_JOIN),
+  GROUP(GroupPermission.class, Tables.GROUP_PERMISSION, SqlFields.GROUPID_JOIN),
+  APPLICATION(ApplicationPermission.class, Tables.APPLICATION_PERMISSION, SqlFields.APPID_JOIN);
+
+  @NonNull private final Class<?> entityClass;
+  @NonNull private final String tableName;
+  @NonNull private final String ownerColumn;
+
+  public static PermissionTable resolvePermissionTable(@NonNull Class<?> entityClass) {
+    return stream(values())
+        .filter(x -> x.getEntityClass().equals(entityClass))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    format(
+                        "The permission class '%s' cannot be resolved. Must be one of: [%s]",
+                        entityClass.getSimpleName(), COMMA.join(values()))));
+  }
+}
@@ -38,4 +38,8 @@ public class SqlFields {
   public static final String PROVIDERSUBJECTID = "providersubjectid";
   public static final String INITIALIZED = "initialized";
   public static final String ERRORREDIRECTURI = "errorredirecturi";
+  public static final String SEQ = "seq";
+  public static final String ENTITY_TYPE = "entity_type";
+  public static final String ENTITY_ID = "entity_id";
+  public static final String CHANGE_TYPE = "change_type";
 }
@@ -0,0 +1,48 @@
+package bio.overture.ego.model.enums;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.Streams.stream;
+
+import com.google.common.collect.ImmutableSet;
+import io.jsonwebtoken.Claims;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/** The kind of principal a signed JWT was issued to, told apart by the key of its context claim */
+@Getter
+@RequiredArgsConstructor
+public enum TokenType {
+  USER("user"),
+  APPLICATION("application");
+
+  /** Constants */
+  private static final String CONTEXT_CLAIM = "context";
+
+  private static final String SCOPE_CLAIM = "scope";
+
+  @NonNull private final String contextKey;
+
+  public static Optional<TokenType> resolveTokenType(@NonNull Claims claims) {
+    val context = claims.get(CONTEXT_CLAIM, Map.class);
+    if (context == null) {
+      return Optional.empty();
+    }
+    return stream(values()).filter(x -> context.containsKey(x.getContextKey())).findFirst();
+  }
+
+  /** The scopes the token was issued with, as listed in its context claim */
+  @SuppressWarnings("unchecked")
+  public static Set<String> resolveTokenScopes(@NonNull Claims claims) {
+    val context = claims.get(CONTEXT_CLAIM, Map.class);
+    val scopes = context == null ? null : context.get(SCOPE_CLAIM);
+    return scopes instanceof Collection
+        ? mapToImmutableSet((Collection<Object>) scopes, String::valueOf)
+        : ImmutableSet.of();
+  }
+}
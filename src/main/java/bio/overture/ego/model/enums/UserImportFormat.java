@@ -0,0 +1,16 @@
+package bio.overture.ego.model.enums;
+
+/**
+ * Input formats accepted by the bulk user import. NDJSON holds one {@code CreateUserRequest}
+ * document per line; CSV starts with a header naming the {@code CreateUserRequest} fields of each
+ * column, in any order and case.
+ */
+public enum UserImportFormat {
+  NDJSON,
+  CSV;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
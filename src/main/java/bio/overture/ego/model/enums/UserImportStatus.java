@@ -0,0 +1,14 @@
+package bio.overture.ego.model.enums;
+
+/** Outcome of a row of a bulk user import that did not create a user */
+public enum UserImportStatus {
+  /** A user with the same provider type and subject id already exists */
+  SKIPPED,
+  /** The row could not be parsed or is not a valid user */
+  FAILED;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
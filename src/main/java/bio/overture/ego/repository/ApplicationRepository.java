@@ -17,20 +17,23 @@
 package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.Application;
-import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ApplicationRepository extends NamedRepository<Application, UUID> {
 
-  Optional<Application> getApplicationByNameIgnoreCase(String name);
+  @Query("select a from Application a where lower(a.name) = lower(:name)")
+  Optional<Application> getApplicationByNameIgnoreCase(@Param("name") String name);
 
-  boolean existsByClientIdIgnoreCase(String clientId);
+  @Query(
+      "select case when count(a) > 0 then true else false end from Application a where lower(a.clientId) = lower(:clientId)")
+  boolean existsByClientIdIgnoreCase(@Param("clientId") String clientId);
 
-  boolean existsByNameIgnoreCase(String name);
-
-  Set<Application> findAllByIdIn(List<UUID> ids);
+  @Query(
+      "select case when count(a) > 0 then true else false end from Application a where lower(a.name) = lower(:name)")
+  boolean existsByNameIgnoreCase(@Param("name") String name);
 
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
@@ -1,7 +1,12 @@
 package bio.overture.ego.repository;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -11,5 +16,33 @@ public interface BaseRepository<T, ID>
     extends PagingAndSortingRepository<T, ID>, JpaSpecificationExecutor {
   T findFirstBy();
 
+  /** Implemented by {@link EgoJpaRepository} */
   Set<T> findAllByIdIn(Collection<ID> ids);
+
+  /** Implemented by {@link EgoJpaRepository} */
+  Set<ID> findMissingIds(Collection<ID> ids);
+
+  /**
+   * Reads at most maxResults rows matching the specification, without the count query a Page would
+   * issue. Implemented by {@link EgoJpaRepository}.
+   */
+  List<T> findLimited(Specification<T> specification, Sort sort, int maxResults);
+
+  /**
+   * Reads the page plus one row, so the caller learns whether another page follows without
+   * counting. Implemented by {@link EgoJpaRepository}.
+   */
+  List<T> findSlice(Specification<T> specification, Pageable pageable);
+
+  /** Implemented by {@link EgoJpaRepository} */
+  Optional<T> findReadOnlyById(ID id);
+
+  /** Implemented by {@link EgoJpaRepository} */
+  void refreshIfManaged(ID id);
+
+  /** Writes pending changes of the persistence context, before SQL that bypasses it */
+  void flush();
+
+  /** Implemented by {@link EgoJpaRepository} */
+  long estimateCount(Specification<T> specification);
 }
@@ -0,0 +1,63 @@
+package bio.overture.ego.repository;
+
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeType;
+import java.util.Collection;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Appends one change log entry per entity id with a single statement, for changes that touch many
+ * entities at once, such as deleting a group with all of its memberships. Also assigns positions to
+ * committed entries that do not have one yet.
+ */
+@Repository
+public class ChangeLogBatchRepository {
+
+  /** Constants */
+  private static final String INSERT_ENTRIES =
+      "INSERT INTO changelog (entity_type, entity_id, change_type, createdat) "
+          + "SELECT ?, entity_id, ?, now() FROM unnest(?) AS entity_id";
+
+  private static final String SEQUENCE_PENDING =
+      "UPDATE changelog c SET seq = numbered.seq "
+          + "FROM (SELECT id, nextval('changelog_position') AS seq "
+          + "FROM (SELECT id FROM changelog WHERE seq IS NULL ORDER BY id LIMIT ?) pending "
+          + "ORDER BY id) numbered "
+          + "WHERE c.id = numbered.id";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public ChangeLogBatchRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public int insertAll(
+      @NonNull ChangeEntityType entityType,
+      @NonNull Collection<UUID> entityIds,
+      @NonNull ChangeType changeType) {
+    return jdbcTemplate.update(
+        connection -> {
+          val statement = connection.prepareStatement(INSERT_ENTRIES);
+          statement.setString(1, entityType.name());
+          statement.setString(2, changeType.name());
+          statement.setArray(3, connection.createArrayOf("uuid", entityIds.toArray()));
+          return statement;
+        });
+  }
+
+  /**
+   * Numbers up to {@code limit} entries without a position in insertion order. The statement only
+   * sees committed entries (and the caller's own), so a row committing after it starts is numbered
+   * by a later call.
+   */
+  public int sequencePending(int limit) {
+    return jdbcTemplate.update(SEQUENCE_PENDING, limit);
+  }
+}
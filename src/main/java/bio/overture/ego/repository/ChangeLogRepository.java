@@ -0,0 +1,21 @@
+package bio.overture.ego.repository;
+
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+  List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(long seq, Pageable pageable);
+
+  /**
+   * Takes a transaction scoped advisory lock. Only relays numbering committed entries take it, so
+   * one relay's positions are visible before the next relay allocates any, and a cursor never skips
+   * a position that commits late. Writers never wait on it.
+   */
+  @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:lockKey)", nativeQuery = true)
+  Integer acquireRelayLock(@Param("lockKey") long lockKey);
+}
@@ -0,0 +1,183 @@
+package bio.overture.ego.repository;
+
+import static bio.overture.ego.utils.EntityServices.partitionIds;
+import static bio.overture.ego.utils.Joiners.COMMA;
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.Table;
+import lombok.NonNull;
+import lombok.val;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/** Repository base class, registered in {@link bio.overture.ego.config.RepositoryConfig}. */
+public class EgoJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+  /** Constants */
+  private static final String RELTUPLES_QUERY =
+      "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST(:table AS regclass)";
+
+  private static final String FIND_ALL_BY_UUIDS =
+      "SELECT t.* FROM %s t WHERE t.id = ANY(CAST(:ids AS uuid[]))";
+
+  private static final String FIND_MISSING_UUIDS =
+      "SELECT CAST(r.id AS text) FROM unnest(CAST(:ids AS uuid[])) AS r(id) "
+          + "WHERE NOT EXISTS (SELECT 1 FROM %s t WHERE t.id = r.id)";
+
+  /** Dependencies */
+  private final JpaEntityInformation<T, ?> entityInformation;
+
+  private final EntityManager entityManager;
+
+  public EgoJpaRepository(
+      @NonNull JpaEntityInformation<T, ?> entityInformation, @NonNull EntityManager entityManager) {
+    super(entityInformation, entityManager);
+    this.entityInformation = entityInformation;
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Loads the entity as read-only: Hibernate keeps no snapshot of it for dirty checking, and
+   * changes made to it in memory are never flushed. An entity already managed by the persistence
+   * context is returned as it is.
+   */
+  public Optional<T> findReadOnlyById(@NonNull ID id) {
+    Specification<T> byId =
+        (root, query, builder) ->
+            builder.equal(root.get(entityInformation.getIdAttribute().getName()), id);
+    return getQuery(byId, Sort.unsorted()).setHint(QueryHints.READ_ONLY, true).getResultList()
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Reloads the entity, along with the associations it cascades refresh to, when the persistence
+   * context already manages it, so rows changed with SQL are not hidden by stale state. Nothing is
+   * loaded otherwise.
+   */
+  public void refreshIfManaged(@NonNull ID id) {
+    val session = entityManager.unwrap(SessionImplementor.class);
+    val persister = session.getFactory().getMetamodel().entityPersister(getDomainClass());
+    val key = session.generateEntityKey((Serializable) id, persister);
+    val entity = session.getPersistenceContext().getEntity(key);
+    if (!isNull(entity)) {
+      entityManager.refresh(entity);
+    }
+  }
+
+  /**
+   * Entities keyed by a uuid are read with a single array parameter, so the SQL and its plan are
+   * the same whatever the number of ids. Other keys fall back to bounded IN lists.
+   */
+  @SuppressWarnings("unchecked")
+  public Set<T> findAllByIdIn(@NonNull Collection<ID> ids) {
+    val entities = new HashSet<T>();
+    if (ids.isEmpty()) {
+      return entities;
+    }
+    if (isUuidKeyed()) {
+      entities.addAll(
+          entityManager
+              .createNativeQuery(format(FIND_ALL_BY_UUIDS, getTableName()), getDomainClass())
+              .setParameter("ids", toArrayLiteral(ids))
+              .getResultList());
+    } else {
+      partitionIds(ids).forEach(chunk -> entities.addAll(findAllById(chunk)));
+    }
+    return entities;
+  }
+
+  /** Returns the ids that have no row, without loading the entities of those that do */
+  @SuppressWarnings("unchecked")
+  public Set<ID> findMissingIds(@NonNull Collection<ID> ids) {
+    val missingIds = new LinkedHashSet<ID>(ids);
+    if (ids.isEmpty()) {
+      return missingIds;
+    }
+    if (isUuidKeyed()) {
+      missingIds.clear();
+      ((List<String>)
+              entityManager
+                  .createNativeQuery(format(FIND_MISSING_UUIDS, getTableName()))
+                  .setParameter("ids", toArrayLiteral(ids))
+                  .getResultList())
+          .forEach(id -> missingIds.add((ID) UUID.fromString(id)));
+    } else {
+      partitionIds(ids)
+          .forEach(chunk -> findAllById(chunk).forEach(e -> missingIds.remove(getId(e))));
+    }
+    return missingIds;
+  }
+
+  public List<T> findLimited(Specification<T> specification, @NonNull Sort sort, int maxResults) {
+    return getQuery(specification, sort).setMaxResults(maxResults).getResultList();
+  }
+
+  public List<T> findSlice(Specification<T> specification, @NonNull Pageable pageable) {
+    return getQuery(specification, pageable.getSort())
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize() + 1)
+        .getResultList();
+  }
+
+  /**
+   * Unfiltered listings use the planner's row estimate for the table (pg_class.reltuples, kept
+   * current by autovacuum) instead of scanning it. Filtered listings, and tables that have not been
+   * analyzed yet, are counted.
+   */
+  public long estimateCount(Specification<T> specification) {
+    if (isFiltered(specification)) {
+      return count(specification);
+    }
+    val estimate =
+        ((Number)
+                entityManager
+                    .createNativeQuery(RELTUPLES_QUERY)
+                    .setParameter("table", getTableName())
+                    .getSingleResult())
+            .longValue();
+    return estimate > 0 ? estimate : count(specification);
+  }
+
+  private boolean isFiltered(Specification<T> specification) {
+    if (isNull(specification)) {
+      return false;
+    }
+    val builder = entityManager.getCriteriaBuilder();
+    val query = builder.createQuery(Long.class);
+    return !isNull(specification.toPredicate(query.from(getDomainClass()), query, builder));
+  }
+
+  private boolean isUuidKeyed() {
+    return UUID.class.equals(entityInformation.getIdType());
+  }
+
+  private String getTableName() {
+    return getDomainClass().getAnnotation(Table.class).name();
+  }
+
+  @SuppressWarnings("unchecked")
+  private ID getId(T entity) {
+    return (ID) entityInformation.getId(entity);
+  }
+
+  /** Postgres array literal, bound as a single text parameter and cast in SQL */
+  private static String toArrayLiteral(Collection<?> ids) {
+    return "{" + COMMA.join(ids) + "}";
+  }
+}
@@ -0,0 +1,163 @@
+package bio.overture.ego.repository;
+
+import bio.overture.ego.model.domain.DeletedRelations;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Deletes users, groups, applications and policies together with everything that references them,
+ * one set-based statement per referencing table and children before parents, so nothing is loaded
+ * into memory and the cost grows with the number of rows removed. Only the ids on the other side of
+ * each removed association are returned, for change log entries, cache eviction and cleanup.
+ *
+ * <p>Must be called within a transaction, and bypasses the persistence context and second level
+ * cache: callers evict whatever may have been cached for the deleted rows.
+ */
+@Repository
+public class EntityDeleteRepository {
+
+  /** Constants */
+  private static final String DELETE_USER_API_KEY_SCOPES =
+      "DELETE FROM tokenscope ts USING token t WHERE ts.token_id = t.id AND t.owner = ?";
+
+  private static final String DELETE_USER_API_KEYS = "DELETE FROM token WHERE owner = ?";
+
+  private static final String DELETE_USER_PERMISSIONS =
+      "DELETE FROM userpermission WHERE user_id = ?";
+
+  private static final String DELETE_USER_APPLICATIONS =
+      "DELETE FROM userapplication WHERE user_id = ?";
+
+  private static final String DELETE_USER_GROUPS =
+      "DELETE FROM usergroup WHERE user_id = ? RETURNING group_id";
+
+  private static final String DELETE_USER_REFRESH_TOKEN =
+      "DELETE FROM refreshtoken WHERE user_id = ?";
+
+  private static final String DELETE_USER = "DELETE FROM egouser WHERE id = ?";
+
+  private static final String DELETE_GROUP_PERMISSIONS =
+      "DELETE FROM grouppermission WHERE group_id = ? RETURNING policy_id";
+
+  private static final String DELETE_GROUP_APPLICATIONS =
+      "DELETE FROM groupapplication WHERE group_id = ?";
+
+  private static final String DELETE_GROUP_USERS =
+      "DELETE FROM usergroup ug WHERE ug.group_id = ? "
+          + "RETURNING ug.user_id, "
+          + "EXISTS (SELECT 1 FROM token t WHERE t.owner = ug.user_id AND NOT t.isrevoked) "
+          + "AS has_api_keys";
+
+  private static final String DELETE_GROUP = "DELETE FROM egogroup WHERE id = ?";
+
+  private static final String DELETE_APPLICATION_PERMISSIONS =
+      "DELETE FROM applicationpermission WHERE application_id = ? RETURNING policy_id";
+
+  private static final String DELETE_APPLICATION_GROUPS =
+      "DELETE FROM groupapplication WHERE application_id = ?";
+
+  private static final String DELETE_APPLICATION_USERS =
+      "DELETE FROM userapplication WHERE application_id = ?";
+
+  private static final String DELETE_APPLICATION = "DELETE FROM egoapplication WHERE id = ?";
+
+  private static final String DELETE_POLICY_API_KEY_SCOPES =
+      "DELETE FROM tokenscope WHERE policy_id = ? RETURNING token_id";
+
+  private static final String DELETE_POLICY_USER_PERMISSIONS =
+      "DELETE FROM userpermission WHERE policy_id = ?";
+
+  private static final String DELETE_POLICY_GROUP_PERMISSIONS =
+      "DELETE FROM grouppermission WHERE policy_id = ? RETURNING group_id";
+
+  private static final String DELETE_POLICY_APPLICATION_PERMISSIONS =
+      "DELETE FROM applicationpermission WHERE policy_id = ? RETURNING application_id";
+
+  private static final String DELETE_POLICY = "DELETE FROM policy WHERE id = ?";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public EntityDeleteRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** Deletes the user with its api keys, permissions, memberships and refresh token */
+  public DeletedRelations deleteUser(@NonNull UUID userId) {
+    val deleted = DeletedRelations.builder();
+    jdbcTemplate.update(DELETE_USER_API_KEY_SCOPES, userId);
+    jdbcTemplate.update(DELETE_USER_API_KEYS, userId);
+    jdbcTemplate.update(DELETE_USER_PERMISSIONS, userId);
+    jdbcTemplate.update(DELETE_USER_APPLICATIONS, userId);
+    jdbcTemplate.query(
+        DELETE_USER_GROUPS,
+        (RowCallbackHandler) rs -> deleted.groupId(rs.getObject("group_id", UUID.class)),
+        userId);
+    jdbcTemplate.update(DELETE_USER_REFRESH_TOKEN, userId);
+    jdbcTemplate.update(DELETE_USER, userId);
+    return deleted.build();
+  }
+
+  /** Deletes the group with its permissions, application associations and memberships */
+  public DeletedRelations deleteGroup(@NonNull UUID groupId) {
+    val deleted = DeletedRelations.builder();
+    jdbcTemplate.query(
+        DELETE_GROUP_PERMISSIONS,
+        (RowCallbackHandler) rs -> deleted.policyId(rs.getObject("policy_id", UUID.class)),
+        groupId);
+    jdbcTemplate.update(DELETE_GROUP_APPLICATIONS, groupId);
+    jdbcTemplate.query(
+        DELETE_GROUP_USERS,
+        (RowCallbackHandler)
+            rs -> {
+              val userId = rs.getObject("user_id", UUID.class);
+              deleted.userId(userId);
+              if (rs.getBoolean("has_api_keys")) {
+                deleted.userIdWithApiKeys(userId);
+              }
+            },
+        groupId);
+    jdbcTemplate.update(DELETE_GROUP, groupId);
+    return deleted.build();
+  }
+
+  /** Deletes the application with its permissions and user and group associations */
+  public DeletedRelations deleteApplication(@NonNull UUID applicationId) {
+    val deleted = DeletedRelations.builder();
+    jdbcTemplate.query(
+        DELETE_APPLICATION_PERMISSIONS,
+        (RowCallbackHandler) rs -> deleted.policyId(rs.getObject("policy_id", UUID.class)),
+        applicationId);
+    jdbcTemplate.update(DELETE_APPLICATION_GROUPS, applicationId);
+    jdbcTemplate.update(DELETE_APPLICATION_USERS, applicationId);
+    jdbcTemplate.update(DELETE_APPLICATION, applicationId);
+    return deleted.build();
+  }
+
+  /** Deletes the policy with every permission and api key scope granted on it */
+  public DeletedRelations deletePolicy(@NonNull UUID policyId) {
+    val deleted = DeletedRelations.builder();
+    jdbcTemplate.query(
+        DELETE_POLICY_API_KEY_SCOPES,
+        (RowCallbackHandler) rs -> deleted.apiKeyId(rs.getObject("token_id", UUID.class)),
+        policyId);
+    jdbcTemplate.update(DELETE_POLICY_USER_PERMISSIONS, policyId);
+    jdbcTemplate.query(
+        DELETE_POLICY_GROUP_PERMISSIONS,
+        (RowCallbackHandler) rs -> deleted.groupId(rs.getObject("group_id", UUID.class)),
+        policyId);
+    jdbcTemplate.query(
+        DELETE_POLICY_APPLICATION_PERMISSIONS,
+        (RowCallbackHandler)
+            rs -> deleted.applicationId(rs.getObject("application_id", UUID.class)),
+        policyId);
+    jdbcTemplate.update(DELETE_POLICY, policyId);
+    return deleted.build();
+  }
+}
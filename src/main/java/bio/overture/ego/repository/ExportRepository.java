@@ -0,0 +1,107 @@
+package bio.overture.ego.repository;
+
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+
+import bio.overture.ego.model.enums.ExportType;
+import com.google.common.collect.ImmutableMap;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads whole tables as plain rows through a server side cursor: within a transaction the driver
+ * fetches {@link #FETCH_SIZE} rows at a time instead of the full result, and nothing passes through
+ * the persistence context. Secrets such as client secrets and api keys are never read.
+ */
+@Repository
+public class ExportRepository {
+
+  /** Constants */
+  private static final int FETCH_SIZE = 1000;
+
+  private static final String CHANGE_LOG_CURSOR = "SELECT coalesce(max(seq), 0) FROM changelog";
+
+  private static final Map<ExportType, String> QUERIES =
+      ImmutableMap.<ExportType, String>builder()
+          .put(
+              ExportType.USER,
+              "SELECT id, email, type, status, firstname, lastname, createdat, lastlogin, "
+                  + "preferredlanguage, providertype, providersubjectid FROM egouser ORDER BY id")
+          .put(ExportType.GROUP, "SELECT id, name, description, status FROM egogroup ORDER BY id")
+          .put(
+              ExportType.APPLICATION,
+              "SELECT id, name, type, clientid, redirecturi, errorredirecturi, description, status "
+                  + "FROM egoapplication ORDER BY id")
+          .put(ExportType.POLICY, "SELECT id, name FROM policy ORDER BY id")
+          .put(ExportType.USER_GROUP, "SELECT user_id, group_id FROM usergroup")
+          .put(ExportType.USER_APPLICATION, "SELECT user_id, application_id FROM userapplication")
+          .put(
+              ExportType.GROUP_APPLICATION, "SELECT group_id, application_id FROM groupapplication")
+          .put(
+              ExportType.USER_PERMISSION,
+              "SELECT id, user_id, policy_id, access_level FROM userpermission")
+          .put(
+              ExportType.GROUP_PERMISSION,
+              "SELECT id, group_id, policy_id, access_level FROM grouppermission")
+          .put(
+              ExportType.APPLICATION_PERMISSION,
+              "SELECT id, application_id, policy_id, access_level FROM applicationpermission")
+          .build();
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public ExportRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** The latest change log sequence number visible to the current transaction */
+  public long getChangeLogCursor() {
+    return jdbcTemplate.queryForObject(CHANGE_LOG_CURSOR, Long.class);
+  }
+
+  /** Must be called within a transaction, otherwise the driver reads the whole table at once */
+  public void forEachRow(
+      @NonNull ExportType type, @NonNull Consumer<Map<String, Object>> consumer) {
+    jdbcTemplate.query(
+        connection -> {
+          val statement =
+              connection.prepareStatement(QUERIES.get(type), TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+          statement.setFetchSize(FETCH_SIZE);
+          return statement;
+        },
+        (RowCallbackHandler) rs -> consumer.accept(readRow(rs)));
+  }
+
+  private static Map<String, Object> readRow(ResultSet rs) throws SQLException {
+    val metaData = rs.getMetaData();
+    val row = new LinkedHashMap<String, Object>();
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      row.put(metaData.getColumnLabel(i), readValue(rs, i));
+    }
+    return row;
+  }
+
+  private static Object readValue(ResultSet rs, int column) throws SQLException {
+    val value = rs.getObject(column);
+    if (value == null || value instanceof UUID || value instanceof Boolean) {
+      return value;
+    } else if (value instanceof Timestamp) {
+      return ((Timestamp) value).toInstant().toString();
+    }
+    // Text and the Postgres enum types
+    return rs.getString(column);
+  }
+}
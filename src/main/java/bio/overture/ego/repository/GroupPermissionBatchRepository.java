@@ -0,0 +1,200 @@
+package bio.overture.ego.repository;
+
+import static bio.overture.ego.model.enums.StatusType.APPROVED;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+
+import bio.overture.ego.model.domain.GroupPermissionChanges;
+import bio.overture.ego.model.enums.AccessLevel;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Applies a batch of group permissions named by group and policy name with a constant number of
+ * statements: missing groups and policies are inserted in one statement each, names are resolved to
+ * ids in one query each, and the permissions are upserted in one statement.
+ *
+ * <p>Must be called within a transaction, and bypasses the persistence context and second level
+ * cache: callers evict whatever may have been cached for the changed rows.
+ */
+@Repository
+public class GroupPermissionBatchRepository {
+
+  /** Constants */
+  private static final String INSERT_GROUPS =
+      "INSERT INTO egogroup (id, name, status) "
+          + "SELECT r.id, r.name, CAST(? AS statustype) "
+          + "FROM unnest(?, ?) AS r(id, name) "
+          + "ON CONFLICT DO NOTHING "
+          + "RETURNING id";
+
+  private static final String INSERT_POLICIES =
+      "INSERT INTO policy (id, name) "
+          + "SELECT r.id, r.name FROM unnest(?, ?) AS r(id, name) "
+          + "ON CONFLICT DO NOTHING "
+          + "RETURNING id";
+
+  private static final String FIND_GROUP_IDS =
+      "SELECT id, lower(name) AS name_key FROM egogroup WHERE lower(name) = ANY(?)";
+
+  private static final String FIND_POLICY_IDS =
+      "SELECT id, lower(name) AS name_key FROM policy WHERE lower(name) = ANY(?)";
+
+  /**
+   * Inserts the missing permissions, updates the mask of existing ones whose mask differs, and
+   * returns the group and policy of every permission that changed.
+   */
+  private static final String UPSERT_PERMISSIONS =
+      "INSERT INTO grouppermission (id, group_id, policy_id, access_level) "
+          + "SELECT r.id, r.group_id, r.policy_id, CAST(r.access_level AS aclmask) "
+          + "FROM unnest(?, ?, ?, ?) AS r(id, group_id, policy_id, access_level) "
+          + "ON CONFLICT (group_id, policy_id) DO UPDATE SET access_level = EXCLUDED.access_level "
+          + "WHERE grouppermission.access_level <> EXCLUDED.access_level "
+          + "RETURNING group_id, policy_id";
+
+  private static final String FIND_MEMBERS_WITH_API_KEYS =
+      "SELECT DISTINCT ug.user_id FROM usergroup ug WHERE ug.group_id = ANY(?) "
+          + "AND EXISTS (SELECT 1 FROM token t WHERE t.owner = ug.user_id AND NOT t.isrevoked)";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public GroupPermissionBatchRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Creates approved groups with the given names, skipping names that already exist in any case.
+   *
+   * @return the ids of the groups that were created
+   */
+  public Set<UUID> insertGroupsIgnoringExisting(@NonNull Collection<String> names) {
+    val inserted = new HashSet<UUID>();
+    if (names.isEmpty()) {
+      return inserted;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(INSERT_GROUPS);
+          statement.setString(1, APPROVED.name());
+          statement.setArray(2, connection.createArrayOf("uuid", randomIds(names.size())));
+          statement.setArray(3, connection.createArrayOf("text", names.toArray()));
+          return statement;
+        },
+        (RowCallbackHandler) rs -> inserted.add(rs.getObject("id", UUID.class)));
+    return inserted;
+  }
+
+  /**
+   * Creates policies with the given names, skipping names that already exist in any case.
+   *
+   * @return the ids of the policies that were created
+   */
+  public Set<UUID> insertPoliciesIgnoringExisting(@NonNull Collection<String> names) {
+    val inserted = new HashSet<UUID>();
+    if (names.isEmpty()) {
+      return inserted;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(INSERT_POLICIES);
+          statement.setArray(1, connection.createArrayOf("uuid", randomIds(names.size())));
+          statement.setArray(2, connection.createArrayOf("text", names.toArray()));
+          return statement;
+        },
+        (RowCallbackHandler) rs -> inserted.add(rs.getObject("id", UUID.class)));
+    return inserted;
+  }
+
+  /** @return the group ids keyed by lower case name, for the names that exist */
+  public Map<String, UUID> findGroupIdsByName(@NonNull Collection<String> names) {
+    return findIdsByName(FIND_GROUP_IDS, names);
+  }
+
+  /** @return the policy ids keyed by lower case name, for the names that exist */
+  public Map<String, UUID> findPolicyIdsByName(@NonNull Collection<String> names) {
+    return findIdsByName(FIND_POLICY_IDS, names);
+  }
+
+  /**
+   * Sets the mask of each (group, policy) pair, creating the permission when it does not exist. The
+   * three lists are read position by position and must not repeat a pair.
+   */
+  public GroupPermissionChanges upsertPermissions(
+      @NonNull List<UUID> groupIds,
+      @NonNull List<UUID> policyIds,
+      @NonNull List<AccessLevel> masks) {
+    val changes = GroupPermissionChanges.builder();
+    if (groupIds.isEmpty()) {
+      return changes.build();
+    }
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(UPSERT_PERMISSIONS);
+          statement.setArray(1, connection.createArrayOf("uuid", randomIds(groupIds.size())));
+          statement.setArray(2, connection.createArrayOf("uuid", groupIds.toArray()));
+          statement.setArray(3, connection.createArrayOf("uuid", policyIds.toArray()));
+          statement.setArray(
+              4, connection.createArrayOf("text", mapToList(masks, Enum::name).toArray()));
+          return statement;
+        },
+        (RowCallbackHandler)
+            rs -> {
+              changes.groupId(rs.getObject("group_id", UUID.class));
+              changes.policyId(rs.getObject("policy_id", UUID.class));
+            });
+    return changes.build();
+  }
+
+  /** @return members of the given groups owning at least one unrevoked api key */
+  public Set<UUID> findMemberIdsWithApiKeys(@NonNull Collection<UUID> groupIds) {
+    val userIds = new HashSet<UUID>();
+    if (groupIds.isEmpty()) {
+      return userIds;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(FIND_MEMBERS_WITH_API_KEYS);
+          statement.setArray(1, connection.createArrayOf("uuid", groupIds.toArray()));
+          return statement;
+        },
+        (RowCallbackHandler) rs -> userIds.add(rs.getObject("user_id", UUID.class)));
+    return userIds;
+  }
+
+  private Map<String, UUID> findIdsByName(String sql, Collection<String> names) {
+    val ids = new HashMap<String, UUID>();
+    if (names.isEmpty()) {
+      return ids;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(sql);
+          statement.setArray(
+              1, connection.createArrayOf("text", mapToList(names, String::toLowerCase).toArray()));
+          return statement;
+        },
+        (RowCallbackHandler)
+            rs -> ids.put(rs.getString("name_key"), rs.getObject("id", UUID.class)));
+    return ids;
+  }
+
+  private static Object[] randomIds(int count) {
+    val ids = new UUID[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = UUID.randomUUID();
+    }
+    return ids;
+  }
+}
@@ -16,15 +16,28 @@
 
 package bio.overture.ego.repository;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 import bio.overture.ego.model.entity.Group;
 import java.util.Optional;
 import java.util.UUID;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface GroupRepository extends NamedRepository<Group, UUID> {
 
-  Optional<Group> getGroupByNameIgnoreCase(String name);
+  @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+  @Query("select g from Group g where lower(g.name) = lower(:name)")
+  Optional<Group> getGroupByNameIgnoreCase(@Param("name") String name);
+
+  @Query("select g.id from Group g where lower(g.name) = lower(:name)")
+  Optional<UUID> findIdByNameIgnoreCase(@Param("name") String name);
 
-  boolean existsByNameIgnoreCase(String name);
+  @Query(
+      "select case when count(g) > 0 then true else false end from Group g where lower(g.name) = lower(:name)")
+  boolean existsByNameIgnoreCase(@Param("name") String name);
 
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
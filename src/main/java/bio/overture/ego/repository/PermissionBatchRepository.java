@@ -0,0 +1,114 @@
+package bio.overture.ego.repository;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static java.lang.String.format;
+
+import bio.overture.ego.model.dto.PermissionRequest;
+import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.model.enums.PermissionTable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads and writes the permissions of a single owner with one statement each, whatever the number
+ * of policies involved, for requests that grant thousands of policies at once.
+ *
+ * <p>Must be called within a transaction, and bypasses the persistence context and second level
+ * cache: callers evict whatever may have been cached for the changed rows.
+ */
+@Repository
+public class PermissionBatchRepository {
+
+  /** Constants */
+  private static final String FIND_MASKS =
+      "SELECT policy_id, access_level FROM %1$s WHERE %2$s = ?";
+
+  /**
+   * Updates the masks of the existing permissions and inserts the new ones. Both sets are already
+   * classified by the caller, so neither side needs to check the other.
+   */
+  private static final String UPSERT_PERMISSIONS =
+      "WITH updated AS ("
+          + "UPDATE %1$s p SET access_level = CAST(r.access_level AS aclmask) "
+          + "FROM unnest(?, ?) AS r(policy_id, access_level) "
+          + "WHERE p.%2$s = ? AND p.policy_id = r.policy_id "
+          + "RETURNING p.id"
+          + ") "
+          + "INSERT INTO %1$s (id, %2$s, policy_id, access_level) "
+          + "SELECT r.id, ?, r.policy_id, CAST(r.access_level AS aclmask) "
+          + "FROM unnest(?, ?, ?) AS r(id, policy_id, access_level)";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public PermissionBatchRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** @return the mask of each permission of the owner, keyed by policy id */
+  public Map<UUID, AccessLevel> findMasksByOwner(
+      @NonNull PermissionTable table, @NonNull UUID ownerId) {
+    val masks = new HashMap<UUID, AccessLevel>();
+    jdbcTemplate.query(
+        format(FIND_MASKS, table.getTableName(), table.getOwnerColumn()),
+        (RowCallbackHandler)
+            rs ->
+                masks.put(
+                    rs.getObject("policy_id", UUID.class),
+                    AccessLevel.valueOf(rs.getString("access_level"))),
+        ownerId);
+    return masks;
+  }
+
+  /**
+   * Sets the masks of the owner's existing permissions in updateables and creates a permission for
+   * each request in createables.
+   */
+  public void upsertPermissions(
+      @NonNull PermissionTable table,
+      @NonNull UUID ownerId,
+      @NonNull Collection<PermissionRequest> updateables,
+      @NonNull Collection<PermissionRequest> createables) {
+    if (updateables.isEmpty() && createables.isEmpty()) {
+      return;
+    }
+    val sql = format(UPSERT_PERMISSIONS, table.getTableName(), table.getOwnerColumn());
+    jdbcTemplate.update(
+        connection -> {
+          val statement = connection.prepareStatement(sql);
+          statement.setArray(1, policyIdArray(connection, updateables));
+          statement.setArray(2, maskArray(connection, updateables));
+          statement.setObject(3, ownerId);
+          statement.setObject(4, ownerId);
+          statement.setArray(
+              5,
+              connection.createArrayOf(
+                  "uuid", mapToList(createables, x -> UUID.randomUUID()).toArray()));
+          statement.setArray(6, policyIdArray(connection, createables));
+          statement.setArray(7, maskArray(connection, createables));
+          return statement;
+        });
+  }
+
+  private static java.sql.Array policyIdArray(
+      Connection connection, Collection<PermissionRequest> requests) throws SQLException {
+    return connection.createArrayOf(
+        "uuid", mapToList(requests, PermissionRequest::getPolicyId).toArray());
+  }
+
+  private static java.sql.Array maskArray(
+      Connection connection, Collection<PermissionRequest> requests) throws SQLException {
+    return connection.createArrayOf("text", mapToList(requests, x -> x.getMask().name()).toArray());
+  }
+}
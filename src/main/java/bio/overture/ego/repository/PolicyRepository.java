@@ -1,18 +1,28 @@
 package bio.overture.ego.repository;
 
-import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.FETCH;
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
 
 import bio.overture.ego.model.entity.Policy;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.jpa.repository.EntityGraph;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PolicyRepository extends NamedRepository<Policy, UUID> {
 
-  @EntityGraph(value = "policy-entity-with-relationships", type = FETCH)
-  Optional<Policy> getPolicyByNameIgnoreCase(String name);
+  /**
+   * Scope resolution looks policies up by name on every token request, so the result is served from
+   * the query cache. Only the policy row is loaded; its permission collections stay lazy.
+   */
+  @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+  @Query("select p from Policy p where lower(p.name) = lower(:name)")
+  Optional<Policy> getPolicyByNameIgnoreCase(@Param("name") String name);
 
-  boolean existsByNameIgnoreCase(String name);
+  @Query(
+      "select case when count(p) > 0 then true else false end from Policy p where lower(p.name) = lower(:name)")
+  boolean existsByNameIgnoreCase(@Param("name") String name);
 
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
@@ -1,7 +1,7 @@
 package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.ApiKey;
-import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -11,11 +11,18 @@ import org.springframework.data.repository.query.Param;
 
 public interface TokenStoreRepository extends NamedRepository<ApiKey, UUID> {
 
-  Optional<ApiKey> getTokenByNameIgnoreCase(String name);
+  @Query("select t from ApiKey t where lower(t.name) = lower(:name)")
+  Optional<ApiKey> getTokenByNameIgnoreCase(@Param("name") String name);
 
-  ApiKey findOneByNameIgnoreCase(String token);
+  @Query("select t from ApiKey t where lower(t.name) = lower(:token)")
+  ApiKey findOneByNameIgnoreCase(@Param("token") String token);
 
-  Set<ApiKey> findAllByIdIn(List<UUID> ids);
+  @Query("select t.id from ApiKey t where t.id in :ids and t.isRevoked = false")
+  Set<UUID> findUnrevokedIds(@Param("ids") Collection<UUID> ids);
+
+  @Modifying
+  @Query("update ApiKey t set t.isRevoked = true where t.id in :ids")
+  int revokeAllByIdIn(@Param("ids") Collection<UUID> ids);
 
   @Modifying
   @Query(
@@ -0,0 +1,94 @@
+package bio.overture.ego.repository;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+
+import bio.overture.ego.model.dto.CreateUserRequest;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts batches of users with a single statement per batch. Rows whose provider type and subject
+ * id already exist, in the table or earlier in the same batch, are skipped by the unique constraint
+ * rather than checked one at a time beforehand.
+ */
+@Repository
+public class UserImportRepository {
+
+  /** Constants */
+  private static final String INSERT_USERS =
+      "INSERT INTO egouser (id, email, type, status, firstname, lastname, preferredlanguage, "
+          + "providertype, providersubjectid, createdat) "
+          + "SELECT r.id, r.email, CAST(r.type AS usertype), CAST(r.status AS statustype), "
+          + "r.firstname, r.lastname, CAST(r.preferredlanguage AS languagetype), "
+          + "CAST(r.providertype AS providertype), r.providersubjectid, now() "
+          + "FROM unnest(?, ?, ?, ?, ?, ?, ?, ?, ?) "
+          + "AS r(id, email, type, status, firstname, lastname, preferredlanguage, "
+          + "providertype, providersubjectid) "
+          + "ON CONFLICT (providertype, providersubjectid) DO NOTHING "
+          + "RETURNING id";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public UserImportRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Inserts the users with the given ids, which must be in the same order as the requests.
+   *
+   * @return the ids of the users that were inserted
+   */
+  public Set<UUID> insertIgnoringExisting(
+      @NonNull List<UUID> ids, @NonNull List<CreateUserRequest> requests) {
+    val inserted = new HashSet<UUID>();
+    jdbcTemplate.query(
+        connection -> {
+          val statement = connection.prepareStatement(INSERT_USERS);
+          statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+          statement.setArray(2, textArray(connection, requests, CreateUserRequest::getEmail));
+          statement.setArray(3, textArray(connection, requests, CreateUserRequest::getType));
+          statement.setArray(4, textArray(connection, requests, CreateUserRequest::getStatus));
+          statement.setArray(5, textArray(connection, requests, CreateUserRequest::getFirstName));
+          statement.setArray(6, textArray(connection, requests, CreateUserRequest::getLastName));
+          statement.setArray(
+              7, textArray(connection, requests, CreateUserRequest::getPreferredLanguage));
+          statement.setArray(
+              8, textArray(connection, requests, CreateUserRequest::getProviderType));
+          statement.setArray(
+              9, textArray(connection, requests, CreateUserRequest::getProviderSubjectId));
+          return statement;
+        },
+        (RowCallbackHandler) rs -> inserted.add(rs.getObject("id", UUID.class)));
+    return inserted;
+  }
+
+  private static java.sql.Array textArray(
+      Connection connection,
+      List<CreateUserRequest> requests,
+      Function<CreateUserRequest, Object> getter)
+      throws SQLException {
+    val values = mapToList(requests, r -> toText(getter.apply(r)));
+    return connection.createArrayOf("text", values.toArray());
+  }
+
+  private static String toText(Object value) {
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return Objects.toString(value, null);
+  }
+}
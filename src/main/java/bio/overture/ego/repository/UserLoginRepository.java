@@ -0,0 +1,156 @@
+package bio.overture.ego.repository;
+
+import static java.util.stream.Collectors.toList;
+
+import bio.overture.ego.model.domain.UserLogin;
+import bio.overture.ego.model.dto.CreateUserRequest;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Resolves identity provider logins to user ids, and records login times, with one statement each
+ * instead of loading and dirty checking the user entity.
+ */
+@Repository
+public class UserLoginRepository {
+
+  /** Constants */
+  private static final String USER_TYPE_ADMIN = "ADMIN";
+
+  private static final String STATUS_APPROVED = "APPROVED";
+
+  /**
+   * In order:
+   *
+   * <ul>
+   *   <li>{@code legacy} finds a user created before identity providers were tracked, whose email
+   *       was copied into providerSubjectId, when no user has the login's subject id yet;
+   *   <li>{@code healed} moves that user over to the login's subject id and email;
+   *   <li>{@code upserted} otherwise inserts the user, or updates the email of the existing user
+   *       when it changed at the provider. The first user of an empty instance may become an admin.
+   * </ul>
+   *
+   * <p>An existing user whose email is unchanged is neither healed nor upserted, so it is read from
+   * the table without writing the row. {@code updated} is set when an existing user was healed or
+   * had its email updated.
+   */
+  private static final String UPSERT_LOGIN =
+      "WITH legacy AS ("
+          + "SELECT id FROM egouser "
+          + "WHERE providertype = CAST(? AS providertype) AND lower(providersubjectid) = lower(?) "
+          + "AND NOT EXISTS (SELECT 1 FROM egouser "
+          + "WHERE providertype = CAST(? AS providertype) AND providersubjectid = ?) "
+          + "LIMIT 1"
+          + "), healed AS ("
+          + "UPDATE egouser u SET providersubjectid = ?, email = ? "
+          + "FROM legacy WHERE u.id = legacy.id "
+          + "RETURNING u.id"
+          + "), upserted AS ("
+          + "INSERT INTO egouser (id, email, type, status, firstname, lastname, "
+          + "providertype, providersubjectid, createdat) "
+          + "SELECT ?, ?, "
+          + "CAST(CASE WHEN ? AND NOT EXISTS (SELECT 1 FROM egouser) THEN ? ELSE ? END AS usertype), "
+          + "CAST(CASE WHEN ? AND NOT EXISTS (SELECT 1 FROM egouser) THEN ? ELSE ? END "
+          + "AS statustype), "
+          + "?, ?, CAST(? AS providertype), ?, now() "
+          + "WHERE NOT EXISTS (SELECT 1 FROM legacy) "
+          + "ON CONFLICT (providertype, providersubjectid) DO UPDATE SET email = EXCLUDED.email "
+          + "WHERE egouser.email IS DISTINCT FROM EXCLUDED.email "
+          + "RETURNING id, (xmax = 0) AS created, (xmax <> 0) AS updated"
+          + ") "
+          + "SELECT id, FALSE AS created, TRUE AS updated FROM healed "
+          + "UNION ALL "
+          + "SELECT id, created, updated FROM upserted "
+          + "UNION ALL "
+          + "SELECT id, FALSE AS created, FALSE AS updated FROM egouser "
+          + "WHERE providertype = CAST(? AS providertype) AND providersubjectid = ? "
+          + "AND NOT EXISTS (SELECT 1 FROM healed) AND NOT EXISTS (SELECT 1 FROM upserted)";
+
+  private static final String FIND_USER_ID =
+      "SELECT id FROM egouser "
+          + "WHERE providertype = CAST(? AS providertype) AND providersubjectid = ?";
+
+  private static final String UPDATE_LAST_LOGINS =
+      "UPDATE egouser u SET lastlogin = l.lastlogin "
+          + "FROM unnest(?, ?) AS l(id, lastlogin) "
+          + "WHERE u.id = l.id AND (u.lastlogin IS NULL OR u.lastlogin < l.lastlogin)";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public UserLoginRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Finds or creates the user for a login, creating it from the request with the given id.
+   *
+   * @param firstUserAsAdmin whether a user created in an empty instance becomes an approved admin
+   */
+  public UserLogin upsertFromLogin(
+      @NonNull UUID newUserId, @NonNull CreateUserRequest request, boolean firstUserAsAdmin) {
+    val providerType = request.getProviderType().name();
+    val subjectId = request.getProviderSubjectId();
+    val email = request.getEmail();
+    val logins =
+        jdbcTemplate.query(
+            UPSERT_LOGIN,
+            (rs, i) ->
+                new UserLogin(
+                    rs.getObject("id", UUID.class),
+                    rs.getBoolean("created"),
+                    rs.getBoolean("updated")),
+            providerType,
+            email,
+            providerType,
+            subjectId,
+            subjectId,
+            email,
+            newUserId,
+            email,
+            firstUserAsAdmin,
+            USER_TYPE_ADMIN,
+            request.getType().name(),
+            firstUserAsAdmin,
+            STATUS_APPROVED,
+            request.getStatus().name(),
+            request.getFirstName(),
+            request.getLastName(),
+            providerType,
+            subjectId,
+            providerType,
+            subjectId);
+    if (!logins.isEmpty()) {
+      return logins.get(0);
+    }
+    // A concurrent login inserted the user after this statement took its snapshot, so neither
+    // the upsert nor the fallback read could see it; a new statement does
+    return new UserLogin(
+        jdbcTemplate.queryForObject(FIND_USER_ID, UUID.class, providerType, subjectId),
+        false,
+        false);
+  }
+
+  /** Sets the last login of each user, unless a later one is already stored */
+  public int updateLastLogins(@NonNull Map<UUID, Date> lastLogins) {
+    val ids = List.copyOf(lastLogins.keySet());
+    val timestamps =
+        ids.stream().map(id -> new Timestamp(lastLogins.get(id).getTime())).collect(toList());
+    return jdbcTemplate.update(
+        connection -> {
+          val statement = connection.prepareStatement(UPDATE_LAST_LOGINS);
+          statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+          statement.setArray(2, connection.createArrayOf("timestamp", timestamps.toArray()));
+          return statement;
+        });
+  }
+}
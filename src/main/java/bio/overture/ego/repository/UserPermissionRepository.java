@@ -4,12 +4,63 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.entity.UserPermission;
+import bio.overture.ego.repository.projection.EffectiveUserAccess;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserPermissionRepository extends PermissionRepository<User, UserPermission> {
 
   @EntityGraph(value = "user-permission-entity-with-relationships", type = FETCH)
   Set<UserPermission> findAllByOwner_Id(UUID id);
+
+  /**
+   * Resolves the effective access level of every user holding a grant on the policy, either
+   * directly or through one of their groups. The highest mask wins, and since the ACLMASK enum is
+   * ordered READ < WRITE < DENY, a DENY from any source overrides everything else. Results are
+   * keyset paginated on the user id.
+   *
+   * <p>The page's users are picked first, reading at most {@code limit} ids after the cursor from
+   * the direct grants and from each granting group, both in index order. Only their grants are then
+   * aggregated, so a page costs the same wherever it falls in the listing.
+   */
+  @Query(
+      value =
+          "WITH page AS ("
+              + "SELECT candidates.user_id FROM ("
+              + "(SELECT DISTINCT up.user_id FROM userpermission up "
+              + "WHERE up.policy_id = :policyId AND up.user_id > :after "
+              + "ORDER BY up.user_id LIMIT :limit) "
+              + "UNION "
+              + "(SELECT members.user_id FROM grouppermission gp "
+              + "CROSS JOIN LATERAL ("
+              + "SELECT ug.user_id FROM usergroup ug "
+              + "WHERE ug.group_id = gp.group_id AND ug.user_id > :after "
+              + "ORDER BY ug.user_id LIMIT :limit"
+              + ") members "
+              + "WHERE gp.policy_id = :policyId)"
+              + ") candidates "
+              + "ORDER BY candidates.user_id "
+              + "LIMIT :limit"
+              + ") "
+              + "SELECT CAST(grants.user_id AS text) AS \"userId\", "
+              + "concat(u.firstname, ' ', u.lastname) AS \"name\", "
+              + "CAST(max(grants.access_level) AS text) AS \"accessLevel\" "
+              + "FROM ("
+              + "SELECT up.user_id, up.access_level FROM page "
+              + "JOIN userpermission up ON up.user_id = page.user_id AND up.policy_id = :policyId "
+              + "UNION ALL "
+              + "SELECT ug.user_id, gp.access_level FROM page "
+              + "JOIN usergroup ug ON ug.user_id = page.user_id "
+              + "JOIN grouppermission gp ON gp.group_id = ug.group_id AND gp.policy_id = :policyId"
+              + ") grants "
+              + "JOIN egouser u ON u.id = grants.user_id "
+              + "GROUP BY grants.user_id, u.firstname, u.lastname "
+              + "ORDER BY grants.user_id",
+      nativeQuery = true)
+  List<EffectiveUserAccess> findEffectiveAccessByPolicy(
+      @Param("policyId") UUID policyId, @Param("after") UUID after, @Param("limit") int limit);
 }
@@ -18,20 +18,21 @@ package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ProviderType;
-import java.util.Collection;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends BaseRepository<User, UUID> {
 
-  Set<User> findAllByIdIn(Collection<UUID> userIds);
-
   boolean existsByProviderTypeAndProviderSubjectId(
       ProviderType providerType, String providerSubjectId);
 
   boolean existsByProviderSubjectId(String providerSubjectId);
 
+  @Query(
+      "select u from User u where u.providerType = :providerType and lower(u.providerSubjectId) = lower(:providerSubjectId)")
   Optional<User> findByProviderSubjectIdIgnoreCaseAndProviderType(
-      String providerSubjectId, ProviderType providerType);
+      @Param("providerSubjectId") String providerSubjectId,
+      @Param("providerType") ProviderType providerType);
 }
@@ -0,0 +1,159 @@
+package bio.overture.ego.repository.join;
+
+import bio.overture.ego.model.domain.MembershipChanges;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.val;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Replaces the members of a group with a desired set of user ids using set operations in SQL. The
+ * desired ids are streamed into a transaction scoped temporary table with {@code COPY}, and the
+ * memberships to remove and to add are then computed and applied against it in a single statement,
+ * so neither the current nor the desired membership is ever held in memory.
+ *
+ * <p>Must be called within a transaction: the staging table is dropped on commit.
+ */
+@Repository
+public class GroupMembershipSyncRepository {
+
+  /** Constants */
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private static final String DROP_STAGING_TABLE = "DROP TABLE IF EXISTS membership_sync";
+
+  private static final String CREATE_STAGING_TABLE =
+      "CREATE TEMP TABLE membership_sync (user_id uuid NOT NULL) ON COMMIT DROP";
+
+  private static final String COPY_STAGING_TABLE = "COPY membership_sync (user_id) FROM STDIN";
+
+  private static final String ANALYZE_STAGING_TABLE = "ANALYZE membership_sync";
+
+  private static final String FIND_UNKNOWN_USERS =
+      "SELECT DISTINCT s.user_id FROM membership_sync s "
+          + "WHERE NOT EXISTS (SELECT 1 FROM egouser u WHERE u.id = s.user_id) "
+          + "LIMIT ?";
+
+  /**
+   * Deletes the memberships missing from the staged set, inserts the staged ids that are not yet
+   * members, and returns every changed user id along with whether that user owns an unrevoked api
+   * key, since only those users need their keys checked afterwards.
+   */
+  private static final String REPLACE_GROUP_USERS =
+      "WITH removed AS ("
+          + "DELETE FROM usergroup ug WHERE ug.group_id = ? "
+          + "AND NOT EXISTS (SELECT 1 FROM membership_sync s WHERE s.user_id = ug.user_id) "
+          + "RETURNING ug.user_id"
+          + "), added AS ("
+          + "INSERT INTO usergroup (group_id, user_id) "
+          + "SELECT DISTINCT ?, s.user_id FROM membership_sync s "
+          + "WHERE NOT EXISTS "
+          + "(SELECT 1 FROM usergroup ug WHERE ug.group_id = ? AND ug.user_id = s.user_id) "
+          + "ON CONFLICT DO NOTHING "
+          + "RETURNING user_id"
+          + "), changed AS ("
+          + "SELECT user_id, TRUE AS added FROM added "
+          + "UNION ALL "
+          + "SELECT user_id, FALSE AS added FROM removed"
+          + ") "
+          + "SELECT c.user_id, c.added, "
+          + "EXISTS (SELECT 1 FROM token t WHERE t.owner = c.user_id AND NOT t.isrevoked) "
+          + "AS has_api_keys "
+          + "FROM changed c";
+
+  /** Dependencies */
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public GroupMembershipSyncRepository(@NonNull JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Streams the user ids into the staging table, replacing anything staged earlier in the same
+   * transaction.
+   *
+   * @return the number of ids staged, duplicates included
+   */
+  public long stageUserIds(@NonNull Iterator<UUID> userIds) {
+    jdbcTemplate.execute(DROP_STAGING_TABLE);
+    jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    val staged =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection -> {
+                  val copyIn =
+                      connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_TABLE);
+                  try {
+                    return copyUserIds(copyIn, userIds);
+                  } finally {
+                    if (copyIn.isActive()) {
+                      copyIn.cancelCopy();
+                    }
+                  }
+                });
+    // Gives the planner real row counts for the anti-joins below
+    jdbcTemplate.execute(ANALYZE_STAGING_TABLE);
+    return staged;
+  }
+
+  public List<UUID> findUnknownStagedUserIds(int limit) {
+    return jdbcTemplate.queryForList(FIND_UNKNOWN_USERS, UUID.class, limit);
+  }
+
+  /** Makes the staged user ids the exact membership of the group */
+  public MembershipChanges replaceGroupUsers(@NonNull UUID groupId) {
+    val changes = MembershipChanges.builder();
+    jdbcTemplate.query(
+        REPLACE_GROUP_USERS,
+        (RowCallbackHandler)
+            rs -> {
+              val userId = rs.getObject("user_id", UUID.class);
+              if (rs.getBoolean("added")) {
+                changes.addedUserId(userId);
+              } else {
+                changes.removedUserId(userId);
+              }
+              if (rs.getBoolean("has_api_keys")) {
+                changes.userIdWithApiKeys(userId);
+              }
+            },
+        groupId,
+        groupId,
+        groupId);
+    return changes.build();
+  }
+
+  private static long copyUserIds(CopyIn copyIn, Iterator<UUID> userIds) throws SQLException {
+    long count = 0;
+    val buffer = new StringBuilder(COPY_BUFFER_SIZE + 64);
+    while (userIds.hasNext()) {
+      buffer.append(userIds.next()).append('\n');
+      count++;
+      if (buffer.length() >= COPY_BUFFER_SIZE) {
+        flush(copyIn, buffer);
+      }
+    }
+    flush(copyIn, buffer);
+    copyIn.endCopy();
+    return count;
+  }
+
+  private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    if (buffer.length() > 0) {
+      val bytes = buffer.toString().getBytes(StandardCharsets.US_ASCII);
+      copyIn.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package bio.overture.ego.repository.projection;
+
+/** A user's resolved access level for a single policy, combining direct and group grants. */
+public interface EffectiveUserAccess {
+
+  String getUserId();
+
+  String getName();
+
+  String getAccessLevel();
+}
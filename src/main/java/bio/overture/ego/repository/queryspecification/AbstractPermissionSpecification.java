@@ -8,7 +8,6 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import bio.overture.ego.model.entity.AbstractPermission;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.search.SearchFilter;
-import bio.overture.ego.utils.QueryUtils;
 import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.UUID;
@@ -62,13 +61,12 @@ public class AbstractPermissionSpecification<P extends AbstractPermission> {
       if (!isNullOrEmpty(text)) {
         // Create query predicate
         val queryPredicates = Lists.<Predicate>newArrayList();
-        val finalText = QueryUtils.prepareForQuery(text);
         // Permission.accessLevel
-        queryPredicates.add(scb.filterByField(accessLevel, finalText));
+        queryPredicates.add(scb.textPredicate(accessLevel, text));
 
         // Owner ID and NAME
         Stream.of(ID, NAME)
-            .map(fieldName -> ownerSp.filterByField(fieldName, finalText))
+            .map(fieldName -> ownerSp.textPredicate(fieldName, text))
             .forEach(queryPredicates::add);
         // Query predicates should be ORed together
         val orPredicate = builder.or(queryPredicates.toArray(Predicate[]::new));
@@ -79,4 +77,48 @@ public class AbstractPermissionSpecification<P extends AbstractPermission> {
       return andPredicate;
     };
   }
+
+  public static <P extends AbstractPermission> Specification<P> buildOwnerFilterSpecification(
+      @NonNull UUID ownerId, @NonNull List<SearchFilter> filters) {
+    return buildOwnerFilterAndQuerySpecification(ownerId, filters, null);
+  }
+
+  /**
+   * Permissions of a single owner, with the filters and query text applied to their policy. The
+   * policy and owner are only fetched for the rows of the page; the count query filters on the
+   * owner's foreign key without joining it.
+   */
+  public static <P extends AbstractPermission>
+      Specification<P> buildOwnerFilterAndQuerySpecification(
+          @NonNull UUID ownerId, @NonNull List<SearchFilter> filters, String text) {
+    return (root, query, builder) -> {
+      val scb = SimpleCriteriaBuilder.of(root, builder, query);
+      val isCountQuery = query.getResultType() == Long.class || query.getResultType() == long.class;
+      val policySp =
+          isCountQuery
+              ? scb.leftJoin(Policy.class, policy)
+              : scb.leftJoinFetch(Policy.class, policy);
+      if (!isCountQuery) {
+        scb.leftJoinFetch(P.Fields.class, OWNER);
+      }
+
+      val andPredicates = Lists.<Predicate>newArrayList();
+      andPredicates.add(builder.equal(root.get(OWNER).get(ID), ownerId));
+      andPredicates.addAll(policySp.searchFilter(filters));
+      val andPredicate = builder.and(andPredicates.toArray(Predicate[]::new));
+
+      if (!isNullOrEmpty(text)) {
+        val queryPredicates = Lists.<Predicate>newArrayList();
+        // Permission.accessLevel
+        queryPredicates.add(scb.textPredicate(accessLevel, text));
+
+        // Policy ID and NAME
+        Stream.of(ID, NAME)
+            .map(fieldName -> policySp.textPredicate(fieldName, text))
+            .forEach(queryPredicates::add);
+        return builder.and(andPredicate, builder.or(queryPredicates.toArray(Predicate[]::new)));
+      }
+      return andPredicate;
+    };
+  }
 }
@@ -16,55 +16,43 @@
 
 package bio.overture.ego.repository.queryspecification;
 
+import static bio.overture.ego.model.enums.JavaFields.APPLICATION_ID;
 import static bio.overture.ego.model.enums.JavaFields.CLIENTID;
-import static bio.overture.ego.model.enums.JavaFields.CLIENTSECRET;
 import static bio.overture.ego.model.enums.JavaFields.DESCRIPTION;
-import static bio.overture.ego.model.enums.JavaFields.GROUP;
-import static bio.overture.ego.model.enums.JavaFields.GROUPAPPLICATIONS;
-import static bio.overture.ego.model.enums.JavaFields.ID;
+import static bio.overture.ego.model.enums.JavaFields.GROUP_ID;
 import static bio.overture.ego.model.enums.JavaFields.NAME;
 import static bio.overture.ego.model.enums.JavaFields.STATUS;
-import static bio.overture.ego.model.enums.JavaFields.USER;
-import static bio.overture.ego.model.enums.JavaFields.USERAPPLICATIONS;
+import static bio.overture.ego.model.enums.JavaFields.USER_ID;
 
 import bio.overture.ego.model.entity.Application;
-import bio.overture.ego.model.entity.Group;
-import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
-import bio.overture.ego.utils.QueryUtils;
+import java.util.List;
 import java.util.UUID;
-import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class ApplicationSpecification extends SpecificationBase<Application> {
   public static Specification<Application> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.or(
-          getQueryPredicates(
-              builder, root, finalText, NAME, CLIENTID, CLIENTSECRET, DESCRIPTION, STATUS));
-    };
+    return (root, query, builder) ->
+        builder.or(getQueryPredicates(builder, root, text, NAME, CLIENTID, DESCRIPTION, STATUS));
   }
 
   public static Specification<Application> inGroup(@NonNull UUID groupId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<Application, GroupApplication> applicationJoin = root.join(GROUPAPPLICATIONS);
-      Join<GroupApplication, Group> groupJoin = applicationJoin.join(GROUP);
-      return builder.equal(groupJoin.<Integer>get(ID), groupId);
-    };
+    return (root, query, builder) ->
+        existsJoinRow(
+            query,
+            builder,
+            root,
+            GroupApplication.class,
+            APPLICATION_ID,
+            GROUP_ID,
+            List.of(groupId));
   }
 
   public static Specification<Application> usedBy(@NonNull UUID userId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<Application, UserApplication> applicationJoin = root.join(USERAPPLICATIONS);
-      Join<UserApplication, User> userJoin = applicationJoin.join(USER);
-      return builder.equal(userJoin.<Integer>get(ID), userId);
-    };
+    return (root, query, builder) ->
+        existsJoinRow(
+            query, builder, root, UserApplication.class, APPLICATION_ID, USER_ID, List.of(userId));
   }
 }
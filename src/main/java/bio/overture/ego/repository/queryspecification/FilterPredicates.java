@@ -0,0 +1,180 @@
+package bio.overture.ego.repository.queryspecification;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static java.time.ZoneOffset.UTC;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.utils.QueryUtils;
+import com.google.common.base.Splitter;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Builds the predicate for a {@link SearchFilter} from the Java type of the filtered attribute, so
+ * that each filter can be answered by the index on its column:
+ *
+ * <ul>
+ *   <li>enums, UUIDs and booleans: equality, or {@code IN} for a comma separated list of values
+ *   <li>dates: a range {@code from..to}, where either bound may be omitted, or a single instant
+ *   <li>text: {@code lower(column) LIKE '%value%'}, served by the trigram indexes
+ * </ul>
+ *
+ * Values that cannot be converted to the attribute type are rejected as malformed requests. Free
+ * text is matched the same way, except that values which cannot be converted match nothing.
+ */
+public class FilterPredicates {
+
+  /** Constants */
+  private static final Splitter VALUE_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private static final String RANGE_SEPARATOR = "..";
+  private static final int UUID_LENGTH = 36;
+
+  @SuppressWarnings("unchecked")
+  public static Predicate filterPredicate(
+      @NonNull CriteriaBuilder builder, @NonNull Path<?> path, @NonNull SearchFilter filter) {
+    val type = path.getJavaType();
+    val value = filter.getFilterValue();
+    if (String.class.equals(type)) {
+      return builder.like(builder.lower((Path<String>) path), QueryUtils.prepareForQuery(value));
+    } else if (Date.class.isAssignableFrom(type)) {
+      return dateRangePredicate(builder, (Path<Date>) path, filter);
+    } else if (type.isEnum()) {
+      return inPredicate(builder, path, filter, v -> parseEnum(type, v));
+    } else if (UUID.class.equals(type)) {
+      return inPredicate(builder, path, filter, UUID::fromString);
+    } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+      return inPredicate(builder, path, filter, FilterPredicates::parseBoolean);
+    }
+    throw buildMalformedRequest("Cannot filter by the field '%s'", filter.getFilterField());
+  }
+
+  /**
+   * Free-text predicate for one field, meant to be ORed with those of other fields. Text columns
+   * are matched with {@code lower(column) LIKE pattern}, which the trigram indexes on {@code
+   * lower(column)} serve (see V1_24). Enum columns are compared with {@code IN} the constants the
+   * pattern matches, and UUID columns with the text when it is a whole UUID, so that neither is
+   * cast to text, which no index could serve.
+   */
+  @SuppressWarnings("unchecked")
+  public static Predicate textPredicate(
+      @NonNull CriteriaBuilder builder, @NonNull Path<?> path, String text) {
+    val type = path.getJavaType();
+    val likePattern = QueryUtils.prepareForQuery(text);
+    if (type.isEnum()) {
+      val regex = likeToRegex(likePattern);
+      val matchingConstants =
+          Arrays.stream(type.getEnumConstants())
+              .filter(c -> regex.matcher(((Enum<?>) c).name().toLowerCase()).matches())
+              .collect(toUnmodifiableList());
+      return matchingConstants.isEmpty() ? builder.disjunction() : path.in(matchingConstants);
+    } else if (UUID.class.equals(type)) {
+      val value = text == null ? "" : text.trim();
+      if (value.length() != UUID_LENGTH) {
+        return builder.disjunction();
+      }
+      try {
+        return builder.equal(path, UUID.fromString(value));
+      } catch (IllegalArgumentException e) {
+        return builder.disjunction();
+      }
+    }
+    return builder.like(builder.lower((Path<String>) path), likePattern);
+  }
+
+  private static Predicate inPredicate(
+      CriteriaBuilder builder, Path<?> path, SearchFilter filter, Function<String, Object> parser) {
+    val values =
+        mapToList(
+            VALUE_SPLITTER.splitToList(filter.getFilterValue()), v -> parse(filter, v, parser));
+    checkMalformedRequest(
+        !values.isEmpty(), "The filter '%s' requires a value", filter.getFilterField());
+    return values.size() == 1 ? builder.equal(path, values.get(0)) : path.in(values);
+  }
+
+  private static Predicate dateRangePredicate(
+      CriteriaBuilder builder, Path<Date> path, SearchFilter filter) {
+    val value = filter.getFilterValue().trim();
+    val separator = value.indexOf(RANGE_SEPARATOR);
+    if (separator < 0) {
+      return builder.equal(path, parse(filter, value, FilterPredicates::parseDate));
+    }
+    val from = value.substring(0, separator).trim();
+    val to = value.substring(separator + RANGE_SEPARATOR.length()).trim();
+    checkMalformedRequest(
+        !from.isEmpty() || !to.isEmpty(),
+        "The filter '%s' requires at least one range bound",
+        filter.getFilterField());
+
+    val bounds = new ArrayList<Predicate>();
+    if (!from.isEmpty()) {
+      bounds.add(
+          builder.greaterThanOrEqualTo(path, parse(filter, from, FilterPredicates::parseDate)));
+    }
+    if (!to.isEmpty()) {
+      bounds.add(builder.lessThan(path, parse(filter, to, FilterPredicates::parseDate)));
+    }
+    return builder.and(bounds.toArray(Predicate[]::new));
+  }
+
+  private static Pattern likeToRegex(String likePattern) {
+    val regex = new StringBuilder();
+    for (val c : likePattern.toCharArray()) {
+      if (c == '%') {
+        regex.append(".*");
+      } else if (c == '_') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  private static <V> V parse(SearchFilter filter, String value, Function<String, V> parser) {
+    try {
+      return parser.apply(value);
+    } catch (RuntimeException e) {
+      throw buildMalformedRequest(
+          "The value '%s' is not valid for the filter '%s'", value, filter.getFilterField());
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object parseEnum(Class type, String value) {
+    return Arrays.stream(type.getEnumConstants())
+        .filter(c -> ((Enum<?>) c).name().equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(IllegalArgumentException::new);
+  }
+
+  private static Boolean parseBoolean(String value) {
+    if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+      return Boolean.valueOf(value);
+    }
+    throw new IllegalArgumentException(value);
+  }
+
+  /** Accepts an ISO-8601 instant, or a date which is taken as the start of that day in UTC. */
+  private static Timestamp parseDate(String value) {
+    if (value.contains("T")) {
+      return Timestamp.from(Instant.parse(value));
+    }
+    return Timestamp.from(LocalDate.parse(value).atStartOfDay(UTC).toInstant());
+  }
+}
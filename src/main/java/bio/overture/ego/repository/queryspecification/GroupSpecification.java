@@ -16,49 +16,35 @@
 
 package bio.overture.ego.repository.queryspecification;
 
-import static bio.overture.ego.model.enums.JavaFields.APPLICATION;
+import static bio.overture.ego.model.enums.JavaFields.APPLICATION_ID;
 import static bio.overture.ego.model.enums.JavaFields.DESCRIPTION;
-import static bio.overture.ego.model.enums.JavaFields.GROUPAPPLICATIONS;
-import static bio.overture.ego.model.enums.JavaFields.ID;
+import static bio.overture.ego.model.enums.JavaFields.GROUP_ID;
 import static bio.overture.ego.model.enums.JavaFields.NAME;
 import static bio.overture.ego.model.enums.JavaFields.STATUS;
-import static bio.overture.ego.model.enums.JavaFields.USER;
-import static bio.overture.ego.model.enums.JavaFields.USERGROUPS;
+import static bio.overture.ego.model.enums.JavaFields.USER_ID;
 
-import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
-import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserGroup;
-import bio.overture.ego.utils.QueryUtils;
+import java.util.List;
 import java.util.UUID;
-import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class GroupSpecification extends SpecificationBase<Group> {
   public static Specification<Group> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
     return (root, query, builder) ->
-        builder.or(getQueryPredicates(builder, root, finalText, NAME, DESCRIPTION, STATUS));
+        builder.or(getQueryPredicates(builder, root, text, NAME, DESCRIPTION, STATUS));
   }
 
   public static Specification<Group> containsApplication(@NonNull UUID appId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<Group, GroupApplication> groupJoin = root.join(GROUPAPPLICATIONS);
-      Join<GroupApplication, Application> applicationJoin = groupJoin.join(APPLICATION);
-      return builder.equal(applicationJoin.<Integer>get(ID), appId);
-    };
+    return (root, query, builder) ->
+        existsJoinRow(
+            query, builder, root, GroupApplication.class, GROUP_ID, APPLICATION_ID, List.of(appId));
   }
 
   public static Specification<Group> containsUser(@NonNull UUID userId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<Group, UserGroup> groupJoin = root.join(USERGROUPS);
-      Join<UserGroup, User> userJoin = groupJoin.join(USER);
-      return builder.equal(userJoin.<Integer>get(ID), userId);
-    };
+    return (root, query, builder) ->
+        existsJoinRow(query, builder, root, UserGroup.class, GROUP_ID, USER_ID, List.of(userId));
   }
 }
@@ -0,0 +1,107 @@
+package bio.overture.ego.repository.queryspecification;
+
+import static bio.overture.ego.model.enums.JavaFields.ID;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+
+import bio.overture.ego.model.domain.KeysetCursor;
+import java.util.ArrayList;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Seek predicates for keyset pagination. For a sort (p1, ..., pn, id) and a cursor (v1, ..., vn,
+ * vid), matches the rows ordered strictly after the cursor:
+ *
+ * <pre>
+ *   p1 after v1
+ *   OR (p1 = v1 AND p2 after v2)
+ *   ...
+ *   OR (p1 = v1 AND ... AND pn = vn AND id after vid)
+ * </pre>
+ *
+ * "after" follows the sort direction and Postgres' default null placement (last when ascending,
+ * first when descending), so nullable sort properties page correctly.
+ */
+public class KeysetSpecification {
+
+  /** Appends the id to the sort, when missing, so that every row has a unique position. */
+  public static Sort withIdTieBreaker(@NonNull Sort sort) {
+    if (sort.getOrderFor(ID) != null) {
+      return sort;
+    }
+    val direction = sort.stream().reduce((first, second) -> second).map(Sort.Order::getDirection);
+    return sort.and(Sort.by(direction.orElse(ASC), ID));
+  }
+
+  public static <T> Specification<T> after(@NonNull Sort sort, @NonNull KeysetCursor cursor) {
+    return (root, query, builder) -> {
+      val orders = sort.toList();
+      val equalities = new ArrayList<Predicate>();
+      val alternatives = new ArrayList<Predicate>();
+      for (int i = 0; i < orders.size(); i++) {
+        val order = orders.get(i);
+        val path = resolvePath(root, order.getProperty());
+        val value = cursor.getValue(i, path.getJavaType());
+
+        val alternative = new ArrayList<>(equalities);
+        alternative.add(isAfter(builder, order, path, value));
+        alternatives.add(builder.and(alternative.toArray(Predicate[]::new)));
+        equalities.add(isEqual(builder, order, path, value));
+      }
+      return builder.or(alternatives.toArray(Predicate[]::new));
+    };
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate isAfter(
+      CriteriaBuilder builder, Sort.Order order, Path<?> path, Object value) {
+    if (order.isAscending()) {
+      return value == null
+          ? builder.disjunction()
+          : builder.or(
+              builder.greaterThan(
+                  (Expression<Comparable>) comparable(builder, order, path),
+                  (Comparable) comparable(order, value)),
+              builder.isNull(path));
+    }
+    return value == null
+        ? builder.isNotNull(path)
+        : builder.lessThan(
+            (Expression<Comparable>) comparable(builder, order, path),
+            (Comparable) comparable(order, value));
+  }
+
+  private static Predicate isEqual(
+      CriteriaBuilder builder, Sort.Order order, Path<?> path, Object value) {
+    return value == null
+        ? builder.isNull(path)
+        : builder.equal(comparable(builder, order, path), comparable(order, value));
+  }
+
+  /** Mirrors the lower() Spring Data applies when ordering by an ignore-case sort */
+  @SuppressWarnings("unchecked")
+  private static Expression<?> comparable(CriteriaBuilder builder, Sort.Order order, Path<?> path) {
+    return order.isIgnoreCase() && path.getJavaType() == String.class
+        ? builder.lower((Path<String>) path)
+        : path;
+  }
+
+  private static Object comparable(Sort.Order order, Object value) {
+    return order.isIgnoreCase() && value instanceof String ? ((String) value).toLowerCase() : value;
+  }
+
+  private static Path<?> resolvePath(Root<?> root, String property) {
+    Path<?> path = root;
+    for (val part : property.split("\\.")) {
+      path = path.get(part);
+    }
+    return path;
+  }
+}
@@ -20,18 +20,12 @@ import static bio.overture.ego.model.enums.JavaFields.NAME;
 
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.entity.User;
-import bio.overture.ego.utils.QueryUtils;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class PolicySpecification extends SpecificationBase<User> {
 
   public static Specification<Policy> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.or(getQueryPredicates(builder, root, finalText, NAME));
-    };
+    return (root, query, builder) -> builder.or(getQueryPredicates(builder, root, text, NAME));
   }
 }
@@ -5,7 +5,6 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 import static lombok.AccessLevel.PRIVATE;
 
 import bio.overture.ego.model.search.SearchFilter;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -61,15 +60,13 @@ public class SimpleCriteriaBuilder<X, Y> {
 
   public Collection<Predicate> searchFilter(@NonNull List<SearchFilter> filters) {
     return filters.stream()
-        .map(f -> filterByField(f.getFilterField(), f.getFilterValue()))
+        .map(f -> FilterPredicates.filterPredicate(builder, from.get(f.getFilterField()), f))
         .collect(toUnmodifiableList());
   }
 
-  public Predicate filterByField(@NonNull String fieldName, String fieldValue) {
-    val finalText = QueryUtils.prepareForQuery(fieldValue);
-
-    // Cast "as" String so that we can search ENUM types
-    return builder.like(builder.lower(from.get(fieldName).as(String.class)), finalText);
+  /** Free-text predicate for one field, see {@link FilterPredicates#textPredicate} */
+  public Predicate textPredicate(@NonNull String fieldName, String text) {
+    return FilterPredicates.textPredicate(builder, from.get(fieldName), text);
   }
 
   public <T> Predicate matchField(
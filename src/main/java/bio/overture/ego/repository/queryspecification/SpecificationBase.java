@@ -16,11 +16,15 @@
 
 package bio.overture.ego.repository.queryspecification;
 
+import static bio.overture.ego.model.enums.JavaFields.ID;
+
 import bio.overture.ego.model.search.SearchFilter;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import lombok.NonNull;
@@ -28,34 +32,57 @@ import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class SpecificationBase<T> {
+  /** Free-text predicates, one per field, meant to be ORed, see {@link FilterPredicates} */
   protected static <T> Predicate[] getQueryPredicates(
       @NonNull CriteriaBuilder builder,
       @NonNull Root<T> root,
       String queryText,
       @NonNull String... params) {
     return Arrays.stream(params)
-        .map(p -> filterByField(builder, root, p, queryText))
+        .map(p -> FilterPredicates.textPredicate(builder, root.get(p), queryText))
         .toArray(Predicate[]::new);
   }
 
+  /** Typed predicate for a filter on {@code root.fieldName}, see {@link FilterPredicates} */
   public static <T> Predicate filterByField(
+      @NonNull CriteriaBuilder builder, @NonNull Root<T> root, @NonNull SearchFilter filter) {
+    return FilterPredicates.filterPredicate(builder, root.get(filter.getFilterField()), filter);
+  }
+
+  /**
+   * Matches the rows of {@code root} that have a row in the join entity {@code joinType} linking
+   * them to one of {@code relatedIds}, as a correlated {@code EXISTS} on the join table's composite
+   * key. Unlike joining the association, this cannot multiply the root rows, so neither the page
+   * query nor its count need a {@code DISTINCT}.
+   */
+  protected static <T, J> Predicate existsJoinRow(
+      @NonNull CriteriaQuery<?> query,
       @NonNull CriteriaBuilder builder,
       @NonNull Root<T> root,
-      @NonNull String fieldName,
-      String fieldValue) {
-    val finalText = QueryUtils.prepareForQuery(fieldValue);
-
-    // Cast "as" String so that we can search ENUM types
-    return builder.like(builder.lower(root.get(fieldName).as(String.class)), finalText);
+      @NonNull Class<J> joinType,
+      @NonNull String ownerIdField,
+      @NonNull String relatedIdField,
+      @NonNull Collection<UUID> relatedIds) {
+    val subquery = query.subquery(Integer.class);
+    val joinRoot = subquery.from(joinType);
+    val joinId = joinRoot.get(ID);
+    return builder.exists(
+        subquery
+            .select(builder.literal(1))
+            .where(
+                builder.equal(joinId.get(ownerIdField), root.get(ID)),
+                joinId.get(relatedIdField).in(relatedIds)));
   }
 
   public static <T> Specification<T> filterBy(@NonNull List<SearchFilter> filters) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.and(
-          filters.stream()
-              .map(f -> filterByField(builder, root, f.getFilterField(), f.getFilterValue()))
-              .toArray(Predicate[]::new));
-    };
+    // No predicate at all when unfiltered, so the listing can be recognized as such (see
+    // EgoJpaRepository.estimateCount)
+    return (root, query, builder) ->
+        filters.isEmpty()
+            ? null
+            : builder.and(
+                filters.stream()
+                    .map(f -> filterByField(builder, root, f))
+                    .toArray(Predicate[]::new));
   }
 }
@@ -19,31 +19,18 @@ package bio.overture.ego.repository.queryspecification;
 import static bio.overture.ego.model.enums.JavaFields.*;
 
 import bio.overture.ego.model.entity.ApiKey;
-import bio.overture.ego.model.entity.User;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.UUID;
-import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class TokenStoreSpecification extends SpecificationBase<ApiKey> {
 
   public static Specification<ApiKey> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-
-      return builder.or(getQueryPredicates(builder, root, finalText, NAME));
-    };
+    return (root, query, builder) -> builder.or(getQueryPredicates(builder, root, text, NAME));
   }
 
   public static Specification<ApiKey> containsUser(@NonNull UUID userId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-
-      Join<ApiKey, User> apiKeyJoin = root.join(OWNER);
-      return builder.equal(apiKeyJoin.<Integer>get(ID), userId);
-    };
+    // owner is a many-to-one, so comparing its id reads token.owner without joining egouser
+    return (root, query, builder) -> builder.equal(root.get(OWNER).get(ID), userId);
   }
 }
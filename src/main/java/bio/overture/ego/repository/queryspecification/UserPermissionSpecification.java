@@ -27,7 +27,6 @@ import bio.overture.ego.model.entity.RefreshToken;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.entity.UserPermission;
 import bio.overture.ego.model.search.SearchFilter;
-import bio.overture.ego.utils.QueryUtils;
 import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.UUID;
@@ -86,12 +85,11 @@ public class UserPermissionSpecification {
       if (!isNullOrEmpty(text)) {
         // Create query predicate
         val queryPredicates = Lists.<Predicate>newArrayList();
-        val finalText = QueryUtils.prepareForQuery(text);
         // Permission.accessLevel
-        queryPredicates.add(scb.filterByField(accessLevel, finalText));
+        queryPredicates.add(scb.textPredicate(accessLevel, text));
 
         // Owner ID
-        queryPredicates.add(ownerSp.filterByField(ID, finalText));
+        queryPredicates.add(ownerSp.textPredicate(ID, text));
         // Query predicates should be ORed together
         val orPredicate = builder.or(queryPredicates.toArray(Predicate[]::new));
 
@@ -18,57 +18,36 @@ package bio.overture.ego.repository.queryspecification;
 
 import static bio.overture.ego.model.enums.JavaFields.*;
 
-import bio.overture.ego.model.entity.Application;
-import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.User;
-import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.join.UserGroup;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class UserSpecification extends SpecificationBase<User> {
 
   public static Specification<User> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.or(
-          getQueryPredicates(
-              builder, root, finalText, EMAIL, FIRSTNAME, LASTNAME, STATUS, PROVIDERTYPE));
-    };
+    return (root, query, builder) ->
+        builder.or(
+            getQueryPredicates(
+                builder, root, text, EMAIL, FIRSTNAME, LASTNAME, STATUS, PROVIDERTYPE));
   }
 
   public static Specification<User> inGroup(@NonNull UUID groupId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<User, UserGroup> userJoin = root.join(USERGROUPS);
-      Join<UserGroup, Group> groupJoin = userJoin.join(GROUP);
-      return builder.equal(groupJoin.<Integer>get(JavaFields.ID), groupId);
-    };
+    return inGroups(List.of(groupId));
   }
 
   public static Specification<User> inGroups(@NonNull Collection<UUID> groupIds) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<User, UserGroup> userJoin = root.join(USERGROUPS);
-      Join<UserGroup, Group> groupJoin = userJoin.join(GROUP);
-
-      return builder.isTrue(groupJoin.<Integer>get(JavaFields.ID).in(groupIds));
-    };
+    return (root, query, builder) ->
+        existsJoinRow(query, builder, root, UserGroup.class, USER_ID, GROUP_ID, groupIds);
   }
 
   public static Specification<User> ofApplication(@NonNull UUID appId) {
-    return (root, query, builder) -> {
-      query.distinct(true);
-      Join<User, UserApplication> userJoin = root.join(USERAPPLICATIONS);
-      Join<UserApplication, Application> applicationJoin = userJoin.join(APPLICATION);
-      return builder.equal(applicationJoin.<Integer>get(ID), appId);
-    };
+    return (root, query, builder) ->
+        existsJoinRow(
+            query, builder, root, UserApplication.class, USER_ID, APPLICATION_ID, List.of(appId));
   }
 }
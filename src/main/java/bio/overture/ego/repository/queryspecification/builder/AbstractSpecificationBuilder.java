@@ -18,7 +18,7 @@ public abstract class AbstractSpecificationBuilder<T, ID> {
   public Specification<T> buildByNameIgnoreCase(@NonNull String name) {
     return (fromUser, query, builder) -> {
       val root = setupFetchStrategy(fromUser);
-      return equalsNameIgnoreCasePredicate(root, builder, name);
+      return equalsIgnoreCasePredicate(root, builder, NAME, name);
     };
   }
 
@@ -36,6 +36,10 @@ public abstract class AbstractSpecificationBuilder<T, ID> {
     };
   }
 
+  /**
+   * Criteria queries cannot bind an array, so the ids become an IN list: callers pass at most
+   * {@link bio.overture.ego.utils.EntityServices#ID_CHUNK_SIZE} ids per query.
+   */
   public Specification<T> buildByIds(@NonNull Collection<ID> ids) {
     return (fromUser, query, builder) -> {
       val root = setupFetchStrategy(fromUser);
@@ -51,8 +55,12 @@ public abstract class AbstractSpecificationBuilder<T, ID> {
     return builder.equal(root.get(JavaFields.ID), id);
   }
 
-  private Predicate equalsNameIgnoreCasePredicate(
-      Root<T> root, CriteriaBuilder builder, String name) {
-    return builder.equal(builder.upper(root.get(NAME)), builder.upper(builder.literal(name)));
+  /**
+   * Compares lower(field) so that the lookup is served by the functional lower() index on the key
+   * column (see V1_25), the same expression ignore-case sorts order by.
+   */
+  protected Predicate equalsIgnoreCasePredicate(
+      Root<T> root, CriteriaBuilder builder, String field, String value) {
+    return builder.equal(builder.lower(root.get(field)), builder.lower(builder.literal(value)));
   }
 }
@@ -5,8 +5,6 @@ import static javax.persistence.criteria.JoinType.LEFT;
 
 import bio.overture.ego.model.entity.Application;
 import java.util.UUID;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import lombok.NonNull;
 import lombok.Setter;
@@ -26,16 +24,10 @@ public class ApplicationSpecificationBuilder
   public Specification<Application> buildByClientIdIgnoreCase(@NonNull String clientId) {
     return (fromApplication, query, builder) -> {
       val root = setupFetchStrategy(fromApplication);
-      return equalsNameIgnoreCasePredicate(root, builder, clientId);
+      return equalsIgnoreCasePredicate(root, builder, CLIENTID, clientId);
     };
   }
 
-  private Predicate equalsNameIgnoreCasePredicate(
-      Root<Application> root, CriteriaBuilder builder, String clientId) {
-    return builder.equal(
-        builder.upper(root.get(CLIENTID)), builder.upper(builder.literal(clientId)));
-  }
-
   @Override
   protected Root<Application> setupFetchStrategy(Root<Application> root) {
     if (fetchGroups) {
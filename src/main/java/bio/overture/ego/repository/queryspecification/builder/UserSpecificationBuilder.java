@@ -3,6 +3,7 @@ package bio.overture.ego.repository.queryspecification.builder;
 import static bio.overture.ego.model.enums.JavaFields.*;
 import static javax.persistence.criteria.JoinType.LEFT;
 
+import bio.overture.ego.model.domain.UserFetchPlan;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ProviderType;
 import java.util.UUID;
@@ -20,21 +21,47 @@ import org.springframework.data.jpa.domain.Specification;
 public class UserSpecificationBuilder extends AbstractSpecificationBuilder<User, UUID> {
 
   private boolean fetchUserAndGroupPermissions;
+  private boolean fetchUserPermissions;
+  private boolean fetchGroupPermissions;
   private boolean fetchUserGroups;
   private boolean fetchApplications;
   private boolean fetchRefreshToken;
 
+  /**
+   * Builds the single query equivalent of the plan. Each collection fetched here multiplies the
+   * number of rows returned, so prefer {@link #multiQueryRoot()} followed by one query per
+   * collection when more than one collection is requested.
+   */
+  public static UserSpecificationBuilder ofPlan(@NonNull UserFetchPlan plan) {
+    return new UserSpecificationBuilder()
+        .fetchUserPermissions(plan.isUserPermissions())
+        .fetchGroupPermissions(plan.isGroupPermissions())
+        .fetchUserGroups(plan.isUserGroups())
+        .fetchApplications(plan.isApplications())
+        .fetchRefreshToken(plan.isRefreshToken());
+  }
+
+  /**
+   * Builds the root query of a multi query plan. The refresh token is always fetched: it is the
+   * inverse side of a one-to-one, which Hibernate cannot proxy, so leaving it out would cost one
+   * extra select per user instead of saving a join.
+   */
+  public static UserSpecificationBuilder multiQueryRoot() {
+    return new UserSpecificationBuilder().fetchRefreshToken(true);
+  }
+
   @Override
   protected Root<User> setupFetchStrategy(Root<User> root) {
     if (fetchApplications) {
       root.fetch(USERAPPLICATIONS, LEFT).fetch(APPLICATION, LEFT);
     }
-    if (fetchUserGroups) {
-      root.fetch(USERGROUPS, LEFT).fetch(GROUP, LEFT);
-    }
-    if (fetchUserAndGroupPermissions) {
+    if (fetchUserAndGroupPermissions || fetchUserPermissions) {
       root.fetch(USERPERMISSIONS, LEFT).fetch(POLICY, LEFT);
+    }
+    if (fetchUserAndGroupPermissions || fetchGroupPermissions) {
       root.fetch(USERGROUPS, LEFT).fetch(GROUP, LEFT).fetch(PERMISSIONS, LEFT).fetch(POLICY, LEFT);
+    } else if (fetchUserGroups) {
+      root.fetch(USERGROUPS, LEFT).fetch(GROUP, LEFT);
     }
     if (fetchRefreshToken) {
       root.fetch(User.Fields.refreshToken, LEFT);
@@ -1,16 +1,30 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.domain.CountedPageable.countModeOf;
+import static bio.overture.ego.model.domain.KeysetCursor.decode;
+import static bio.overture.ego.model.enums.CountMode.EXACT;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
+import static bio.overture.ego.repository.queryspecification.KeysetSpecification.withIdTieBreaker;
 import static bio.overture.ego.utils.CollectionUtils.difference;
 import static bio.overture.ego.utils.Converters.convertToIds;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.EntityServices.getManyEntities;
+import static bio.overture.ego.utils.EntityServices.partitionIds;
 import static bio.overture.ego.utils.Joiners.COMMA;
+import static java.util.Objects.isNull;
+import static org.springframework.data.jpa.domain.Specification.where;
 
+import bio.overture.ego.model.domain.KeysetCursor;
+import bio.overture.ego.model.domain.KeysetPage;
+import bio.overture.ego.model.domain.KeysetPageable;
+import bio.overture.ego.model.domain.SlicePage;
 import bio.overture.ego.model.entity.Identifiable;
+import bio.overture.ego.model.enums.CountMode;
 import bio.overture.ego.repository.BaseRepository;
+import bio.overture.ego.repository.queryspecification.KeysetSpecification;
 import bio.overture.ego.repository.queryspecification.builder.AbstractSpecificationBuilder;
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -64,7 +78,14 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
   @Override
   @SuppressWarnings("unchecked")
   public Page<T> findAll(@NonNull Specification specification, @NonNull Pageable pageable) {
-    return getRepository().findAll(specification, pageable);
+    if (pageable instanceof KeysetPageable) {
+      return findAllAfter(specification, (KeysetPageable) pageable);
+    }
+    val countMode = countModeOf(pageable);
+    if (countMode == EXACT) {
+      return getRepository().findAll(specification, pageable);
+    }
+    return findSlice(specification, pageable, countMode);
   }
 
   @Override
@@ -72,7 +93,7 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
   public Page<T> findAll(
       @NonNull AbstractSpecificationBuilder<T, ID> specificationBuilder,
       @NonNull Pageable pageable) {
-    return getRepository().findAll(specificationBuilder.listAll(), pageable);
+    return findAll(specificationBuilder.listAll(), pageable);
   }
 
   @Override
@@ -80,7 +101,7 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
   public List<T> getMany(
       @NonNull Collection<ID> ids,
       @NonNull AbstractSpecificationBuilder<T, ID> specificationBuilder) {
-    val entities = (List<T>) getRepository().findAll(specificationBuilder.buildByIds(ids));
+    val entities = findMany(ids, specificationBuilder);
     val requestedIds = ImmutableSet.copyOf(ids);
     val existingIds = convertToIds(entities);
     val nonExistingIds = difference(requestedIds, existingIds);
@@ -92,6 +113,21 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
     return entities;
   }
 
+  /** Same as getMany, but ids that do not exist are left out instead of failing the lookup */
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<T> findMany(
+      @NonNull Collection<ID> ids,
+      @NonNull AbstractSpecificationBuilder<T, ID> specificationBuilder) {
+    val entities = new ArrayList<T>();
+    partitionIds(ids)
+        .forEach(
+            chunk ->
+                entities.addAll(
+                    (List<T>) getRepository().findAll(specificationBuilder.buildByIds(chunk))));
+    return entities;
+  }
+
   @Override
   public Set<T> getMany(@NonNull Collection<ID> ids) {
     return getManyEntities(entityType, repository, ids);
@@ -106,4 +142,71 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
   public void checkExistence(ID id) {
     checkEntityExistence(getEntityType(), getRepository(), id);
   }
+
+  @Override
+  public void refreshIfManaged(@NonNull ID id) {
+    getRepository().refreshIfManaged(id);
+  }
+
+  /**
+   * Seeks past the cursor instead of skipping an offset, and reads one extra row to learn whether
+   * another page follows. The count query only runs when the caller asked for it.
+   */
+  @SuppressWarnings("unchecked")
+  private Page<T> findAllAfter(
+      @NonNull Specification<T> specification, @NonNull KeysetPageable pageable) {
+    val sort = withIdTieBreaker(pageable.getSort());
+    val seekSpecification =
+        pageable
+            .getCursorValue()
+            .map(c -> where(specification).and(KeysetSpecification.<T>after(sort, decode(c, sort))))
+            .orElse(specification);
+    val limit = pageable.getPageSize();
+
+    val rows = getRepository().findLimited(seekSpecification, sort, limit + 1);
+    val hasNext = rows.size() > limit;
+    val content = hasNext ? rows.subList(0, limit) : rows;
+    val next = hasNext ? KeysetCursor.from(sort, content.get(limit - 1)).encode() : null;
+    val total = countTotal(specification, pageable.getCountMode());
+    return new KeysetPage<>(content, pageable, next, total, pageable.getCountMode());
+  }
+
+  /**
+   * Reads one extra row instead of counting to learn whether another page follows. On the last page
+   * the total is known without counting, so it is reported as exact.
+   */
+  @SuppressWarnings("unchecked")
+  private Page<T> findSlice(
+      @NonNull Specification<T> specification,
+      @NonNull Pageable pageable,
+      @NonNull CountMode countMode) {
+    val rows = getRepository().findSlice(specification, pageable);
+    val limit = pageable.getPageSize();
+    val hasNext = rows.size() > limit;
+    val content = hasNext ? rows.subList(0, limit) : rows;
+    if (!hasNext && (pageable.getOffset() == 0 || !content.isEmpty())) {
+      return new SlicePage<>(
+          content, pageable, false, pageable.getOffset() + content.size(), EXACT);
+    }
+    val total = countTotal(specification, countMode);
+    // An estimate can lag behind the rows already seen
+    val minimumTotal = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+    return new SlicePage<>(
+        content,
+        pageable,
+        hasNext,
+        isNull(total) ? null : Math.max(total, minimumTotal),
+        countMode);
+  }
+
+  private Long countTotal(Specification<T> specification, CountMode countMode) {
+    switch (countMode) {
+      case EXACT:
+        return getRepository().count(specification);
+      case ESTIMATE:
+        return getRepository().estimateCount(specification);
+      default:
+        return null;
+    }
+  }
 }
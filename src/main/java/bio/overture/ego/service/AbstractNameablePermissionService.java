@@ -3,6 +3,7 @@ package bio.overture.ego.service;
 import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.entity.*;
 import bio.overture.ego.repository.NameablePermissionRepository;
+import bio.overture.ego.repository.PermissionBatchRepository;
 import java.util.*;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -27,8 +28,19 @@ public abstract class AbstractNameablePermissionService<
       @NonNull Class<P> entityType,
       @NonNull BaseService<O, UUID> ownerBaseService,
       @NonNull BaseService<Policy, UUID> policyBaseService,
-      @NonNull NameablePermissionRepository repository) {
-    super(ownerType, entityType, ownerBaseService, policyBaseService, repository);
+      @NonNull NameablePermissionRepository repository,
+      @NonNull PermissionBatchRepository permissionBatchRepository,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
+    super(
+        ownerType,
+        entityType,
+        ownerBaseService,
+        policyBaseService,
+        repository,
+        permissionBatchRepository,
+        changeLogService,
+        secondLevelCacheService);
     this.nameablePermissionRepository = repository;
     this.ownerType = ownerType;
     this.policyBaseService = policyBaseService;
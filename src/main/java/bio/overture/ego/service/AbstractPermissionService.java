@@ -1,18 +1,21 @@
 package bio.overture.ego.service;
 
 import static bio.overture.ego.model.dto.Scope.createScope;
+import static bio.overture.ego.model.enums.ChangeType.PERMISSIONS_CHANGED;
 import static bio.overture.ego.model.enums.JavaFields.ID;
 import static bio.overture.ego.model.enums.JavaFields.POLICY;
+import static bio.overture.ego.model.enums.PermissionTable.resolvePermissionTable;
 import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
 import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
+import static bio.overture.ego.repository.queryspecification.AbstractPermissionSpecification.buildOwnerFilterAndQuerySpecification;
+import static bio.overture.ego.repository.queryspecification.AbstractPermissionSpecification.buildOwnerFilterSpecification;
 import static bio.overture.ego.utils.CollectionUtils.*;
 import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.Joiners.COMMA;
 import static bio.overture.ego.utils.PermissionRequestAnalyzer.analyze;
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.collect.Maps.uniqueIndex;
 import static java.util.Arrays.stream;
 import static java.util.Collections.reverse;
 import static java.util.Comparator.comparing;
@@ -25,17 +28,15 @@ import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.ResolvedPermissionResponse;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.PermissionTable;
+import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.PermissionBatchRepository;
 import bio.overture.ego.repository.PermissionRepository;
-import bio.overture.ego.utils.PermissionRequestAnalyzer.PermissionAnalysis;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
 import java.util.*;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,15 +53,26 @@ public abstract class AbstractPermissionService<
   private final BaseService<O, UUID> ownerBaseService;
   private final PermissionRepository<O, P> permissionRepository;
   private final Class<O> ownerType;
+  private final ChangeLogService changeLogService;
+  private final SecondLevelCacheService secondLevelCacheService;
+  private final PermissionBatchRepository permissionBatchRepository;
+  private final PermissionTable permissionTable;
 
   public AbstractPermissionService(
       @NonNull Class<O> ownerType,
       @NonNull Class<P> entityType,
       @NonNull BaseService<O, UUID> ownerBaseService,
       @NonNull BaseService<Policy, UUID> policyBaseService,
-      @NonNull PermissionRepository<O, P> repository) {
+      @NonNull PermissionRepository<O, P> repository,
+      @NonNull PermissionBatchRepository permissionBatchRepository,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
     super(entityType, repository);
     this.permissionRepository = repository;
+    this.permissionBatchRepository = permissionBatchRepository;
+    this.permissionTable = resolvePermissionTable(entityType);
+    this.changeLogService = changeLogService;
+    this.secondLevelCacheService = secondLevelCacheService;
     this.ownerType = ownerType;
     this.policyBaseService = policyBaseService;
     this.ownerBaseService = ownerBaseService;
@@ -78,15 +90,31 @@ public abstract class AbstractPermissionService<
     return result.get();
   }
 
-  public Page<P> getPermissions(@NonNull UUID ownerId, @NonNull Pageable pageable) {
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public Page<P> listPermissions(
+      @NonNull UUID ownerId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
     ownerBaseService.checkExistence(ownerId);
-    val permissions = ImmutableList.copyOf(permissionRepository.findAllByOwner_Id(ownerId));
-    return new PageImpl<>(permissions, pageable, permissions.size());
+    return (Page<P>) findAll(buildOwnerFilterSpecification(ownerId, filters), pageable);
+  }
+
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public Page<P> findPermissions(
+      @NonNull UUID ownerId,
+      @NonNull List<SearchFilter> filters,
+      @NonNull String query,
+      @NonNull Pageable pageable) {
+    ownerBaseService.checkExistence(ownerId);
+    return (Page<P>)
+        findAll(buildOwnerFilterAndQuerySpecification(ownerId, filters, query), pageable);
   }
 
   public void deleteByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID ownerId) {
     val perm = getByPolicyAndOwner(policyId, ownerId);
     getRepository().delete(perm);
+    secondLevelCacheService.evictCollectionsOf(getEntityType(), List.of(ownerId, policyId));
+    changeLogService.record(ownerType, ownerId, PERMISSIONS_CHANGED);
   }
 
   public void deletePermissions(@NonNull UUID ownerId, @NonNull Collection<UUID> idsToDelete) {
@@ -115,15 +143,18 @@ public abstract class AbstractPermissionService<
 
     disassociatePermissions(permissionsToRemove);
     getRepository().deleteAll(permissionsToRemove);
+    changeLogService.record(ownerType, ownerId, PERMISSIONS_CHANGED);
   }
 
   /**
    * Adds permissions for the supplied owner. The input permissionRequests are sanitized and then
-   * used to create new permissions and update existing ones.
+   * used to create new permissions and update existing ones. The owner's existing masks are read
+   * and the changes written with one statement each, so the cost does not depend on how many
+   * permissions the owner already has loaded as entities.
    *
    * @param ownerId permissionRequests will be applied to the owner with this ownerId
    * @param permissionRequests permission to be created or updated
-   * @return owner with new and updated permissions
+   * @return owner with new and updated permissions, without fetching its relationships up front
    */
   public O addPermissions(
       @NonNull UUID ownerId, @NonNull List<PermissionRequest> permissionRequests) {
@@ -134,15 +165,16 @@ public abstract class AbstractPermissionService<
         ownerId);
 
     // Check policies all exist
-    policyBaseService.checkExistence(mapToSet(permissionRequests, PermissionRequest::getPolicyId));
-
-    val owner = ownerBaseService.getWithRelationships(ownerId);
+    val policyIds = mapToSet(permissionRequests, PermissionRequest::getPolicyId);
+    policyBaseService.checkExistence(policyIds);
+    ownerBaseService.checkExistence(ownerId);
 
-    // Convert the GroupPermission to PermissionRequests since all permission requests apply to the
-    // same owner (the group)
-    val existingPermissions = getPermissionsFromOwner(owner);
+    // The masks are read and written with SQL, which must see any pending entity changes
+    getRepository().flush();
     val existingPermissionRequests =
-        mapToSet(existingPermissions, AbstractPermissionService::convertToPermissionRequest);
+        mapToList(
+            permissionBatchRepository.findMasksByOwner(permissionTable, ownerId).entrySet(),
+            x -> new PermissionRequest(x.getKey(), x.getValue()));
     val permissionAnalysis = analyze(existingPermissionRequests, permissionRequests);
 
     // Check there are no unresolvable permission requests
@@ -160,7 +192,19 @@ public abstract class AbstractPermissionService<
         ownerId,
         COMMA.join(permissionAnalysis.getDuplicates()));
 
-    return createOrUpdatePermissions(owner, permissionAnalysis);
+    permissionBatchRepository.upsertPermissions(
+        permissionTable,
+        ownerId,
+        permissionAnalysis.getUpdateables(),
+        permissionAnalysis.getCreateables());
+    if (!permissionAnalysis.getUpdateables().isEmpty()) {
+      secondLevelCacheService.evictEntities(getEntityType());
+    }
+    secondLevelCacheService.evictCollectionsOf(
+        getEntityType(), concatToSet(List.of(ownerId), policyIds));
+    ownerBaseService.refreshIfManaged(ownerId);
+    changeLogService.record(ownerType, ownerId, PERMISSIONS_CHANGED);
+    return ownerBaseService.getById(ownerId);
   }
 
   private P getByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID ownerId) {
@@ -187,83 +231,6 @@ public abstract class AbstractPermissionService<
     };
   }
 
-  /**
-   * Create or Update the permission for the group based on the supplied analysis
-   *
-   * @param owner with all its relationships loaded
-   * @param permissionAnalysis containing pre-sanitized lists of createable and updateable requests
-   */
-  private O createOrUpdatePermissions(O owner, PermissionAnalysis permissionAnalysis) {
-    val updatedGroup = updateGroupPermissions(owner, permissionAnalysis.getUpdateables());
-    return createGroupPermissions(updatedGroup, permissionAnalysis.getCreateables());
-  }
-
-  /**
-   * Update existing Permissions for an owner with different data while maintaining the same
-   * relationships
-   *
-   * @param owner with all its relationships loaded
-   */
-  private O updateGroupPermissions(
-      O owner, Collection<PermissionRequest> updatePermissionRequests) {
-    val existingPermissions = getPermissionsFromOwner(owner);
-    val existingPermissionIndex = uniqueIndex(existingPermissions, x -> x.getPolicy().getId());
-
-    updatePermissionRequests.forEach(
-        p -> {
-          val policyId = p.getPolicyId();
-          val mask = p.getMask();
-          checkNotFound(
-              existingPermissionIndex.containsKey(policyId),
-              "Could not find existing %s with policyId '%s' for %s '%s'",
-              getEntityTypeName(),
-              policyId,
-              getOwnerTypeName(),
-              owner.getId());
-          val gp = existingPermissionIndex.get(policyId);
-          gp.setAccessLevel(mask);
-        });
-    return owner;
-  }
-
-  /**
-   * Create new Permissions for the owner
-   *
-   * @param owner with all its relationships loaded
-   */
-  private O createGroupPermissions(
-      O owner, Collection<PermissionRequest> createablePermissionRequests) {
-    val existingPermissions = getPermissionsFromOwner(owner);
-    val existingPermissionIndex = uniqueIndex(existingPermissions, x -> x.getPolicy().getId());
-    val requestedPolicyIds = mapToSet(createablePermissionRequests, PermissionRequest::getPolicyId);
-
-    // Double check the permissions you are creating dont conflict with whats existing
-    val redundantPolicyIds =
-        Sets.intersection(requestedPolicyIds, existingPermissionIndex.keySet());
-    checkUnique(
-        redundantPolicyIds.isEmpty(),
-        "%ss with the following policyIds could not be created because "
-            + "%ss with those policyIds already exist: %s",
-        getEntityTypeName(),
-        getEntityTypeName(),
-        COMMA.join(redundantPolicyIds));
-
-    val requestedPolicyMap =
-        uniqueIndex(policyBaseService.getMany(requestedPolicyIds), Policy::getId);
-    createablePermissionRequests.forEach(x -> createGroupPermission(requestedPolicyMap, owner, x));
-    return owner;
-  }
-
-  @SneakyThrows
-  private void createGroupPermission(
-      Map<UUID, Policy> policyMap, O owner, PermissionRequest request) {
-    val gp = getEntityType().newInstance();
-    val policy = policyMap.get(request.getPolicyId());
-    gp.setAccessLevel(request.getMask());
-    associatePermission(owner, gp);
-    associatePermission(policy, gp);
-  }
-
   public static Scope buildScope(@NonNull AbstractPermission permission) {
     return createScope(permission.getPolicy(), permission.getAccessLevel());
   }
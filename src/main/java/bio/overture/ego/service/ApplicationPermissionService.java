@@ -4,7 +4,6 @@ import static bio.overture.ego.repository.queryspecification.ApplicationPermissi
 import static bio.overture.ego.repository.queryspecification.ApplicationPermissionSpecification.buildFilterSpecification;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
 import static bio.overture.ego.utils.CollectionUtils.mapToList;
-import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
@@ -16,6 +15,7 @@ import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.ApplicationPermissionRepository;
+import bio.overture.ego.repository.PermissionBatchRepository;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -24,7 +24,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -41,15 +40,21 @@ public class ApplicationPermissionService
   @Autowired
   public ApplicationPermissionService(
       @NonNull ApplicationPermissionRepository applicationPermissionRepository,
+      @NonNull PermissionBatchRepository permissionBatchRepository,
       @NonNull ApplicationService applicationService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
+      @NonNull PolicyService policyService,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
     super(
         Application.class,
         ApplicationPermission.class,
         applicationService,
         policyService,
-        applicationPermissionRepository);
+        applicationPermissionRepository,
+        permissionBatchRepository,
+        changeLogService,
+        secondLevelCacheService);
     this.applicationService = applicationService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
   }
@@ -66,8 +71,9 @@ public class ApplicationPermissionService
   public Application addPermissions(
       @NonNull UUID applicationId, @NonNull List<PermissionRequest> permissionRequests) {
     val application = super.addPermissions(applicationId, permissionRequests);
-    val users = mapToImmutableSet(application.getUserApplications(), UserApplication::getUser);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
+    val userIds =
+        mapToImmutableSet(application.getUserApplications(), ua -> ua.getId().getUserId());
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(userIds);
     return application;
   }
 
@@ -102,14 +108,9 @@ public class ApplicationPermissionService
 
     val applicationPermissions =
         (Page<ApplicationPermission>)
-            getRepository().findAll(buildFilterSpecification(policyId, filters), pageable);
+            findAll(buildFilterSpecification(policyId, filters), pageable);
 
-    val responses =
-        applicationPermissions.stream()
-            .map(this::convertToPolicyResponse)
-            .collect(toUnmodifiableList());
-
-    return new PageImpl<>(responses, pageable, applicationPermissions.getTotalElements());
+    return applicationPermissions.map(this::convertToPolicyResponse);
   }
 
   @SuppressWarnings("unchecked")
@@ -120,15 +121,9 @@ public class ApplicationPermissionService
       @NonNull Pageable pageable) {
     val applicationPermissions =
         (Page<ApplicationPermission>)
-            getRepository()
-                .findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
-
-    val responses =
-        applicationPermissions.stream()
-            .map(this::convertToPolicyResponse)
-            .collect(toUnmodifiableList());
+            findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
 
-    return new PageImpl<>(responses, pageable, applicationPermissions.getTotalElements());
+    return applicationPermissions.map(this::convertToPolicyResponse);
   }
 
   @SuppressWarnings("unchecked")
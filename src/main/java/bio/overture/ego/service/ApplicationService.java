@@ -30,6 +30,7 @@ import static java.util.Objects.isNull;
 import static org.mapstruct.factory.Mappers.getMapper;
 import static org.springframework.data.jpa.domain.Specification.where;
 
+import bio.overture.ego.event.auth.AuthEventsPublisher;
 import bio.overture.ego.model.dto.CreateApplicationRequest;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.dto.UpdateApplicationRequest;
@@ -38,11 +39,13 @@ import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.ApplicationRepository;
+import bio.overture.ego.repository.EntityDeleteRepository;
 import bio.overture.ego.repository.GroupRepository;
 import bio.overture.ego.repository.UserRepository;
 import bio.overture.ego.repository.queryspecification.ApplicationSpecification;
 import bio.overture.ego.repository.queryspecification.builder.ApplicationSpecificationBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.util.*;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +63,7 @@ import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
@@ -77,26 +81,40 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
   private final PasswordEncoder passwordEncoder;
   private final GroupRepository groupRepository;
   private final UserRepository userRepository;
+  private final EntityDeleteRepository entityDeleteRepository;
+  private final SecondLevelCacheService secondLevelCacheService;
+  private final AuthEventsPublisher authEventsPublisher;
 
   @Autowired
   public ApplicationService(
       @NonNull ApplicationRepository applicationRepository,
       @NonNull GroupRepository groupRepository,
       @NonNull UserRepository userRepository,
-      @NonNull PasswordEncoder passwordEncoder) {
+      @NonNull PasswordEncoder passwordEncoder,
+      @NonNull EntityDeleteRepository entityDeleteRepository,
+      @NonNull SecondLevelCacheService secondLevelCacheService,
+      @NonNull AuthEventsPublisher authEventsPublisher) {
     super(Application.class, applicationRepository);
     this.applicationRepository = applicationRepository;
     this.passwordEncoder = passwordEncoder;
     this.groupRepository = groupRepository;
     this.userRepository = userRepository;
+    this.entityDeleteRepository = entityDeleteRepository;
+    this.secondLevelCacheService = secondLevelCacheService;
+    this.authEventsPublisher = authEventsPublisher;
   }
 
   @Override
-  public void delete(@NonNull UUID groupId) {
-    val application = getWithRelationships(groupId);
-    disassociateAllGroupsFromApplication(application);
-    disassociateAllUsersFromApplication(application);
-    getRepository().delete(application);
+  @Transactional
+  public void delete(@NonNull UUID applicationId) {
+    checkExistence(applicationId);
+    val deleted = entityDeleteRepository.deleteApplication(applicationId);
+    secondLevelCacheService.evictDeletedEntity(Application.class, applicationId);
+    secondLevelCacheService.evictEntities(ApplicationPermission.class);
+    secondLevelCacheService.evictCollectionsOf(
+        ApplicationPermission.class,
+        concatToSet(deleted.getPolicyIds(), ImmutableSet.of(applicationId)));
+    authEventsPublisher.principalChanged(applicationId);
   }
 
   @SuppressWarnings("unchecked")
@@ -118,11 +136,14 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     return getRepository().save(application);
   }
 
+  @Transactional
   public Application partialUpdate(@NonNull UUID id, @NonNull UpdateApplicationRequest request) {
     val app = getById(id);
     validateUpdateRequest(app, request);
     APPLICATION_CONVERTER.updateApplication(request, app);
-    return getRepository().save(app);
+    val savedApp = getRepository().save(app);
+    authEventsPublisher.principalChanged(id);
+    return savedApp;
   }
 
   @Override
@@ -130,22 +151,24 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     return get(id, true, true, true);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> listApps(
       @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository().findAll(ApplicationSpecification.filterBy(filters), pageable);
+    return findAll(ApplicationSpecification.filterBy(filters), pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> findApps(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository()
-        .findAll(
-            where(ApplicationSpecification.containsText(query))
-                .and(ApplicationSpecification.filterBy(filters)),
-            pageable);
+    return findAll(
+        where(ApplicationSpecification.containsText(query))
+            .and(ApplicationSpecification.filterBy(filters)),
+        pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> findApplicationsForUser(
       @NonNull UUID userId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -157,6 +180,7 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> findApplicationsForUser(
       @NonNull UUID userId,
@@ -172,6 +196,7 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> findApplicationsForGroup(
       @NonNull UUID groupId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -183,6 +208,7 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Application> findApplicationsForGroup(
       @NonNull UUID groupId,
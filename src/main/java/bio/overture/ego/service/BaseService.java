@@ -42,6 +42,8 @@ public interface BaseService<T, ID> {
 
   List<T> getMany(Collection<ID> ids, AbstractSpecificationBuilder<T, ID> specificationBuilder);
 
+  List<T> findMany(Collection<ID> ids, AbstractSpecificationBuilder<T, ID> specificationBuilder);
+
   Set<T> getMany(Collection<ID> ids);
 
   T getWithRelationships(ID id);
@@ -49,4 +51,7 @@ public interface BaseService<T, ID> {
   void checkExistence(Collection<ID> ids);
 
   void checkExistence(ID id);
+
+  /** Reloads the entity if it is already loaded, after its rows were changed with SQL */
+  void refreshIfManaged(ID id);
 }
@@ -0,0 +1,62 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.service.ChangeLogService.RELAY_BATCH_SIZE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically numbers committed change log entries, so change log writers never wait on each
+ * other. Entries reach consumers at most one interval after their mutation commits. An interval of
+ * 0 turns the relay off, leaving numbering to explicit {@link ChangeLogService#sequenceCommitted()}
+ * calls.
+ */
+@Slf4j
+@Component
+public class ChangeLogRelay implements DisposableBean {
+
+  /** Dependencies */
+  private final ChangeLogService changeLogService;
+
+  private final ScheduledExecutorService scheduler;
+
+  @Autowired
+  public ChangeLogRelay(
+      @NonNull ChangeLogService changeLogService,
+      @Value("${changelog.relay.intervalMs:100}") long intervalMs) {
+    this.changeLogService = changeLogService;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              final Thread thread = new Thread(r, "changelog-relay");
+              thread.setDaemon(true);
+              return thread;
+            });
+    if (intervalMs > 0) {
+      scheduler.scheduleWithFixedDelay(this::relay, intervalMs, intervalMs, MILLISECONDS);
+    }
+  }
+
+  /** Numbers every committed entry, one batch per transaction. */
+  public void relay() {
+    try {
+      while (changeLogService.sequenceCommitted() == RELAY_BATCH_SIZE) {
+        log.debug("Numbered a full batch of change log entries, continuing");
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to number change log entries: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdown();
+  }
+}
@@ -0,0 +1,113 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.ChangeEntityType.resolveChangeEntityType;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import bio.overture.ego.model.dto.ChangeLogResponse;
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeType;
+import bio.overture.ego.repository.ChangeLogBatchRepository;
+import bio.overture.ego.repository.ChangeLogRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends compact change events to the change log (transactional outbox) and serves them back to
+ * consumers by sequence number. Writes join the caller's transaction and take no lock; entries get
+ * their sequence number from {@link #sequenceCommitted()} after the mutation has committed, and are
+ * only listed from then on.
+ */
+@Slf4j
+@Service
+@Transactional
+public class ChangeLogService {
+
+  /** Constants */
+  public static final int DEFAULT_LIMIT = 100;
+
+  public static final int MAX_LIMIT = 1000;
+  public static final long MAX_WAIT_MS = 30000L;
+  public static final int RELAY_BATCH_SIZE = 1000;
+  private static final long RELAY_LOCK_KEY = 0x45474f43484cL; // "EGOCHL"
+
+  /** Dependencies */
+  private final ChangeLogRepository changeLogRepository;
+
+  private final ChangeLogBatchRepository changeLogBatchRepository;
+
+  @Autowired
+  public ChangeLogService(
+      @NonNull ChangeLogRepository changeLogRepository,
+      @NonNull ChangeLogBatchRepository changeLogBatchRepository) {
+    this.changeLogRepository = changeLogRepository;
+    this.changeLogBatchRepository = changeLogBatchRepository;
+  }
+
+  public void record(
+      @NonNull ChangeEntityType entityType,
+      @NonNull UUID entityId,
+      @NonNull ChangeType changeType) {
+    changeLogRepository.save(buildEntry(entityType, entityId, changeType));
+  }
+
+  public void record(
+      @NonNull ChangeEntityType entityType,
+      @NonNull Collection<UUID> entityIds,
+      @NonNull ChangeType changeType) {
+    if (entityIds.isEmpty()) {
+      return;
+    }
+    changeLogBatchRepository.insertAll(entityType, entityIds, changeType);
+  }
+
+  public void record(
+      @NonNull Class<?> entityClass, @NonNull UUID entityId, @NonNull ChangeType changeType) {
+    record(resolveChangeEntityType(entityClass), entityId, changeType);
+  }
+
+  /**
+   * Assigns the next sequence numbers to committed entries that have none yet, in insertion order.
+   * Concurrent callers take turns, so numbers are visible in the order they were assigned. Returns
+   * how many entries were numbered, at most one batch per call.
+   */
+  public int sequenceCommitted() {
+    changeLogRepository.acquireRelayLock(RELAY_LOCK_KEY);
+    return changeLogBatchRepository.sequencePending(RELAY_BATCH_SIZE);
+  }
+
+  @Transactional(readOnly = true)
+  public ChangeLogResponse listChanges(long after, int limit) {
+    val changes =
+        changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(
+            max(after, 0L), PageRequest.of(0, resolveLimit(limit)));
+    return buildResponse(after, changes);
+  }
+
+  private static int resolveLimit(int limit) {
+    return limit <= 0 ? DEFAULT_LIMIT : min(limit, MAX_LIMIT);
+  }
+
+  private static ChangeLogResponse buildResponse(long after, List<ChangeLogEntry> changes) {
+    val cursor = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq();
+    return ChangeLogResponse.builder().cursor(cursor).changes(changes).build();
+  }
+
+  private static ChangeLogEntry buildEntry(
+      ChangeEntityType entityType, UUID entityId, ChangeType changeType) {
+    return ChangeLogEntry.builder()
+        .entityType(entityType)
+        .entityId(entityId)
+        .changeType(changeType)
+        .build();
+  }
+}
@@ -0,0 +1,60 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.dto.ExportRecord.SNAPSHOT;
+import static org.springframework.transaction.TransactionDefinition.ISOLATION_REPEATABLE_READ;
+
+import bio.overture.ego.model.dto.ExportRecord;
+import bio.overture.ego.model.enums.ExportType;
+import bio.overture.ego.repository.ExportRepository;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams the authorization data as export records. Every type is read within one read only,
+ * repeatable read transaction, so the export is a consistent snapshot regardless of concurrent
+ * writes, and the change log cursor in the leading snapshot record tells consumers where to resume
+ * polling {@code /changes} to keep up to date from there.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+  /** Dependencies */
+  private final ExportRepository exportRepository;
+
+  private final TransactionTemplate snapshotTransaction;
+
+  @Autowired
+  public ExportService(
+      @NonNull ExportRepository exportRepository,
+      @NonNull PlatformTransactionManager transactionManager) {
+    this.exportRepository = exportRepository;
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setIsolationLevel(ISOLATION_REPEATABLE_READ);
+    this.snapshotTransaction.setReadOnly(true);
+  }
+
+  public void export(
+      @NonNull Collection<ExportType> types, @NonNull Consumer<ExportRecord> consumer) {
+    snapshotTransaction.executeWithoutResult(
+        status -> {
+          val cursor = exportRepository.getChangeLogCursor();
+          consumer.accept(new ExportRecord(SNAPSHOT, ImmutableMap.of("changeLogCursor", cursor)));
+          for (val type : ExportType.values()) {
+            if (types.contains(type)) {
+              exportRepository.forEachRow(
+                  type, row -> consumer.accept(new ExportRecord(type.name(), row)));
+            }
+          }
+          log.info("Exported {} at change log cursor {}", types, cursor);
+        });
+  }
+}
@@ -1,30 +1,51 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeEntityType.GROUP;
+import static bio.overture.ego.model.enums.ChangeEntityType.POLICY;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.ChangeType.PERMISSIONS_CHANGED;
+import static bio.overture.ego.model.enums.StatusType.APPROVED;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.repository.queryspecification.GroupPermissionSpecification.buildFilterAndQuerySpecification;
 import static bio.overture.ego.repository.queryspecification.GroupPermissionSpecification.buildFilterSpecification;
+import static bio.overture.ego.utils.CollectionUtils.concatToSet;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
-import static java.util.stream.Collectors.toUnmodifiableList;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.isNullOrEmpty;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
+import bio.overture.ego.model.dto.GroupRequest;
 import bio.overture.ego.model.dto.PermissionRequest;
+import bio.overture.ego.model.dto.PolicyRequest;
 import bio.overture.ego.model.dto.PolicyResponse;
+import bio.overture.ego.model.dto.TransactionalGroupPermissionRequest;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.GroupPermission;
 import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.model.enums.AccessLevel;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.GroupPermissionBatchRepository;
 import bio.overture.ego.repository.GroupPermissionRepository;
+import bio.overture.ego.repository.PermissionBatchRepository;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table.Cell;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -35,16 +56,34 @@ public class GroupPermissionService
   private final GroupService groupService;
 
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final GroupPermissionBatchRepository groupPermissionBatchRepository;
+  private final ChangeLogService changeLogService;
+  private final SecondLevelCacheService secondLevelCacheService;
 
   @Autowired
   public GroupPermissionService(
       @NonNull GroupPermissionRepository repository,
+      @NonNull PermissionBatchRepository permissionBatchRepository,
       @NonNull GroupService groupService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
-    super(Group.class, GroupPermission.class, groupService, policyService, repository);
+      @NonNull GroupPermissionBatchRepository groupPermissionBatchRepository,
+      @NonNull PolicyService policyService,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
+    super(
+        Group.class,
+        GroupPermission.class,
+        groupService,
+        policyService,
+        repository,
+        permissionBatchRepository,
+        changeLogService,
+        secondLevelCacheService);
     this.groupService = groupService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.groupPermissionBatchRepository = groupPermissionBatchRepository;
+    this.changeLogService = changeLogService;
+    this.secondLevelCacheService = secondLevelCacheService;
   }
 
   /**
@@ -58,8 +97,8 @@ public class GroupPermissionService
   public Group addPermissions(
       @NonNull UUID groupId, @NonNull List<PermissionRequest> permissionRequests) {
     val group = super.addPermissions(groupId, permissionRequests);
-    val users = mapToImmutableSet(group.getUserGroups(), UserGroup::getUser);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
+    val userIds = mapToImmutableSet(group.getUserGroups(), ug -> ug.getId().getUserId());
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(userIds);
     return group;
   }
 
@@ -77,6 +116,89 @@ public class GroupPermissionService
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
   }
 
+  /**
+   * Ensures each named group has a permission on each named policy with the requested mask,
+   * creating whatever groups, policies and permissions are missing. When the same group and policy
+   * are requested more than once, the last mask wins. The api keys of the members of every group
+   * whose permissions changed are cleaned up once, after all permissions are applied.
+   *
+   * @param requests group name, policy name and mask of each permission
+   */
+  @Transactional
+  public void upsertPermissionsByName(@NonNull List<TransactionalGroupPermissionRequest> requests) {
+    requests.forEach(GroupPermissionService::checkTransactionalRequestValid);
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    val groupNames = uniqueNames(requests, TransactionalGroupPermissionRequest::getGroupName);
+    val createdGroupIds = groupPermissionBatchRepository.insertGroupsIgnoringExisting(groupNames);
+    val groupIds = groupPermissionBatchRepository.findGroupIdsByName(groupNames);
+
+    val policyNames = uniqueNames(requests, TransactionalGroupPermissionRequest::getPolicyName);
+    val createdPolicyIds =
+        groupPermissionBatchRepository.insertPoliciesIgnoringExisting(policyNames);
+    val policyIds = groupPermissionBatchRepository.findPolicyIdsByName(policyNames);
+
+    changeLogService.record(GROUP, createdGroupIds, CREATED);
+    changeLogService.record(POLICY, createdPolicyIds, CREATED);
+    if (!createdGroupIds.isEmpty() || !createdPolicyIds.isEmpty()) {
+      // Cached name lookups may hold an empty result for a name that now exists
+      secondLevelCacheService.evictQueryResults();
+    }
+
+    val masks = HashBasedTable.<UUID, UUID, AccessLevel>create();
+    for (val request : requests) {
+      masks.put(
+          resolveId(groupIds, request.getGroupName()),
+          resolveId(policyIds, request.getPolicyName()),
+          request.getMask());
+    }
+    val cells = masks.cellSet();
+    val changes =
+        groupPermissionBatchRepository.upsertPermissions(
+            mapToList(cells, Cell::getRowKey),
+            mapToList(cells, Cell::getColumnKey),
+            mapToList(cells, Cell::getValue));
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    secondLevelCacheService.evictEntities(GroupPermission.class);
+    secondLevelCacheService.evictCollectionsOf(
+        GroupPermission.class, concatToSet(changes.getGroupIds(), changes.getPolicyIds()));
+    changeLogService.record(GROUP, changes.getGroupIds(), PERMISSIONS_CHANGED);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(
+        groupPermissionBatchRepository.findMemberIdsWithApiKeys(changes.getGroupIds()));
+  }
+
+  /**
+   * Groups and policies missing from the batch are created as if by GroupService and PolicyService,
+   * so their names are checked against the same create requests
+   */
+  private static void checkTransactionalRequestValid(TransactionalGroupPermissionRequest request) {
+    checkMalformedRequest(
+        !isNullOrEmpty(request.getGroupName()), "A group name is required: %s", request);
+    checkRequestValid(GroupRequest.builder().name(request.getGroupName()).status(APPROVED).build());
+    checkRequestValid(PolicyRequest.builder().name(request.getPolicyName()).build());
+    checkMalformedRequest(request.getMask() != null, "A mask is required: %s", request);
+  }
+
+  /** Names are unique ignoring case, so only the first spelling of each is kept */
+  private static List<String> uniqueNames(
+      List<TransactionalGroupPermissionRequest> requests,
+      Function<TransactionalGroupPermissionRequest, String> getter) {
+    val names = new LinkedHashMap<String, String>();
+    requests.forEach(r -> names.putIfAbsent(getter.apply(r).toLowerCase(), getter.apply(r)));
+    return List.copyOf(names.values());
+  }
+
+  private static UUID resolveId(Map<String, UUID> idsByName, String name) {
+    val id = idsByName.get(name.toLowerCase());
+    checkState(id != null, "Could not resolve '%s' after creating it", name);
+    return id;
+  }
+
   @Override
   protected Collection<GroupPermission> getPermissionsFromOwner(@NonNull Group owner) {
     return owner.getPermissions();
@@ -91,13 +213,9 @@ public class GroupPermissionService
       @NonNull UUID policyId, List<SearchFilter> filters, @NonNull Pageable pageable) {
 
     val groupPermissions =
-        (Page<GroupPermission>)
-            getRepository().findAll(buildFilterSpecification(policyId, filters), pageable);
+        (Page<GroupPermission>) findAll(buildFilterSpecification(policyId, filters), pageable);
 
-    val responses =
-        groupPermissions.stream().map(this::convertToPolicyResponse).collect(toUnmodifiableList());
-
-    return new PageImpl<>(responses, pageable, groupPermissions.getTotalElements());
+    return groupPermissions.map(this::convertToPolicyResponse);
   }
 
   public Page<PolicyResponse> findGroupPermissionsByPolicy(
@@ -107,12 +225,8 @@ public class GroupPermissionService
       @NonNull Pageable pageable) {
     val groupPermissions =
         (Page<GroupPermission>)
-            getRepository()
-                .findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
-
-    val responses =
-        groupPermissions.stream().map(this::convertToPolicyResponse).collect(toUnmodifiableList());
+            findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
 
-    return new PageImpl<>(responses, pageable, groupPermissions.getTotalElements());
+    return groupPermissions.map(this::convertToPolicyResponse);
   }
 }
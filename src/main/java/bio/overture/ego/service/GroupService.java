@@ -16,14 +16,21 @@
 
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeEntityType.GROUP;
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeType.APPLICATIONS_CHANGED;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.ChangeType.DELETED;
+import static bio.overture.ego.model.enums.ChangeType.MEMBERSHIP_CHANGED;
+import static bio.overture.ego.model.enums.ChangeType.UPDATED;
 import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
+import static bio.overture.ego.utils.CollectionUtils.concatToSet;
 import static bio.overture.ego.utils.CollectionUtils.difference;
 import static bio.overture.ego.utils.CollectionUtils.intersection;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
-import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.Converters.convertToGroupApplication;
 import static bio.overture.ego.utils.Converters.convertToIds;
@@ -38,24 +45,27 @@ import static org.springframework.data.jpa.domain.Specification.where;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
 import bio.overture.ego.model.dto.GroupRequest;
+import bio.overture.ego.model.dto.MembershipSyncResponse;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.GroupPermission;
 import bio.overture.ego.model.entity.User;
-import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.EntityDeleteRepository;
 import bio.overture.ego.repository.GroupRepository;
 import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.GroupMembershipSyncRepository;
 import bio.overture.ego.repository.queryspecification.GroupSpecification;
 import bio.overture.ego.repository.queryspecification.builder.GroupSpecificationBuilder;
 import bio.overture.ego.utils.EntityServices;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import javax.transaction.Transactional;
 import lombok.NonNull;
 import lombok.val;
 import org.mapstruct.Mapper;
@@ -67,6 +77,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
@@ -75,24 +86,38 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
   /** Constants */
   private static final GroupConverter GROUP_CONVERTER = getMapper(GroupConverter.class);
 
+  private static final int MAX_REPORTED_UNKNOWN_USERS = 100;
+
   /** Dependencies */
   private final GroupRepository groupRepository;
 
   private final UserRepository userRepository;
+  private final GroupMembershipSyncRepository membershipSyncRepository;
+  private final EntityDeleteRepository entityDeleteRepository;
   private final ApplicationService applicationService;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final ChangeLogService changeLogService;
+  private final SecondLevelCacheService secondLevelCacheService;
 
   @Autowired
   public GroupService(
       @NonNull GroupRepository groupRepository,
       @NonNull UserRepository userRepository,
+      @NonNull GroupMembershipSyncRepository membershipSyncRepository,
+      @NonNull EntityDeleteRepository entityDeleteRepository,
       @NonNull ApplicationService applicationService,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
     super(Group.class, groupRepository);
     this.groupRepository = groupRepository;
     this.applicationService = applicationService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
     this.userRepository = userRepository;
+    this.membershipSyncRepository = membershipSyncRepository;
+    this.entityDeleteRepository = entityDeleteRepository;
+    this.changeLogService = changeLogService;
+    this.secondLevelCacheService = secondLevelCacheService;
   }
 
   @SuppressWarnings("unchecked")
@@ -108,35 +133,36 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
                     .buildByNameIgnoreCase(name));
   }
 
-  public Group getGroupByNameCreateIfNecessary(String name) {
-    val group = findByName(name);
-
-    if (group.isPresent()) {
-      return group.get();
-    }
-
-    return create(new GroupRequest(name, "", StatusType.APPROVED));
-  }
-
   public Group create(@NonNull GroupRequest request) {
     validateCreateRequest(request);
     val group = GROUP_CONVERTER.convertToGroup(request);
-    return getRepository().save(group);
+    val savedGroup = getRepository().save(group);
+    changeLogService.record(GROUP, savedGroup.getId(), CREATED);
+    return savedGroup;
   }
 
   /**
    * Decorate the delete method for group's users to also trigger a token check after group delete.
+   * The group is deleted without loading its members, then the api keys of former members are
+   * rechecked, since their scopes may have come from the group's permissions.
    *
    * @param groupId The ID of the group to be deleted.
    */
   @Override
   public void delete(@NonNull UUID groupId) {
-    val group = getWithRelationships(groupId);
-    val users = mapToSet(group.getUserGroups(), UserGroup::getUser);
-    disassociateAllUsersFromGroup(group);
-    disassociateAllApplicationsFromGroup(group);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
-    getRepository().delete(group);
+    checkExistence(groupId);
+    val deleted = entityDeleteRepository.deleteGroup(groupId);
+    secondLevelCacheService.evictDeletedEntity(Group.class, groupId);
+    secondLevelCacheService.evictEntities(GroupPermission.class);
+    secondLevelCacheService.evictCollectionsOf(
+        GroupPermission.class, concatToSet(deleted.getPolicyIds(), ImmutableSet.of(groupId)));
+    changeLogService.record(USER, deleted.getUserIds(), MEMBERSHIP_CHANGED);
+    changeLogService.record(GROUP, groupId, DELETED);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(deleted.getUserIdsWithApiKeys());
+  }
+
+  public Optional<UUID> findIdByName(@NonNull String name) {
+    return groupRepository.findIdByNameIgnoreCase(name);
   }
 
   public Group getWithRelationships(@NonNull UUID id) {
@@ -180,6 +206,8 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             .collect(toImmutableSet());
 
     disassociateUserGroupsFromGroup(groupWithUserGroups, userGroupsToDisassociate);
+    changeLogService.record(GROUP, id, MEMBERSHIP_CHANGED);
+    changeLogService.record(USER, userIdsToDisassociate, MEMBERSHIP_CHANGED);
 
     // Only request cleanup check for disassociated users
     val usersToCheck =
@@ -216,31 +244,69 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
     nonAssociatedUsers.stream()
         .map(u -> convertToUserGroup(u, groupWithUserGroups))
         .forEach(UserGroupService::associateSelf);
+    changeLogService.record(GROUP, id, MEMBERSHIP_CHANGED);
+    changeLogService.record(USER, convertToIds(nonAssociatedUsers), MEMBERSHIP_CHANGED);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(nonAssociatedUsers);
     return groupWithUserGroups;
   }
 
+  /**
+   * Makes the given user ids the exact membership of the group. The ids are streamed into the
+   * database, where the memberships to add and remove are computed and applied as set operations,
+   * so neither membership has to be loaded. Only changed users that own api keys are checked for
+   * api key cleanup, in a single request.
+   */
+  public MembershipSyncResponse replaceUsersOfGroup(
+      @NonNull UUID id, @NonNull Iterator<UUID> userIds) {
+    checkExistence(id);
+    membershipSyncRepository.stageUserIds(userIds);
+
+    val unknownUserIds =
+        membershipSyncRepository.findUnknownStagedUserIds(MAX_REPORTED_UNKNOWN_USERS);
+    checkNotFound(
+        unknownUserIds.isEmpty(),
+        "The following %s ids do not exist: [%s]",
+        User.class.getSimpleName(),
+        PRETTY_COMMA.join(unknownUserIds));
+
+    val changes = membershipSyncRepository.replaceGroupUsers(id);
+    val changedUserIds = concatToSet(changes.getAddedUserIds(), changes.getRemovedUserIds());
+    if (!changedUserIds.isEmpty()) {
+      changeLogService.record(GROUP, id, MEMBERSHIP_CHANGED);
+      changeLogService.record(USER, changedUserIds, MEMBERSHIP_CHANGED);
+    }
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(changes.getUserIdsWithApiKeys());
+    return MembershipSyncResponse.builder()
+        .groupId(id)
+        .added(changes.getAddedUserIds().size())
+        .removed(changes.getRemovedUserIds().size())
+        .build();
+  }
+
   public Group partialUpdate(@NonNull UUID id, @NonNull GroupRequest r) {
     val group = getById(id);
     validateUpdateRequest(group, r);
     GROUP_CONVERTER.updateGroup(r, group);
+    changeLogService.record(GROUP, id, UPDATED);
     return getRepository().save(group);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> listGroups(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository().findAll(GroupSpecification.filterBy(filters), pageable);
+    return findAll(GroupSpecification.filterBy(filters), pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> findGroups(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository()
-        .findAll(
-            where(GroupSpecification.containsText(query)).and(GroupSpecification.filterBy(filters)),
-            pageable);
+    return findAll(
+        where(GroupSpecification.containsText(query)).and(GroupSpecification.filterBy(filters)),
+        pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> findGroupsForUser(
       @NonNull UUID userId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -252,6 +318,7 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> findGroupsForUser(
       @NonNull UUID userId,
@@ -267,6 +334,7 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> findGroupsForApplication(
       @NonNull UUID appId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -278,6 +346,7 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<Group> findGroupsForApplication(
       @NonNull UUID appId,
@@ -324,6 +393,7 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
     nonAssociatedApplications.stream()
         .map(a -> convertToGroupApplication(groupWithApplications, a))
         .forEach(GroupService::associateSelf);
+    changeLogService.record(GROUP, id, APPLICATIONS_CHANGED);
     return groupWithApplications;
   }
 
@@ -360,6 +430,7 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             .collect(toImmutableSet());
 
     disassociateGroupApplicationsFromGroup(groupWithApplications, groupApplicationsToDisassociate);
+    changeLogService.record(GROUP, id, APPLICATIONS_CHANGED);
   }
 
   @SuppressWarnings("unchecked")
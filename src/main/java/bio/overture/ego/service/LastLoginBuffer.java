@@ -0,0 +1,90 @@
+package bio.overture.ego.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import bio.overture.ego.repository.UserLoginRepository;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects user login times in memory and writes them in batches, so logins do not each update
+ * their user row. Repeated logins of a user between flushes coalesce into the latest one. Login
+ * times still buffered when the process dies are lost, which only leaves lastLogin behind by at
+ * most one flush interval.
+ */
+@Slf4j
+@Component
+public class LastLoginBuffer implements DisposableBean {
+
+  /** Constants */
+  private static final int BATCH_SIZE = 1000;
+
+  /** Dependencies */
+  private final UserLoginRepository userLoginRepository;
+
+  private final Map<UUID, Date> pending = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+
+  @Autowired
+  public LastLoginBuffer(
+      @NonNull UserLoginRepository userLoginRepository,
+      @Value("${login.lastLogin.flushIntervalMs:5000}") long flushIntervalMs) {
+    this.userLoginRepository = userLoginRepository;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              final Thread thread = new Thread(r, "last-login-flush");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, MILLISECONDS);
+  }
+
+  public void record(@NonNull UUID userId, @NonNull Date loginTime) {
+    pending.merge(userId, loginTime, (a, b) -> a.after(b) ? a : b);
+  }
+
+  /** Writes every buffered login time. A failed batch is put back to be retried next time. */
+  public synchronized void flush() {
+    while (!pending.isEmpty()) {
+      val batch = new HashMap<UUID, Date>();
+      for (val userId : pending.keySet()) {
+        val loginTime = pending.remove(userId);
+        if (loginTime != null) {
+          batch.put(userId, loginTime);
+        }
+        if (batch.size() == BATCH_SIZE) {
+          break;
+        }
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        userLoginRepository.updateLastLogins(batch);
+      } catch (RuntimeException e) {
+        log.warn("Failed to write {} last login times: {}", batch.size(), e.getMessage());
+        batch.forEach(this::record);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdown();
+    flush();
+  }
+}
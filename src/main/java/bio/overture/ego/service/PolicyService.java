@@ -1,23 +1,30 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeEntityType.POLICY;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.ChangeType.DELETED;
+import static bio.overture.ego.model.enums.ChangeType.UPDATED;
 import static bio.overture.ego.model.enums.JavaFields.ID;
 import static bio.overture.ego.model.enums.JavaFields.PERMISSIONS;
 import static bio.overture.ego.model.enums.JavaFields.USERPERMISSIONS;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
+import static bio.overture.ego.utils.CollectionUtils.concatToSet;
 import static bio.overture.ego.utils.FieldUtils.onUpdateDetected;
 import static javax.persistence.criteria.JoinType.LEFT;
 import static org.mapstruct.factory.Mappers.getMapper;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
 import bio.overture.ego.model.dto.PolicyRequest;
-import bio.overture.ego.model.entity.ApiKeyScope;
+import bio.overture.ego.model.entity.ApplicationPermission;
+import bio.overture.ego.model.entity.GroupPermission;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.EntityDeleteRepository;
 import bio.overture.ego.repository.PolicyRepository;
 import bio.overture.ego.repository.queryspecification.PolicySpecification;
-import bio.overture.ego.utils.Collectors;
+import com.google.common.collect.ImmutableSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -47,29 +54,32 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
   /** Dependencies */
   private final PolicyRepository policyRepository;
 
+  private final EntityDeleteRepository entityDeleteRepository;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final ChangeLogService changeLogService;
+  private final SecondLevelCacheService secondLevelCacheService;
 
   @Autowired
   public PolicyService(
       @NonNull PolicyRepository policyRepository,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull EntityDeleteRepository entityDeleteRepository,
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
     super(Policy.class, policyRepository);
     this.policyRepository = policyRepository;
+    this.entityDeleteRepository = entityDeleteRepository;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.changeLogService = changeLogService;
+    this.secondLevelCacheService = secondLevelCacheService;
   }
 
   public Policy create(@NonNull PolicyRequest createRequest) {
     validateCreateRequest(createRequest);
     val policy = POLICY_CONVERTER.convertToPolicy(createRequest);
-    return getRepository().save(policy);
-  }
-
-  public Policy getPolicyByNameCreateIfNecessary(String name) {
-    val policy = policyRepository.getPolicyByNameIgnoreCase(name);
-    if (policy.isPresent()) {
-      return policy.get();
-    }
-    return create(new PolicyRequest(name));
+    val savedPolicy = getRepository().save(policy);
+    changeLogService.record(POLICY, savedPolicy.getId(), CREATED);
+    return savedPolicy;
   }
 
   @Override
@@ -81,26 +91,31 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
 
   public void delete(@NonNull UUID id) {
     checkExistence(id);
-    val policy = this.getById(id);
+    val deleted = entityDeleteRepository.deletePolicy(id);
+    secondLevelCacheService.evictDeletedEntity(Policy.class, id);
+    secondLevelCacheService.evictEntities(GroupPermission.class);
+    secondLevelCacheService.evictEntities(ApplicationPermission.class);
+    secondLevelCacheService.evictCollectionsOf(
+        GroupPermission.class, concatToSet(deleted.getGroupIds(), ImmutableSet.of(id)));
+    secondLevelCacheService.evictCollectionsOf(
+        ApplicationPermission.class, concatToSet(deleted.getApplicationIds(), ImmutableSet.of(id)));
+    changeLogService.record(POLICY, id, DELETED);
 
     // For semantic/readability reasons, revoke api keys AFTER policy is deleted.
-    val apiKeysToRevoke =
-        policy.getApiKeyScopes().stream()
-            .map(ApiKeyScope::getToken)
-            .collect(Collectors.toImmutableSet());
-    super.delete(id);
-    apiKeyEventsPublisher.requestApiKeyCleanup(apiKeysToRevoke);
+    apiKeyEventsPublisher.requestApiKeyRevocation(deleted.getApiKeyIds());
   }
 
+  @Transactional(readOnly = true)
   public Page<Policy> listPolicies(
       @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return policyRepository.findAll(PolicySpecification.filterBy(filters), pageable);
+    return findAll(PolicySpecification.filterBy(filters), pageable);
   }
 
   public Policy partialUpdate(@NonNull UUID id, @NonNull PolicyRequest updateRequest) {
     val policy = getById(id);
     validateUpdateRequest(policy, updateRequest);
     POLICY_CONVERTER.updatePolicy(updateRequest, policy);
+    changeLogService.record(POLICY, id, UPDATED);
     return getRepository().save(policy);
   }
 
@@ -0,0 +1,102 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.utils.Collectors.toImmutableList;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import lombok.NonNull;
+import lombok.val;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+/**
+ * Evicts cached permission collections that Hibernate cannot keep consistent on its own. Permission
+ * rows are mapped from both their owner and their policy, and deleting one side (or deleting a
+ * permission without detaching it from both parents) leaves the other parent's cached collection
+ * pointing at rows that no longer exist. Rows deleted with plain SQL are invisible to Hibernate
+ * altogether, so their cached entities and query results must be evicted as well. Evictions run
+ * immediately and again after commit, so a concurrent reader cannot re-populate the cache with
+ * pre-commit state.
+ */
+@Service
+public class SecondLevelCacheService {
+
+  /** Dependencies */
+  private final SessionFactoryImplementor sessionFactory;
+
+  @Autowired
+  public SecondLevelCacheService(@NonNull EntityManagerFactory entityManagerFactory) {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+  }
+
+  /** Evicts, for the given owner ids, every cached collection whose elements are elementType. */
+  public void evictCollectionsOf(
+      @NonNull Class<?> elementType, @NonNull Collection<UUID> collectionOwnerIds) {
+    if (collectionOwnerIds.isEmpty()) {
+      return;
+    }
+    val roles = resolveCachedRoles(elementType);
+    runNowAndAfterCommit(
+        () ->
+            roles.forEach(
+                role ->
+                    collectionOwnerIds.forEach(
+                        id -> sessionFactory.getCache().evictCollectionData(role, id))));
+  }
+
+  /** Evicts the whole region of every cached collection whose elements are elementType. */
+  public void evictCollectionsOf(@NonNull Class<?> elementType) {
+    val roles = resolveCachedRoles(elementType);
+    runNowAndAfterCommit(() -> roles.forEach(sessionFactory.getCache()::evictCollectionData));
+  }
+
+  /**
+   * Evicts an entity deleted with SQL that bypassed Hibernate, along with all cached query results,
+   * which Hibernate only invalidates for its own writes.
+   */
+  public void evictDeletedEntity(@NonNull Class<?> entityType, @NonNull UUID id) {
+    runNowAndAfterCommit(
+        () -> {
+          sessionFactory.getCache().evictEntityData(entityType, id);
+          sessionFactory.getCache().evictQueryRegions();
+        });
+  }
+
+  /** Evicts every cached entity of the given type, for rows removed with SQL by another key */
+  public void evictEntities(@NonNull Class<?> entityType) {
+    runNowAndAfterCommit(() -> sessionFactory.getCache().evictEntityData(entityType));
+  }
+
+  /** Evicts all cached query results, after rows they may have missed were inserted with SQL */
+  public void evictQueryResults() {
+    runNowAndAfterCommit(() -> sessionFactory.getCache().evictQueryRegions());
+  }
+
+  private List<String> resolveCachedRoles(Class<?> elementType) {
+    return sessionFactory.getMetamodel().collectionPersisters().values().stream()
+        .filter(CollectionPersister::hasCache)
+        .filter(p -> elementType.equals(p.getElementType().getReturnedClass()))
+        .map(CollectionPersister::getRole)
+        .collect(toImmutableList());
+  }
+
+  private static void runNowAndAfterCommit(Runnable eviction) {
+    eviction.run();
+    if (isSynchronizationActive()) {
+      registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              eviction.run();
+            }
+          });
+    }
+  }
+}
@@ -19,6 +19,8 @@ package bio.overture.ego.service;
 import static bio.overture.ego.model.dto.Scope.effectiveScopes;
 import static bio.overture.ego.model.dto.Scope.explicitScopes;
 import static bio.overture.ego.model.enums.ApplicationType.ADMIN;
+import static bio.overture.ego.model.enums.ChangeEntityType.API_KEY;
+import static bio.overture.ego.model.enums.ChangeType.REVOKED;
 import static bio.overture.ego.service.ApplicationService.extractScopes;
 import static bio.overture.ego.service.UserService.extractScopes;
 import static bio.overture.ego.utils.CollectionUtils.mapToSet;
@@ -75,11 +77,11 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 // TODO: rename to ApiKeyService [anncatton]
@@ -100,7 +102,9 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
   private final ApplicationService applicationService;
   private final ApiKeyStoreService apiKeyStoreService;
   private final PolicyService policyService;
+  private final TokenStoreRepository tokenStoreRepository;
   private final UserRepository userRepository;
+  private final ChangeLogService changeLogService;
 
   /** Configuration */
   private final int userJwtDuration;
@@ -117,6 +121,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
       @NonNull PolicyService policyService,
       @NonNull TokenStoreRepository tokenStoreRepository,
       @NonNull UserRepository userRepository,
+      @NonNull ChangeLogService changeLogService,
       @Value("${jwt.user.durationMs:10800000}") int userJwtDuration,
       @Value("${jwt.app.durationMs:10800000}") int appJwtDuration,
       @Value("${apitoken.durationDays:365}") int apiTokenDuration) {
@@ -126,7 +131,9 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     this.applicationService = applicationService;
     this.apiKeyStoreService = apiKeyStoreService;
     this.policyService = policyService;
+    this.tokenStoreRepository = tokenStoreRepository;
     this.userRepository = userRepository;
+    this.changeLogService = changeLogService;
     this.userJwtDuration = userJwtDuration;
     this.appJwtDuration = appJwtDuration;
     this.apiTokenDuration = apiTokenDuration;
@@ -137,11 +144,14 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     return apiKeyStoreService.getWithRelationships(id);
   }
 
+  /** One transaction, so the user's relationships load lazily while the claims are built */
+  @Transactional
   public String generateUserToken(IDToken idToken) {
     val user = userService.getUserByToken(idToken);
     return generateUserToken(user);
   }
 
+  @Transactional(readOnly = true)
   public String updateUserToken(String accessToken) {
     Jws<Claims> decodedToken = validateAndReturn(accessToken);
 
@@ -158,6 +168,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     return getSignedToken(tokenClaims);
   }
 
+  @Transactional(readOnly = true)
   public UserTokenClaims getUserTokenClaims(@NonNull User u) {
     return generateUserTokenClaims(u, extractExplicitScopes(u));
   }
@@ -395,6 +406,9 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     }
   }
 
+  // Not read-only, so it reads the primary: a replica could still report a just revoked key as
+  // valid until it catches up
+  @Transactional
   @SneakyThrows
   public ApiKeyScopeResponse checkApiKey(final String apiKey) {
     if (apiKey == null) {
@@ -422,6 +436,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     return new ApiKeyScopeResponse(owner.getId(), aK.getSecondsUntilExpiry(), scopeNames);
   }
 
+  @Transactional(readOnly = true)
   public UserScopesResponse userScopes(@NonNull UUID userId) {
     val user = userService.getById(userId);
     val scopes = extractScopes(user);
@@ -430,6 +445,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     return new UserScopesResponse(names);
   }
 
+  @Transactional
   public void revokeApiKey(@NonNull String apiKeyName) {
     validateApiKeyName(apiKeyName);
     val principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -484,6 +500,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     }
   }
 
+  @Transactional
   public void revoke(String apiKey) {
     val currentApiKey =
         findByApiKeyString(apiKey)
@@ -493,6 +510,20 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     }
     currentApiKey.setRevoked(true);
     getRepository().save(currentApiKey);
+    changeLogService.record(API_KEY, currentApiKey.getId(), REVOKED);
+  }
+
+  /** Revokes the api keys that are not revoked yet, without loading them */
+  @Transactional
+  public void revokeApiKeys(@NonNull Collection<UUID> apiKeyIds) {
+    if (apiKeyIds.isEmpty()) {
+      return;
+    }
+    val unrevokedIds = tokenStoreRepository.findUnrevokedIds(apiKeyIds);
+    if (!unrevokedIds.isEmpty()) {
+      tokenStoreRepository.revokeAllByIdIn(unrevokedIds);
+      changeLogService.record(API_KEY, unrevokedIds, REVOKED);
+    }
   }
 
   public List<ApiKeyResponse> listApiKey(@NonNull UUID userId) {
@@ -502,47 +533,36 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
         .collect(Collectors.toList());
   }
 
+  @Transactional(readOnly = true)
   public Page<ApiKeyResponse> listApiKeysForUser(
       @NonNull UUID userId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
 
     checkEntityExistence(User.class, userRepository, userId);
 
     val apiKeys =
-        (Page<ApiKey>)
-            getRepository()
-                .findAll(
-                    where(TokenStoreSpecification.containsUser(userId))
-                        .and(TokenStoreSpecification.filterBy(filters)),
-                    pageable);
-
-    val apiKeyResponses =
-        ImmutableList.copyOf(apiKeys).stream()
-            .map(this::createApiKeyResponse)
-            .collect(Collectors.toList());
+        findAll(
+            where(TokenStoreSpecification.containsUser(userId))
+                .and(TokenStoreSpecification.filterBy(filters)),
+            pageable);
 
-    return new PageImpl<>(apiKeyResponses, pageable, apiKeys.getTotalElements());
+    return apiKeys.map(this::createApiKeyResponse);
   }
 
+  @Transactional(readOnly = true)
   public Page<ApiKeyResponse> findApiKeysForUser(
       @NonNull UUID userId, String query, List<SearchFilter> filters, @NonNull Pageable pageable) {
     checkEntityExistence(User.class, userRepository, userId);
     val apiKeys =
-        (Page<ApiKey>)
-            getRepository()
-                .findAll(
-                    where(TokenStoreSpecification.containsUser(userId))
-                        .and(TokenStoreSpecification.containsText(query))
-                        .and(TokenStoreSpecification.filterBy(filters)),
-                    pageable);
-
-    val apiKeyResponses =
-        ImmutableList.copyOf(apiKeys).stream()
-            .map(this::createApiKeyResponse)
-            .collect(Collectors.toList());
+        findAll(
+            where(TokenStoreSpecification.containsUser(userId))
+                .and(TokenStoreSpecification.containsText(query))
+                .and(TokenStoreSpecification.filterBy(filters)),
+            pageable);
 
-    return new PageImpl<>(apiKeyResponses, pageable, apiKeys.getTotalElements());
+    return apiKeys.map(this::createApiKeyResponse);
   }
   /** DEPRECATED: To be removed in next major release */
+  @Transactional(readOnly = true)
   @Deprecated
   public List<TokenResponse> listTokens(@NonNull UUID userId) {
     return getApiKeysForUser(userId).stream()
@@ -0,0 +1,156 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.StatusType.APPROVED;
+import static bio.overture.ego.model.enums.UserImportStatus.FAILED;
+import static bio.overture.ego.model.enums.UserImportStatus.SKIPPED;
+import static bio.overture.ego.model.enums.UserType.ADMIN;
+import static bio.overture.ego.service.UserService.checkCreateRequestValid;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+
+import bio.overture.ego.config.UserDefaultsConfig;
+import bio.overture.ego.model.domain.UserImportRow;
+import bio.overture.ego.model.dto.UserImportResult;
+import bio.overture.ego.model.dto.UserImportSummary;
+import bio.overture.ego.model.enums.UserImportStatus;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.model.exceptions.RequestValidationException;
+import bio.overture.ego.repository.UserImportRepository;
+import bio.overture.ego.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates users in bulk from a stream of rows. Rows are validated as they are read and written in
+ * batches, each batch in its own transaction, so memory use does not grow with the input and a bad
+ * row only affects itself. Every row that does not create a user is reported as soon as its outcome
+ * is known.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+  /** Constants */
+  private static final int BATCH_SIZE = 1000;
+
+  private static final String ALREADY_EXISTS_MESSAGE =
+      "A user with the same provider info already exists";
+
+  /** Dependencies */
+  private final UserImportRepository userImportRepository;
+
+  private final UserRepository userRepository;
+  private final ChangeLogService changeLogService;
+  private final TransactionTemplate transactionTemplate;
+
+  /** Configuration */
+  private final UserDefaultsConfig userDefaultsConfig;
+
+  @Autowired
+  public UserImportService(
+      @NonNull UserImportRepository userImportRepository,
+      @NonNull UserRepository userRepository,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull TransactionTemplate transactionTemplate,
+      @NonNull UserDefaultsConfig userDefaultsConfig) {
+    this.userImportRepository = userImportRepository;
+    this.userRepository = userRepository;
+    this.changeLogService = changeLogService;
+    this.transactionTemplate = transactionTemplate;
+    this.userDefaultsConfig = userDefaultsConfig;
+  }
+
+  public UserImportSummary importUsers(
+      @NonNull Iterator<UserImportRow> rows, @NonNull Consumer<UserImportResult> reporter) {
+    val summary = new UserImportSummary();
+    val batch = new ArrayList<UserImportRow>(BATCH_SIZE);
+    boolean firstBatch = true;
+    while (rows.hasNext()) {
+      val row = rows.next();
+      val error = row.isReadable() ? validate(row) : row.getError();
+      if (error != null) {
+        summary.setFailed(summary.getFailed() + 1);
+        reporter.accept(result(row, FAILED, error));
+        continue;
+      }
+      batch.add(row);
+      if (batch.size() == BATCH_SIZE) {
+        writeBatch(batch, firstBatch, summary, reporter);
+        firstBatch = false;
+      }
+    }
+    writeBatch(batch, firstBatch, summary, reporter);
+    log.info(
+        "Imported {} users, skipped {} existing and rejected {} invalid rows",
+        summary.getImported(),
+        summary.getSkipped(),
+        summary.getFailed());
+    return summary;
+  }
+
+  private void writeBatch(
+      List<UserImportRow> batch,
+      boolean firstBatch,
+      UserImportSummary summary,
+      Consumer<UserImportResult> reporter) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    val ids = mapToList(batch, r -> UUID.randomUUID());
+    final Set<UUID> inserted =
+        transactionTemplate.execute(
+            status -> {
+              if (firstBatch) {
+                applyFirstUserDefaults(batch);
+              }
+              final Set<UUID> insertedIds =
+                  userImportRepository.insertIgnoringExisting(
+                      ids, mapToList(batch, UserImportRow::getRequest));
+              changeLogService.record(USER, insertedIds, CREATED);
+              return insertedIds;
+            });
+
+    for (int i = 0; i < batch.size(); i++) {
+      if (!inserted.contains(ids.get(i))) {
+        reporter.accept(result(batch.get(i), SKIPPED, ALREADY_EXISTS_MESSAGE));
+      }
+    }
+    summary.setImported(summary.getImported() + inserted.size());
+    summary.setSkipped(summary.getSkipped() + batch.size() - inserted.size());
+    batch.clear();
+  }
+
+  /** Same rule as single user creation: the first user of an empty instance becomes an admin */
+  private void applyFirstUserDefaults(List<UserImportRow> batch) {
+    if (userDefaultsConfig.isFirstUserAsAdmin() && userRepository.findFirstBy() == null) {
+      val request = batch.get(0).getRequest();
+      request.setType(ADMIN);
+      request.setStatus(APPROVED);
+    }
+  }
+
+  private static String validate(UserImportRow row) {
+    try {
+      checkCreateRequestValid(row.getRequest());
+      return null;
+    } catch (RequestValidationException | MalformedRequestException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static UserImportResult result(
+      UserImportRow row, UserImportStatus status, String message) {
+    return UserImportResult.builder().line(row.getLine()).status(status).message(message).build();
+  }
+}
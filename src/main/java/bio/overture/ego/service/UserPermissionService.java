@@ -3,10 +3,12 @@ package bio.overture.ego.service;
 import static bio.overture.ego.repository.queryspecification.UserPermissionSpecification.buildFilterAndQuerySpecification;
 import static bio.overture.ego.repository.queryspecification.UserPermissionSpecification.buildFilterSpecification;
 import static bio.overture.ego.utils.CollectionUtils.mapToList;
-import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.lang.Math.min;
+import static java.util.Objects.isNull;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
+import bio.overture.ego.model.dto.KeysetPageDTO;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.dto.ResolvedPermissionResponse;
@@ -14,21 +16,25 @@ import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.entity.UserPermission;
+import bio.overture.ego.model.enums.AccessLevel;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.PermissionBatchRepository;
 import bio.overture.ego.repository.UserPermissionRepository;
+import bio.overture.ego.repository.projection.EffectiveUserAccess;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
@@ -36,19 +42,40 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class UserPermissionService extends AbstractPermissionService<User, UserPermission> {
 
+  /** Constants */
+  public static final int DEFAULT_EFFECTIVE_ACCESS_LIMIT = 100;
+
+  private static final int MAX_EFFECTIVE_ACCESS_LIMIT = 1000;
+  private static final UUID MIN_UUID = new UUID(0L, 0L);
+
   /** Dependencies */
   private final UserService userService;
 
+  private final PolicyService policyService;
+  private final UserPermissionRepository userPermissionRepository;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
 
   @Autowired
   public UserPermissionService(
       @NonNull UserPermissionRepository repository,
+      @NonNull PermissionBatchRepository permissionBatchRepository,
       @NonNull UserService userService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
-    super(User.class, UserPermission.class, userService, policyService, repository);
+      @NonNull PolicyService policyService,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull SecondLevelCacheService secondLevelCacheService) {
+    super(
+        User.class,
+        UserPermission.class,
+        userService,
+        policyService,
+        repository,
+        permissionBatchRepository,
+        changeLogService,
+        secondLevelCacheService);
     this.userService = userService;
+    this.policyService = policyService;
+    this.userPermissionRepository = repository;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
   }
 
@@ -68,13 +95,9 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
     // otherwise will experience N+1 query problem
 
     val userPermissions =
-        (Page<UserPermission>)
-            getRepository().findAll(buildFilterSpecification(policyId, filters), pageable);
+        (Page<UserPermission>) findAll(buildFilterSpecification(policyId, filters), pageable);
 
-    val responses =
-        userPermissions.stream().map(this::convertToPolicyResponse).collect(toUnmodifiableList());
-
-    return new PageImpl<>(responses, pageable, userPermissions.getTotalElements());
+    return userPermissions.map(this::convertToPolicyResponse);
   }
 
   public Page<PolicyResponse> findUserPermissionsByPolicy(
@@ -88,13 +111,61 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
     // otherwise will experience N+1 query problem
     val userPermissions =
         (Page<UserPermission>)
-            getRepository()
-                .findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
+            findAll(buildFilterAndQuerySpecification(policyId, filters, query), pageable);
 
-    val responses =
-        userPermissions.stream().map(this::convertToPolicyResponse).collect(toUnmodifiableList());
+    return userPermissions.map(this::convertToPolicyResponse);
+  }
 
-    return new PageImpl<>(responses, pageable, userPermissions.getTotalElements());
+  /**
+   * Lists every user with access to the policy, through a direct grant or through a group, with
+   * their resolved access level. Paginated by keyset on the user id so deep pages cost the same as
+   * the first one.
+   *
+   * @param after user id returned as {@code next} by the previous page, or null for the first page
+   */
+  @Transactional(readOnly = true)
+  public KeysetPageDTO<PolicyResponse> listEffectiveUserAccess(
+      @NonNull UUID policyId, UUID after, int limit) {
+    policyService.checkExistence(policyId);
+    val pageSize =
+        limit <= 0 ? DEFAULT_EFFECTIVE_ACCESS_LIMIT : min(limit, MAX_EFFECTIVE_ACCESS_LIMIT);
+    val rows = findEffectiveUserAccess(policyId, after, pageSize);
+    val next = rows.size() < pageSize ? null : rows.get(rows.size() - 1).getUserId();
+    return new KeysetPageDTO<>(
+        pageSize, next, mapToList(rows, UserPermissionService::convertToPolicyResponse));
+  }
+
+  /**
+   * Walks the effective access of a policy page by page, handing each user to the consumer. Only
+   * one page is held in memory at a time, and the repeatable read transaction gives the whole walk
+   * a single consistent snapshot.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public void forEachEffectiveUserAccess(
+      @NonNull UUID policyId, @NonNull Consumer<PolicyResponse> consumer) {
+    policyService.checkExistence(policyId);
+    UUID after = null;
+    List<EffectiveUserAccess> rows;
+    do {
+      rows = findEffectiveUserAccess(policyId, after, MAX_EFFECTIVE_ACCESS_LIMIT);
+      rows.stream().map(UserPermissionService::convertToPolicyResponse).forEach(consumer);
+      if (!rows.isEmpty()) {
+        after = UUID.fromString(rows.get(rows.size() - 1).getUserId());
+      }
+    } while (rows.size() == MAX_EFFECTIVE_ACCESS_LIMIT);
+  }
+
+  private List<EffectiveUserAccess> findEffectiveUserAccess(UUID policyId, UUID after, int limit) {
+    return userPermissionRepository.findEffectiveAccessByPolicy(
+        policyId, isNull(after) ? MIN_UUID : after, limit);
+  }
+
+  private static PolicyResponse convertToPolicyResponse(@NonNull EffectiveUserAccess access) {
+    return PolicyResponse.builder()
+        .id(access.getUserId())
+        .name(access.getName())
+        .mask(AccessLevel.fromValue(access.getAccessLevel()))
+        .build();
   }
 
   /**
@@ -108,7 +179,7 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
   public User addPermissions(
       @NonNull UUID userId, @NonNull List<PermissionRequest> permissionRequests) {
     val user = super.addPermissions(userId, permissionRequests);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userService.getById(userId)));
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(ImmutableSet.of(userId));
     return user;
   }
 
@@ -16,6 +16,15 @@
 
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.domain.UserFetchPlan.ALL_RELATIONSHIPS;
+import static bio.overture.ego.model.enums.ChangeEntityType.GROUP;
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeType.APPLICATIONS_CHANGED;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.ChangeType.DELETED;
+import static bio.overture.ego.model.enums.ChangeType.MEMBERSHIP_CHANGED;
+import static bio.overture.ego.model.enums.ChangeType.UPDATED;
+import static bio.overture.ego.model.enums.FetchStrategy.SINGLE_QUERY;
 import static bio.overture.ego.model.enums.UserType.ADMIN;
 import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
 import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
@@ -28,13 +37,16 @@ import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.Converters.*;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.EntityServices.getManyEntities;
+import static bio.overture.ego.utils.EntityServices.partitionIds;
 import static bio.overture.ego.utils.Ids.checkDuplicates;
 import static bio.overture.ego.utils.Joiners.PRETTY_COMMA;
 import static java.util.Objects.isNull;
 import static org.springframework.data.jpa.domain.Specification.where;
 
 import bio.overture.ego.config.UserDefaultsConfig;
+import bio.overture.ego.event.auth.AuthEventsPublisher;
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
+import bio.overture.ego.model.domain.UserFetchPlan;
 import bio.overture.ego.model.dto.CreateUserRequest;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.dto.UpdateUserRequest;
@@ -44,7 +56,9 @@ import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.EntityDeleteRepository;
 import bio.overture.ego.repository.GroupRepository;
+import bio.overture.ego.repository.UserLoginRepository;
 import bio.overture.ego.repository.UserRepository;
 import bio.overture.ego.repository.queryspecification.UserSpecification;
 import bio.overture.ego.repository.queryspecification.builder.UserSpecificationBuilder;
@@ -52,7 +66,6 @@ import bio.overture.ego.token.IDToken;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.util.*;
-import javax.transaction.Transactional;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -62,6 +75,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -75,8 +89,13 @@ public class UserService extends AbstractBaseService<User, UUID> {
   private final GroupRepository groupRepository;
 
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final AuthEventsPublisher authEventsPublisher;
   private final ApplicationService applicationService;
   private final UserRepository userRepository;
+  private final UserLoginRepository userLoginRepository;
+  private final EntityDeleteRepository entityDeleteRepository;
+  private final LastLoginBuffer lastLoginBuffer;
+  private final ChangeLogService changeLogService;
 
   /** Configuration */
   private final UserDefaultsConfig userDefaultsConfig;
@@ -87,71 +106,85 @@ public class UserService extends AbstractBaseService<User, UUID> {
       @NonNull GroupRepository groupRepository,
       @NonNull ApplicationService applicationService,
       @NonNull UserDefaultsConfig userDefaultsConfig,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull AuthEventsPublisher authEventsPublisher,
+      @NonNull ChangeLogService changeLogService,
+      @NonNull UserLoginRepository userLoginRepository,
+      @NonNull LastLoginBuffer lastLoginBuffer,
+      @NonNull EntityDeleteRepository entityDeleteRepository) {
     super(User.class, userRepository);
     this.userRepository = userRepository;
+    this.userLoginRepository = userLoginRepository;
+    this.entityDeleteRepository = entityDeleteRepository;
+    this.lastLoginBuffer = lastLoginBuffer;
     this.groupRepository = groupRepository;
     this.applicationService = applicationService;
     this.userDefaultsConfig = userDefaultsConfig;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.authEventsPublisher = authEventsPublisher;
+    this.changeLogService = changeLogService;
   }
 
   public User create(@NonNull CreateUserRequest request) {
     validateCreateRequest(request);
     val user = USER_CONVERTER.convertToUser(request);
-    val existingRandomUser = getRepository().findFirstBy();
-    if (userDefaultsConfig.isFirstUserAsAdmin() && existingRandomUser == null) {
+    if (userDefaultsConfig.isFirstUserAsAdmin() && getRepository().findFirstBy() == null) {
       user.setType(ADMIN);
       user.setStatus(StatusType.APPROVED);
     }
-    return getRepository().save(user);
+    val savedUser = getRepository().save(user);
+    changeLogService.record(USER, savedUser.getId(), CREATED);
+    return savedUser;
   }
 
-  @SuppressWarnings("unchecked")
   public List<User> findByEmail(String email) {
-    return (List<User>)
-        getRepository()
-            .findAll(
-                new UserSpecificationBuilder()
-                    .fetchApplications(true)
-                    .fetchUserGroups(true)
-                    .fetchUserAndGroupPermissions(true)
-                    .fetchRefreshToken(true)
-                    .buildByEmail(email));
+    return findByEmail(email, ALL_RELATIONSHIPS);
   }
 
   @SuppressWarnings("unchecked")
+  public List<User> findByEmail(@NonNull String email, @NonNull UserFetchPlan plan) {
+    val users = (List<User>) getRepository().findAll(rootSpecification(plan).buildByEmail(email));
+    return fetchRelationships(users, plan);
+  }
+
   public User get(
       @NonNull UUID id,
       boolean fetchUserPermissions,
       boolean fetchUserGroups,
       boolean fetchApplications,
       boolean fetchRefreshToken) {
-    val result =
-        (Optional<User>)
-            getRepository()
-                .findOne(
-                    new UserSpecificationBuilder()
-                        .fetchUserAndGroupPermissions(fetchUserPermissions)
-                        .fetchUserGroups(fetchUserGroups)
-                        .fetchApplications(fetchApplications)
-                        .fetchRefreshToken(fetchRefreshToken)
-                        .buildById(id));
+    return get(
+        id,
+        UserFetchPlan.of(
+            fetchUserPermissions, fetchUserGroups, fetchApplications, fetchRefreshToken));
+  }
+
+  @SuppressWarnings("unchecked")
+  public User get(@NonNull UUID id, @NonNull UserFetchPlan plan) {
+    val result = (Optional<User>) getRepository().findOne(rootSpecification(plan).buildById(id));
     checkNotFound(result.isPresent(), "The userId '%s' does not exist", id);
-    return result.get();
+    return fetchRelationships(ImmutableList.of(result.get()), plan).get(0);
   }
 
+  @Transactional(readOnly = true)
   public Collection<User> getMany(
       @NonNull Collection<UUID> ids,
       boolean fetchUserPermissions,
       boolean fetchUserGroups,
       boolean fetchApplications) {
-    val spec =
-        new UserSpecificationBuilder()
-            .fetchUserAndGroupPermissions(fetchUserPermissions)
-            .fetchUserGroups(fetchUserGroups)
-            .fetchApplications(fetchApplications);
-    return getMany(ids, spec);
+    return getMany(
+        ids, UserFetchPlan.of(fetchUserPermissions, fetchUserGroups, fetchApplications, false));
+  }
+
+  @Transactional(readOnly = true)
+  public List<User> getMany(@NonNull Collection<UUID> ids, @NonNull UserFetchPlan plan) {
+    return fetchRelationships(getMany(ids, rootSpecification(plan)), plan);
+  }
+
+  /** Same as getMany, but users that do not exist, or were deleted meanwhile, are left out */
+  @Transactional(readOnly = true)
+  public List<User> findMany(@NonNull Collection<UUID> ids, @NonNull UserFetchPlan plan) {
+    return fetchRelationships(findMany(ids, rootSpecification(plan)), plan);
   }
 
   public User getByProviderTypeAndProviderSubjectId(
@@ -166,102 +199,77 @@ public class UserService extends AbstractBaseService<User, UUID> {
   }
 
   public User createFromIDToken(IDToken idToken) {
-    return create(
-        CreateUserRequest.builder()
-            .email(idToken.getEmail())
-            .firstName(idToken.getGivenName())
-            .lastName(idToken.getFamilyName())
-            .status(userDefaultsConfig.getDefaultUserStatus())
-            .type(userDefaultsConfig.getDefaultUserType())
-            .providerType(idToken.getProviderType())
-            .providerSubjectId(idToken.getProviderSubjectId())
-            .build());
-  }
-
-  private User updateUserFromToken(User user, IDToken idToken) {
-    user.setProviderType(idToken.getProviderType());
-    user.setProviderSubjectId(idToken.getProviderSubjectId());
-    user.setEmail(idToken.getEmail());
-
-    return user;
-  }
-
-  private Optional<User> findUserAndUpdate(IDToken idToken) {
-    val optionalUser =
-        findByProviderTypeAndProviderSubjectId(
-            idToken.getProviderType(), idToken.getProviderSubjectId());
-    optionalUser.ifPresent(user -> updateUserFromToken(user, idToken));
-    return optionalUser;
+    return create(createRequestFromIDToken(idToken));
   }
 
+  /**
+   * Resolves a login to its user with a single upsert, creating the user on first login, then loads
+   * the user read-only with its relationships left to load lazily. The login time is handed to
+   * {@link LastLoginBuffer} instead of being flushed with the user row.
+   */
   public User getUserByToken(@NonNull IDToken idToken) {
-    User user =
-        findUserAndUpdate(idToken)
-            .or(() -> findByProviderTypeAndEmail(idToken))
-            .orElseGet(
-                () -> {
-                  log.info("User not found, creating.");
-                  return createFromIDToken(idToken);
-                });
-
-    user.setLastLogin(new Date());
+    val request = createRequestFromIDToken(idToken);
+    checkCreateRequestValid(request);
+    val login =
+        userLoginRepository.upsertFromLogin(
+            UUID.randomUUID(), request, userDefaultsConfig.isFirstUserAsAdmin());
+    if (login.isCreated()) {
+      log.info("User not found, created.");
+      changeLogService.record(USER, login.getUserId(), CREATED);
+    } else if (login.isUpdated()) {
+      changeLogService.record(USER, login.getUserId(), UPDATED);
+      authEventsPublisher.principalChanged(login.getUserId());
+    }
+
+    val loginTime = new Date();
+    lastLoginBuffer.record(login.getUserId(), loginTime);
+    val user =
+        userRepository
+            .findReadOnlyById(login.getUserId())
+            .orElseThrow(
+                () -> buildNotFoundException("The userId '%s' does not exist", login.getUserId()));
+    user.setLastLogin(loginTime);
     return user;
   }
 
-  @SuppressWarnings("unchecked")
   public Optional<User> findByProviderTypeAndProviderSubjectId(
       ProviderType providerType, String providerSubjectId) {
-    return (Optional<User>)
-        getRepository()
-            .findOne(
-                new UserSpecificationBuilder()
-                    .fetchApplications(true)
-                    .fetchUserGroups(true)
-                    .fetchUserAndGroupPermissions(true)
-                    .fetchRefreshToken(true)
-                    .buildByProviderTypeAndSubjectId(providerType, providerSubjectId));
-  }
-
-  private Optional<User> findByProviderTypeAndEmail(IDToken idToken) {
-    val userEmail = idToken.getEmail();
-    if (!isNull(userEmail)) {
-      // For users that existed before the data migration, their data will be migrated
-      // to use the DEFAULT provider as their providerType and their email as the
-      // providerSubjectId, since the email was previously unique.
-      // In this scenario, since a user was not found using the idToken providerType +
-      // providerSubjectId, a secondary search is done on the user's email as the providerSubjectId
-      // and the idToken.providerType.
-      // If the user is found, their record is `healed` to use the correct providerSubjectId.
-      val userByEmailResult =
-          userRepository.findByProviderSubjectIdIgnoreCaseAndProviderType(
-              userEmail, idToken.getProviderType());
-
-      userByEmailResult.ifPresent(
-          foundUser -> {
-            log.info("User found, updating provider info.");
-            updateUserFromToken(foundUser, idToken);
-          });
-      return userByEmailResult;
-    }
-    log.info("No email provided");
-    return Optional.empty();
+    return findByProviderTypeAndProviderSubjectId(
+        providerType, providerSubjectId, ALL_RELATIONSHIPS);
+  }
+
+  @SuppressWarnings("unchecked")
+  public Optional<User> findByProviderTypeAndProviderSubjectId(
+      @NonNull ProviderType providerType,
+      @NonNull String providerSubjectId,
+      @NonNull UserFetchPlan plan) {
+    val result =
+        (Optional<User>)
+            getRepository()
+                .findOne(
+                    rootSpecification(plan)
+                        .buildByProviderTypeAndSubjectId(providerType, providerSubjectId));
+    result.ifPresent(user -> fetchRelationships(ImmutableList.of(user), plan));
+    return result;
   }
 
   public boolean existsByProviderSubjectId(String providerSubjectId) {
     return userRepository.existsByProviderSubjectId(providerSubjectId);
   }
 
+  @Transactional(readOnly = true)
   @Override
   public User getWithRelationships(@NonNull UUID id) {
-    return get(id, true, true, true, true);
+    return get(id, ALL_RELATIONSHIPS);
   }
 
+  /** A single collection does not multiply rows, so one fetch join query is the cheapest plan */
   public User getWithApplications(@NonNull UUID id) {
-    return get(id, false, false, true, false);
+    return get(id, UserFetchPlan.builder().strategy(SINGLE_QUERY).applications(true).build());
   }
 
   public User getWithGroups(@NonNull UUID id) {
-    return get(id, false, true, false, false);
+    return get(id, UserFetchPlan.builder().strategy(SINGLE_QUERY).userGroups(true).build());
   }
 
   /**
@@ -273,22 +281,25 @@ public class UserService extends AbstractBaseService<User, UUID> {
   public User partialUpdate(@NonNull UUID id, @NonNull UpdateUserRequest r) {
     val user = getById(id);
     USER_CONVERTER.updateUser(r, user);
+    changeLogService.record(USER, id, UPDATED);
+    authEventsPublisher.principalChanged(id);
     return getRepository().save(user);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> listUsers(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
     val spec = UserSpecification.filterBy(filters);
-    return getRepository().findAll(spec, pageable);
+    return findAll(spec, pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsers(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository()
-        .findAll(
-            where(UserSpecification.containsText(query)).and(UserSpecification.filterBy(filters)),
-            pageable);
+    return findAll(
+        where(UserSpecification.containsText(query)).and(UserSpecification.filterBy(filters)),
+        pageable);
   }
 
   @SuppressWarnings("Duplicates")
@@ -323,6 +334,7 @@ public class UserService extends AbstractBaseService<User, UUID> {
     nonAssociatedApplications.stream()
         .map(a -> convertToUserApplication(userWithUserApplications, a))
         .forEach(UserService::associateSelf);
+    changeLogService.record(USER, id, APPLICATIONS_CHANGED);
     return userWithUserApplications;
   }
 
@@ -354,6 +366,8 @@ public class UserService extends AbstractBaseService<User, UUID> {
     nonAssociatedGroups.stream()
         .map(g -> convertToUserGroup(userWithUserGroups, g))
         .forEach(UserGroupService::associateSelf);
+    changeLogService.record(USER, id, MEMBERSHIP_CHANGED);
+    changeLogService.record(GROUP, convertToIds(nonAssociatedGroups), MEMBERSHIP_CHANGED);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userWithUserGroups));
     return userWithUserGroups;
   }
@@ -391,6 +405,7 @@ public class UserService extends AbstractBaseService<User, UUID> {
             .collect(toImmutableSet());
 
     disassociateUserApplicationsFromUser(userWithApplications, userApplicationsToDisassociate);
+    changeLogService.record(USER, id, APPLICATIONS_CHANGED);
   }
 
   @SuppressWarnings("Duplicates")
@@ -423,18 +438,25 @@ public class UserService extends AbstractBaseService<User, UUID> {
             .collect(toImmutableSet());
 
     disassociateUserGroupsFromUser(userWithGroups, userGroupsToDisassociate);
+    changeLogService.record(USER, id, MEMBERSHIP_CHANGED);
+    changeLogService.record(GROUP, groupIdsToDisassociate, MEMBERSHIP_CHANGED);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userWithGroups));
   }
 
+  /**
+   * Deletes the user along with its api keys, so unlike a group deletion there are no remaining
+   * keys to clean up afterwards.
+   */
   @Override
   public void delete(@NonNull UUID id) {
-    val user = getWithRelationships(id);
-    disassociateAllGroupsFromUser(user);
-    disassociateAllApplicationsFromUser(user);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(user));
-    super.delete(id);
+    checkExistence(id);
+    val deleted = entityDeleteRepository.deleteUser(id);
+    changeLogService.record(GROUP, deleted.getGroupIds(), MEMBERSHIP_CHANGED);
+    changeLogService.record(USER, id, DELETED);
+    authEventsPublisher.principalChanged(id);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsersForGroup(
       @NonNull UUID groupId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -444,6 +466,7 @@ public class UserService extends AbstractBaseService<User, UUID> {
         pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsersForGroup(
       @NonNull UUID groupId,
@@ -460,6 +483,7 @@ public class UserService extends AbstractBaseService<User, UUID> {
     return userRepository.findAll(where(spec), pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsersForGroups(
       @NonNull Collection<UUID> groupIds,
@@ -473,9 +497,10 @@ public class UserService extends AbstractBaseService<User, UUID> {
             .and(UserSpecification.containsText(query))
             .and(UserSpecification.filterBy(filters));
 
-    return userRepository.findAll(spec, pageable);
+    return findAll(spec, pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsersForApplication(
       @NonNull UUID appId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
@@ -486,6 +511,7 @@ public class UserService extends AbstractBaseService<User, UUID> {
             pageable);
   }
 
+  @Transactional(readOnly = true)
   @SuppressWarnings("unchecked")
   public Page<User> findUsersForApplication(
       @NonNull UUID appId,
@@ -501,11 +527,65 @@ public class UserService extends AbstractBaseService<User, UUID> {
             pageable);
   }
 
+  private static UserSpecificationBuilder rootSpecification(UserFetchPlan plan) {
+    return plan.isSingleQuery()
+        ? UserSpecificationBuilder.ofPlan(plan)
+        : UserSpecificationBuilder.multiQueryRoot();
+  }
+
+  /**
+   * Second phase of a multi query plan. Each requested collection is fetch joined by its own query
+   * over the ids of the already loaded users. Hibernate resolves the rows to the managed instances
+   * in the persistence context, so the collections get initialized on the users passed in and the
+   * rows read are the sum of the collection sizes rather than their product.
+   */
+  private List<User> fetchRelationships(List<User> users, UserFetchPlan plan) {
+    if (plan.isSingleQuery() || users.isEmpty()) {
+      return users;
+    }
+    val ids = convertToIds(users);
+    if (plan.isUserPermissions()) {
+      fetchAll(new UserSpecificationBuilder().fetchUserPermissions(true), ids);
+    }
+    if (plan.isGroupPermissions()) {
+      fetchAll(new UserSpecificationBuilder().fetchGroupPermissions(true), ids);
+    } else if (plan.isUserGroups()) {
+      fetchAll(new UserSpecificationBuilder().fetchUserGroups(true), ids);
+    }
+    if (plan.isApplications()) {
+      fetchAll(new UserSpecificationBuilder().fetchApplications(true), ids);
+    }
+    return users;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void fetchAll(UserSpecificationBuilder specificationBuilder, Collection<UUID> ids) {
+    partitionIds(ids)
+        .forEach(chunk -> getRepository().findAll(specificationBuilder.buildByIds(chunk)));
+  }
+
+  private CreateUserRequest createRequestFromIDToken(IDToken idToken) {
+    return CreateUserRequest.builder()
+        .email(idToken.getEmail())
+        .firstName(idToken.getGivenName())
+        .lastName(idToken.getFamilyName())
+        .status(userDefaultsConfig.getDefaultUserStatus())
+        .type(userDefaultsConfig.getDefaultUserType())
+        .providerType(idToken.getProviderType())
+        .providerSubjectId(idToken.getProviderSubjectId())
+        .build();
+  }
+
   private void validateCreateRequest(CreateUserRequest r) {
+    checkCreateRequestValid(r);
+    checkUserUnique(r.getProviderType(), r.getProviderSubjectId());
+  }
+
+  /** Validates a create request on its own, without checking it against existing users */
+  public static void checkCreateRequestValid(@NonNull CreateUserRequest r) {
     checkRequestValid(r);
     checkMalformedRequest(
         !r.getProviderSubjectId().isBlank(), "ProviderSubjectId cannot be blank.");
-    checkUserUnique(r.getProviderType(), r.getProviderSubjectId());
   }
 
   private void checkUserUnique(ProviderType providerType, String providerSubjectId) {
@@ -8,9 +8,10 @@ import static lombok.AccessLevel.PRIVATE;
 
 import bio.overture.ego.model.entity.Identifiable;
 import bio.overture.ego.repository.BaseRepository;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -19,11 +20,22 @@ import lombok.val;
 @NoArgsConstructor(access = PRIVATE)
 public class EntityServices {
 
+  /**
+   * Largest number of ids bound to a single IN list, far below the driver's limit of 32767 bind
+   * parameters per statement.
+   */
+  public static final int ID_CHUNK_SIZE = 1000;
+
+  /** Splits distinct ids into chunks that can each be bound to one IN list */
+  public static <ID> List<List<ID>> partitionIds(@NonNull Collection<ID> ids) {
+    return Lists.partition(ImmutableSet.copyOf(ids).asList(), ID_CHUNK_SIZE);
+  }
+
   public static <T extends Identifiable<ID>, ID> Set<T> getManyEntities(
       @NonNull Class<T> entityType,
       @NonNull BaseRepository<T, ID> repository,
       @NonNull Collection<ID> ids) {
-    val entities = repository.findAllByIdIn(ImmutableList.copyOf(ids));
+    val entities = repository.findAllByIdIn(ids);
 
     val requestedIds = ImmutableSet.copyOf(ids);
     val existingIds = entities.stream().map(Identifiable::getId).collect(toImmutableSet());
@@ -41,7 +53,7 @@ public class EntityServices {
       @NonNull Class<T> entityType,
       @NonNull BaseRepository<T, ID> repository,
       @NonNull Collection<ID> ids) {
-    val missingIds = ids.stream().filter(x -> !repository.existsById(x)).collect(toImmutableSet());
+    val missingIds = repository.findMissingIds(ids);
     checkNotFound(
         missingIds.isEmpty(),
         "The following '%s' entity ids do no exist: %s",
@@ -1,8 +1,11 @@
 package bio.overture.ego.utils;
 
+import static bio.overture.ego.model.domain.CountedPageable.countModeOf;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.springframework.util.StringUtils.isEmpty;
 
+import bio.overture.ego.model.domain.CountedPageable;
+import bio.overture.ego.model.enums.CountMode;
 import java.util.Map;
 import java.util.Optional;
 import lombok.NonNull;
@@ -12,7 +15,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 @RequiredArgsConstructor
-public class IgnoreCaseSortDecorator implements Pageable {
+public class IgnoreCaseSortDecorator implements CountedPageable {
 
   private static final Map<String, String> SORT_MAP =
       Map.of("name", "owner.name", "id", "owner.id", "mask", "accessLevel");
@@ -51,6 +54,11 @@ public class IgnoreCaseSortDecorator implements Pageable {
   }
 
   /** Delegated methods */
+  @Override
+  public CountMode getCountMode() {
+    return countModeOf(delegate);
+  }
+
   @Override
   public int getPageNumber() {
     return delegate.getPageNumber();
@@ -0,0 +1,75 @@
+package bio.overture.ego.utils;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.NonNull;
+
+/**
+ * Reads the elements of a JSON array one at a time, so request bodies far larger than the heap can
+ * be consumed. Anything that is not an array of the element type is rejected as a malformed
+ * request.
+ */
+public class JsonArrayIterator<T> implements Iterator<T> {
+
+  /** Constants */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final JsonParser parser;
+  private final Class<T> elementType;
+  private JsonToken next;
+
+  private JsonArrayIterator(@NonNull JsonParser parser, @NonNull Class<T> elementType) {
+    this.parser = parser;
+    this.elementType = elementType;
+    checkMalformedRequest(nextToken() == JsonToken.START_ARRAY, "Expected a JSON array");
+    this.next = nextToken();
+  }
+
+  public static <T> JsonArrayIterator<T> readJsonArray(
+      @NonNull InputStream inputStream, @NonNull Class<T> elementType) {
+    try {
+      return new JsonArrayIterator<>(MAPPER.getFactory().createParser(inputStream), elementType);
+    } catch (IOException e) {
+      throw buildMalformedRequest("Cannot read the request body: %s", e.getMessage());
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    checkMalformedRequest(next != null, "The JSON array is not terminated");
+    return next != JsonToken.END_ARRAY;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final T element;
+    try {
+      element = MAPPER.readValue(parser, elementType);
+    } catch (IOException e) {
+      throw buildMalformedRequest(
+          "Expected an array of %s: %s", elementType.getSimpleName(), e.getMessage());
+    }
+    checkMalformedRequest(element != null, "The JSON array cannot contain null");
+    next = nextToken();
+    return element;
+  }
+
+  private JsonToken nextToken() {
+    try {
+      return parser.nextToken();
+    } catch (IOException e) {
+      throw buildMalformedRequest("Malformed JSON: %s", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package bio.overture.ego.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+/** Newline delimited JSON: one JSON document per line, for responses streamed row by row */
+@NoArgsConstructor
+public final class Ndjson {
+
+  /** Constants */
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @SneakyThrows
+  public static void writeNdjsonLine(@NonNull OutputStream out, @NonNull Object value) {
+    out.write(MAPPER.writeValueAsBytes(value));
+    out.write('\n');
+  }
+}
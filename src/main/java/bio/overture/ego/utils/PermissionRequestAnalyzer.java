@@ -5,18 +5,21 @@ import static bio.overture.ego.utils.Joiners.COMMA;
 import static bio.overture.ego.utils.PermissionRequestAnalyzer.REQUEST_TYPE.DUPLICATE;
 import static bio.overture.ego.utils.PermissionRequestAnalyzer.REQUEST_TYPE.NEW;
 import static bio.overture.ego.utils.PermissionRequestAnalyzer.REQUEST_TYPE.UPDATE;
-import static com.google.common.collect.Maps.newHashMap;
-import static com.google.common.collect.Maps.uniqueIndex;
 import static java.lang.String.format;
-import static java.util.stream.Collectors.groupingBy;
+import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
 import static lombok.AccessLevel.PRIVATE;
 
 import bio.overture.ego.model.dto.PermissionRequest;
+import bio.overture.ego.model.enums.AccessLevel;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,9 +34,6 @@ import lombok.val;
 @NoArgsConstructor(access = PRIVATE)
 public class PermissionRequestAnalyzer {
 
-  /** Constants */
-  private static final List<PermissionRequest> EMPTY_PERMISSION_REQUEST_LIST = ImmutableList.of();
-
   public enum REQUEST_TYPE {
     DUPLICATE,
     NEW,
@@ -43,7 +43,9 @@ public class PermissionRequestAnalyzer {
   /**
    * Analyzes permission requests by comparing the {@param rawPermissionRequests} to {@param
    * existingPermissionRequests} and categorizes them based on their { @code REQUEST_TYPE } and
-   * packs it all into a { @code PermissionAnalysis }.
+   * packs it all into a { @code PermissionAnalysis }. Requests are classified in a single pass
+   * against a hash index of the existing masks, and repeats of the same policyId and mask are
+   * treated as one request.
    *
    * @param existingPermissionRequests collection of PermissionRequests that already exist
    * @param rawPermissionRequests collection of PermissionRequests to analyze against the existing
@@ -53,53 +55,50 @@ public class PermissionRequestAnalyzer {
   public static PermissionAnalysis analyze(
       @NonNull Collection<PermissionRequest> existingPermissionRequests,
       @NonNull Collection<PermissionRequest> rawPermissionRequests) {
-    val existingPermissionRequestIndex =
-        uniqueIndex(existingPermissionRequests, PermissionRequest::getPolicyId);
+    val existingMasks =
+        Maps.<UUID, AccessLevel>newHashMapWithExpectedSize(existingPermissionRequests.size());
+    existingPermissionRequests.forEach(x -> existingMasks.put(x.getPolicyId(), x.getMask()));
+
+    val requestsByPolicyId = new LinkedHashMap<UUID, Set<PermissionRequest>>();
+    rawPermissionRequests.forEach(
+        x ->
+            requestsByPolicyId.computeIfAbsent(x.getPolicyId(), k -> new LinkedHashSet<>()).add(x));
 
-    val unresolvableRequestMap = filterUnresolvableRequests(rawPermissionRequests);
+    val unresolvableRequestMap = ImmutableMap.<UUID, List<PermissionRequest>>builder();
     val typeMap =
-        rawPermissionRequests.stream()
-            .filter(x -> !unresolvableRequestMap.containsKey(x.getPolicyId()))
-            .collect(groupingBy(x -> resolvePermType(existingPermissionRequestIndex, x)));
+        new EnumMap<REQUEST_TYPE, ImmutableSet.Builder<PermissionRequest>>(REQUEST_TYPE.class);
+    stream(REQUEST_TYPE.values()).forEach(x -> typeMap.put(x, ImmutableSet.builder()));
+    requestsByPolicyId.forEach(
+        (policyId, requests) -> {
+          // Multiple masks for the same policyId cannot be resolved
+          if (requests.size() > 1) {
+            unresolvableRequestMap.put(policyId, ImmutableList.copyOf(requests));
+            return;
+          }
+          val request = requests.iterator().next();
+          typeMap.get(resolvePermType(existingMasks, request)).add(request);
+        });
 
     return PermissionAnalysis.builder()
-        .unresolvableMap(unresolvableRequestMap)
-        .duplicates(extractPermissionRequests(typeMap, DUPLICATE))
-        .createables(extractPermissionRequests(typeMap, NEW))
-        .updateables(extractPermissionRequests(typeMap, UPDATE))
+        .unresolvableMap(unresolvableRequestMap.build())
+        .duplicates(typeMap.get(DUPLICATE).build())
+        .createables(typeMap.get(NEW).build())
+        .updateables(typeMap.get(UPDATE).build())
         .build();
   }
 
-  private static Set<PermissionRequest> extractPermissionRequests(
-      Map<REQUEST_TYPE, List<PermissionRequest>> typeMap, REQUEST_TYPE permType) {
-    return ImmutableSet.copyOf(typeMap.getOrDefault(permType, EMPTY_PERMISSION_REQUEST_LIST));
-  }
-
   private static REQUEST_TYPE resolvePermType(
-      Map<UUID, PermissionRequest> existingPermissionRequestIndex, PermissionRequest r) {
-    if (existingPermissionRequestIndex.containsValue(r)) {
+      Map<UUID, AccessLevel> existingMasks, PermissionRequest r) {
+    val existingMask = existingMasks.get(r.getPolicyId());
+    if (existingMask == null) {
+      return NEW;
+    } else if (existingMask == r.getMask()) {
       return DUPLICATE;
-    } else if (existingPermissionRequestIndex.containsKey(r.getPolicyId())) {
-      return UPDATE;
     } else {
-      return NEW;
+      return UPDATE;
     }
   }
 
-  private static Map<UUID, List<PermissionRequest>> filterUnresolvableRequests(
-      @NonNull Collection<PermissionRequest> rawPermissionRequests) {
-    val grouping =
-        rawPermissionRequests.stream().collect(groupingBy(PermissionRequest::getPolicyId));
-    val unresolvableRequestMap = newHashMap(grouping);
-    grouping.values().stream()
-        // filter aggregates that have multiple permissions for the same policyID
-        .filter(x -> x.size() == 1)
-        .map(x -> x.get(0))
-        .map(PermissionRequest::getPolicyId)
-        .forEach(unresolvableRequestMap::remove);
-    return ImmutableMap.copyOf(unresolvableRequestMap);
-  }
-
   @Value
   @Builder
   public static class PermissionAnalysis {
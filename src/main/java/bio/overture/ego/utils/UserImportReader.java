@@ -0,0 +1,184 @@
+package bio.overture.ego.utils;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.utils.Joiners.COMMA;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import bio.overture.ego.model.domain.UserImportRow;
+import bio.overture.ego.model.dto.CreateUserRequest;
+import bio.overture.ego.model.enums.UserImportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Reads the rows of a bulk user import one line at a time, so inputs of any size are read in
+ * constant memory. A row that cannot be parsed is returned as unreadable instead of ending the
+ * import; only an unusable CSV header rejects the whole input.
+ */
+public class UserImportReader implements Iterator<UserImportRow> {
+
+  /** Constants */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** CreateUserRequest field names, keyed by their lower case form for the CSV header lookup */
+  private static final Map<String, String> CSV_COLUMNS = createCsvColumns();
+
+  private final BufferedReader reader;
+  private final Function<String, CreateUserRequest> parser;
+  private long lineNumber;
+  private String nextLine;
+
+  private UserImportReader(@NonNull BufferedReader reader, @NonNull UserImportFormat format) {
+    this.reader = reader;
+    if (format == UserImportFormat.CSV) {
+      val header = readNonBlankLine();
+      checkMalformedRequest(header != null, "The CSV input has no header");
+      this.parser = csvParser(parseCsvHeader(header));
+    } else {
+      this.parser = UserImportReader::parseJson;
+    }
+    this.nextLine = readNonBlankLine();
+  }
+
+  public static UserImportReader readUsers(
+      @NonNull InputStream inputStream, @NonNull UserImportFormat format) {
+    return new UserImportReader(
+        new BufferedReader(new InputStreamReader(inputStream, UTF_8)), format);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextLine != null;
+  }
+
+  @Override
+  public UserImportRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    val line = lineNumber;
+    UserImportRow row;
+    try {
+      row = UserImportRow.parsed(line, parser.apply(nextLine));
+    } catch (IllegalArgumentException e) {
+      row = UserImportRow.unreadable(line, e.getMessage());
+    }
+    nextLine = readNonBlankLine();
+    return row;
+  }
+
+  private String readNonBlankLine() {
+    try {
+      String line;
+      do {
+        line = reader.readLine();
+        lineNumber++;
+      } while (line != null && line.isBlank());
+      return line;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static CreateUserRequest parseJson(String line) {
+    try {
+      return MAPPER.readValue(line, CreateUserRequest.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e.getOriginalMessage());
+    }
+  }
+
+  private static Function<String, CreateUserRequest> csvParser(List<String> columns) {
+    return line -> {
+      val values = parseCsvLine(line);
+      if (values.size() != columns.size()) {
+        throw new IllegalArgumentException(
+            String.format("Expected %s columns but found %s", columns.size(), values.size()));
+      }
+      val fields = new HashMap<String, String>();
+      for (int i = 0; i < columns.size(); i++) {
+        val value = values.get(i).trim();
+        fields.put(columns.get(i), value.isEmpty() ? null : value);
+      }
+      return MAPPER.convertValue(fields, CreateUserRequest.class);
+    };
+  }
+
+  private static List<String> parseCsvHeader(String header) {
+    val columns = new ArrayList<String>();
+    for (val name : parseCsvLine(header)) {
+      val field = CSV_COLUMNS.get(name.trim().toLowerCase());
+      if (field == null) {
+        throw buildMalformedRequest(
+            "Unknown CSV column '%s'. Columns must be among: [%s]",
+            name, COMMA.join(CSV_COLUMNS.values()));
+      }
+      checkMalformedRequest(!columns.contains(field), "Duplicate CSV column '%s'", name);
+      columns.add(field);
+    }
+    return columns;
+  }
+
+  /**
+   * Splits a CSV line on commas, where a field may be wrapped in double quotes to contain commas,
+   * and a double quote within a quoted field is escaped by doubling it. Quoted fields cannot span
+   * lines.
+   */
+  static List<String> parseCsvLine(@NonNull String line) {
+    val values = new ArrayList<String>();
+    val value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      val c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          value.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted CSV field");
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private static Map<String, String> createCsvColumns() {
+    val columns = new HashMap<String, String>();
+    Arrays.stream(CreateUserRequest.class.getDeclaredFields())
+        .filter(f -> !Modifier.isStatic(f.getModifiers()))
+        .map(Field::getName)
+        .forEach(name -> columns.put(name.toLowerCase(), name));
+    return columns;
+  }
+}
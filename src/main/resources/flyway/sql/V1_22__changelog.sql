@@ -0,0 +1,9 @@
+CREATE TABLE CHANGELOG (
+   seq         BIGSERIAL PRIMARY KEY,
+   entity_type VARCHAR(32) NOT NULL,
+   entity_id   UUID NOT NULL,
+   change_type VARCHAR(32) NOT NULL,
+   createdat   TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_changelog_createdat ON CHANGELOG(createdat);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_userpermission_policy_user ON userpermission(policy_id, user_id);
+CREATE INDEX idx_usergroup_group_user ON usergroup(group_id, user_id);
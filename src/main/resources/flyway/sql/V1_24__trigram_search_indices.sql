@@ -0,0 +1,23 @@
+-- Free-text search (containsText) matches lower(column) LIKE '%text%'. Trigram GIN indexes on the
+-- same expressions let Postgres answer those with bitmap index scans instead of full table scans.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_egouser_email_trgm ON egouser USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX idx_egouser_firstname_trgm ON egouser USING gin (lower(firstname) gin_trgm_ops);
+CREATE INDEX idx_egouser_lastname_trgm ON egouser USING gin (lower(lastname) gin_trgm_ops);
+
+CREATE INDEX idx_egogroup_name_trgm ON egogroup USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_egogroup_description_trgm ON egogroup USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX idx_egoapplication_name_trgm ON egoapplication USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_egoapplication_clientid_trgm ON egoapplication USING gin (lower(clientid) gin_trgm_ops);
+CREATE INDEX idx_egoapplication_description_trgm ON egoapplication USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX idx_policy_name_trgm ON policy USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_token_name_trgm ON token USING gin (lower(name) gin_trgm_ops);
+
+-- Enum columns are matched with IN (...) rather than a text cast; plain B-trees serve those.
+CREATE INDEX idx_egouser_status ON egouser (status);
+CREATE INDEX idx_egouser_providertype ON egouser (providertype);
+CREATE INDEX idx_egogroup_status ON egogroup (status);
+CREATE INDEX idx_egoapplication_status ON egoapplication (status);
@@ -0,0 +1,45 @@
+-- Names, client ids and provider subject ids are matched with lower(column) = lower(:value) and
+-- listings sort by lower(column). B-tree indexes on the same expressions turn those into index
+-- lookups and ordered index scans. The services already reject case-insensitive duplicates of
+-- group, policy and application names and client ids, so those indexes also enforce it.
+--
+-- Rows written before that check existed may still differ only by case, and would fail the unique
+-- indexes with a bare duplicate key error. They are all listed up front instead: rename or remove
+-- the duplicates, then rerun the migration.
+DO $$
+DECLARE
+  duplicates text;
+BEGIN
+  SELECT string_agg(format('%s %s (%s)', d.entity, d.field, d.values_), '; ')
+  INTO duplicates
+  FROM (
+    SELECT 'group' AS entity, 'name' AS field, string_agg(name, ', ') AS values_
+    FROM egogroup GROUP BY lower(name) HAVING count(*) > 1
+    UNION ALL
+    SELECT 'policy', 'name', string_agg(name, ', ')
+    FROM policy GROUP BY lower(name) HAVING count(*) > 1
+    UNION ALL
+    SELECT 'application', 'name', string_agg(name, ', ')
+    FROM egoapplication GROUP BY lower(name) HAVING count(*) > 1
+    UNION ALL
+    SELECT 'application', 'clientid', string_agg(clientid, ', ')
+    FROM egoapplication GROUP BY lower(clientid) HAVING count(*) > 1
+  ) d;
+
+  IF duplicates IS NOT NULL THEN
+    RAISE EXCEPTION 'Values that differ only by case must be made unique first: %', duplicates
+      USING HINT = 'Rename or delete the duplicate groups, policies or applications, then rerun the migration.';
+  END IF;
+END $$;
+
+CREATE UNIQUE INDEX idx_egogroup_name_lower ON egogroup (lower(name));
+CREATE UNIQUE INDEX idx_policy_name_lower ON policy (lower(name));
+CREATE UNIQUE INDEX idx_egoapplication_name_lower ON egoapplication (lower(name));
+CREATE UNIQUE INDEX idx_egoapplication_clientid_lower ON egoapplication (lower(clientid));
+
+-- Legacy users may hold subject ids that only differ by case, so this one cannot be unique; the
+-- case-sensitive UNIQUE (providertype, providersubjectid) constraint stays in place.
+CREATE INDEX idx_egouser_provider_subject_lower ON egouser (providertype, lower(providersubjectid));
+
+-- Api key names are generated, and already unique as stored.
+CREATE INDEX idx_token_name_lower ON token (lower(name));
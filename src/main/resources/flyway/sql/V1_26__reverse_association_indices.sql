@@ -0,0 +1,5 @@
+-- Relationship filters are correlated EXISTS on the association tables. The primary keys cover
+-- lookups by user or group first; these cover the reverse direction (users or groups of an
+-- application) so those semi-joins are index scans as well.
+CREATE INDEX idx_userapplication_application_user ON userapplication(application_id, user_id);
+CREATE INDEX idx_groupapplication_application_group ON groupapplication(application_id, group_id);
@@ -0,0 +1,12 @@
+-- Change log positions are assigned by a relay after the writing transaction has committed, so
+-- writers no longer serialize on a lock to stop a cursor from skipping rows that commit late.
+-- Rows keep an insertion id; seq stays empty until the relay numbers the row.
+ALTER TABLE CHANGELOG RENAME COLUMN seq TO id;
+ALTER TABLE CHANGELOG ADD COLUMN seq BIGINT;
+UPDATE CHANGELOG SET seq = id;
+
+CREATE SEQUENCE CHANGELOG_POSITION;
+SELECT setval('changelog_position', COALESCE((SELECT max(seq) FROM CHANGELOG), 0) + 1, false);
+
+CREATE UNIQUE INDEX idx_changelog_seq ON CHANGELOG(seq);
+CREATE INDEX idx_changelog_unsequenced ON CHANGELOG(id) WHERE seq IS NULL;
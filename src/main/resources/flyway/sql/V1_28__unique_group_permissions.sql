@@ -0,0 +1,16 @@
+-- A group holds at most one permission per policy. Batch upserts rely on that to use ON CONFLICT,
+-- which a unique index makes safe for concurrent requests naming the same pair.
+--
+-- Earlier races may have left duplicates. Resolution already lets the strongest mask win
+-- (DENY over WRITE over READ, the enum order), so only that row of each pair is kept.
+DELETE FROM grouppermission gp
+USING (
+  SELECT id, row_number() OVER (PARTITION BY group_id, policy_id ORDER BY access_level DESC, id) AS rank
+  FROM grouppermission
+) ranked
+WHERE gp.id = ranked.id AND ranked.rank > 1;
+
+CREATE UNIQUE INDEX idx_grouppermission_group_policy ON grouppermission(group_id, policy_id);
+
+-- Lookups by group are covered by the unique index
+DROP INDEX idx_grouppermission_group;
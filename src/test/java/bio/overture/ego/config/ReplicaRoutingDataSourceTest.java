@@ -0,0 +1,63 @@
+package bio.overture.ego.config;
+
+import static bio.overture.ego.config.ReplicaRoutingDataSource.Target.PRIMARY;
+import static bio.overture.ego.config.ReplicaRoutingDataSource.Target.REPLICA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSourceTest {
+
+  @After
+  public void clearTransaction() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  public void readOnlyTransaction_ReplicaUsable_RoutesToReplica() {
+    val routing = new ReplicaRoutingDataSource(guard(true));
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    assertEquals(REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void readWriteTransaction_ReplicaUsable_RoutesToPrimary() {
+    val routing = new ReplicaRoutingDataSource(guard(true));
+    assertEquals(PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void readOnlyTransaction_ReplicaLagging_RoutesToPrimary() {
+    val routing = new ReplicaRoutingDataSource(guard(false));
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    assertEquals(PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  @SneakyThrows
+  public void lagGuard_ReplicaUnreachable_ReplicaNotUsable() {
+    val replica = mock(DataSource.class);
+    when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+    val guard = new ReplicaLagGuard(replica, 10, 60_000);
+    try {
+      assertFalse(guard.isReplicaUsable());
+    } finally {
+      guard.destroy();
+    }
+  }
+
+  private static ReplicaLagGuard guard(boolean replicaUsable) {
+    val guard = mock(ReplicaLagGuard.class);
+    when(guard.isReplicaUsable()).thenReturn(replicaUsable);
+    return guard;
+  }
+}
@@ -150,6 +150,11 @@ public abstract class AbstractControllerTest {
     return addUsersToGroupPostRequestAnd(g.getId(), userIds);
   }
 
+  protected StringResponseOption replaceUsersOfGroupPutRequestAnd(
+      UUID groupId, Collection<UUID> userIds) {
+    return initStringRequest().endpoint("/groups/%s/users", groupId).body(userIds).putAnd();
+  }
+
   protected StringResponseOption getApplicationsForUserGetRequestAnd(UUID userId) {
     return initStringRequest().endpoint("/users/%s/applications", userId).getAnd();
   }
@@ -326,6 +326,40 @@ public class CreateUserControllerTest extends AbstractMockedTokenControllerTest
     assertEquals(user1.getType(), user2.getType());
   }
 
+  // existing provider (default/non default)	existing id 	changed email	user found, email updated
+  @Test
+  public void existingProviderTypeAndIdChangedEmail_updateEmail() {
+    // setup user
+    val user = entityGenerator.setupUser(entityGenerator.generateNonExistentUserName());
+
+    // set idToken with user fields, except for a new email
+    idToken.setProviderType(user.getProviderType());
+    idToken.setProviderSubjectId(user.getProviderSubjectId());
+    idToken.setEmail("changed." + user.getEmail());
+    idToken.setFamilyName(user.getLastName());
+    idToken.setGivenName(user.getFirstName());
+
+    val response = getTokenResponse();
+
+    // assert valid token is returned for the existing user
+    assertTrue(tokenService.isValidToken(response));
+    val tokenInfo = tokenService.getTokenUserInfo(response);
+    assertEquals(user.getId(), tokenInfo.getId());
+
+    val updatedUser =
+        initStringRequest()
+            .endpoint("/users/%s", user.getId())
+            .getAnd()
+            .assertOk()
+            .extractOneEntity(User.class);
+
+    // assert only the email has been updated
+    assertEquals(updatedUser.getEmail(), idToken.getEmail());
+    assertEquals(updatedUser.getProviderSubjectId(), user.getProviderSubjectId());
+    assertEquals(updatedUser.getStatus(), user.getStatus());
+    assertEquals(updatedUser.getType(), user.getType());
+  }
+
   // provider not in db (default/non default type)	existing id 	existing email	create OK
   @Test
   public void nonExistingProviderTypeExistingProviderSubjectIdExistingEmail_createUser() {
@@ -0,0 +1,105 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpStatus.OK;
+
+import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.service.GroupService;
+import bio.overture.ego.utils.EntityGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = AuthorizationServiceMain.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ExportControllerTest extends AbstractControllerTest {
+
+  /** Dependencies */
+  @Autowired private EntityGenerator entityGenerator;
+
+  @Autowired private GroupService groupService;
+
+  @Value("${logging.test.controller.enable}")
+  private boolean enableLogging;
+
+  @Override
+  protected boolean enableLogging() {
+    return enableLogging;
+  }
+
+  @Override
+  protected void beforeTest() {}
+
+  @Test
+  public void export_AllTypes_Success() {
+    val user = entityGenerator.setupUser("Export User");
+    val group = entityGenerator.setupGroup("ExportGroup");
+    val policy = entityGenerator.setupSinglePolicy("ExportPolicy");
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+    groupService.associateUsersWithGroup(group.getId(), List.of(user.getId()));
+
+    val records = export("/export");
+
+    // The snapshot record comes first, then every type in order
+    assertEquals("SNAPSHOT", records.get(0).get("type").asText());
+    assertTrue(records.get(0).get("data").get("changeLogCursor").asLong() > 0);
+    assertTrue(contains(records, "USER", "id", user.getId().toString()));
+    assertTrue(contains(records, "GROUP", "name", group.getName()));
+    assertTrue(contains(records, "POLICY", "name", policy.getName()));
+    assertTrue(contains(records, "USER_GROUP", "user_id", user.getId().toString()));
+    assertTrue(contains(records, "GROUP_PERMISSION", "group_id", group.getId().toString()));
+
+    // Application secrets are never exported
+    records.stream()
+        .filter(r -> r.get("type").asText().equals("APPLICATION"))
+        .forEach(r -> assertTrue(r.get("data").get("clientsecret") == null));
+  }
+
+  @Test
+  public void export_SelectedTypes_Success() {
+    entityGenerator.setupGroup("ExportOnlyGroups");
+
+    val records = export("/export?types=GROUP,POLICY");
+    assertTrue(
+        records.stream()
+            .skip(1)
+            .map(r -> r.get("type").asText())
+            .allMatch(t -> t.equals("GROUP") || t.equals("POLICY")));
+    assertTrue(contains(records, "GROUP", "name", "ExportOnlyGroups"));
+  }
+
+  @SneakyThrows
+  private List<JsonNode> export(String endpoint) {
+    val response = initStringRequest().endpoint(endpoint).get();
+    assertEquals(OK, response.getStatusCode());
+    val records = new ArrayList<JsonNode>();
+    for (val line : response.getBody().split("\n")) {
+      records.add(MAPPER.readTree(line));
+    }
+    return records;
+  }
+
+  private static boolean contains(List<JsonNode> records, String type, String field, String value) {
+    return records.stream()
+        .anyMatch(
+            r ->
+                r.get("type").asText().equals(type)
+                    && r.get("data").get(field).asText().equals(value));
+  }
+}
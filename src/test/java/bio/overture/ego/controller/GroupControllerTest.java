@@ -35,6 +35,7 @@ import static org.junit.Assert.*;
 
 import bio.overture.ego.AuthorizationServiceMain;
 import bio.overture.ego.model.dto.GroupRequest;
+import bio.overture.ego.model.dto.MembershipSyncResponse;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.GroupPermission;
@@ -354,6 +355,18 @@ public class GroupControllerTest extends AbstractControllerTest {
     createGroupPostRequestAnd(createRequest).assertConflict();
   }
 
+  @Test
+  public void createGroup_NameAlreadyExistsWithDifferentCase_Conflict() {
+    val existingGroup = entityGenerator.generateRandomGroup();
+    val createRequest =
+        GroupRequest.builder().name(existingGroup.getName().toUpperCase()).status(APPROVED).build();
+
+    createGroupPostRequestAnd(createRequest).assertConflict();
+    assertEquals(
+        existingGroup.getId(),
+        groupService.getByName(existingGroup.getName().toUpperCase()).getId());
+  }
+
   public void createGroup_NullValueButRequired_BadRequest() {
     // Create an empty createRequest for groups
     val createRequest = GroupRequest.builder().build();
@@ -437,6 +450,89 @@ public class GroupControllerTest extends AbstractControllerTest {
         .containsAll(expectedGroups);
   }
 
+  @Test
+  @SneakyThrows
+  public void listGroups_KeysetPagination_Success() {
+    val expectedNames = newArrayList("keysetA", "keysetB", "keysetC", "keysetD", "keysetE");
+    expectedNames.forEach(entityGenerator::setupGroup);
+
+    val actualNames = newArrayList();
+    String cursor = "";
+    do {
+      val body =
+          listGroupsEndpointAnd()
+              .queryParam("query", "keyset")
+              .queryParam("sort", "name")
+              .queryParam("sortOrder", "asc")
+              .queryParam("limit", 2)
+              .queryParam("after", cursor)
+              .queryParam("count", actualNames.isEmpty())
+              .getAnd()
+              .assertOk()
+              .getResponse()
+              .getBody();
+      val page = MAPPER.readTree(body);
+      if (actualNames.isEmpty()) {
+        assertEquals(expectedNames.size(), page.path("count").asInt());
+      } else {
+        assertTrue(page.path("count").isMissingNode());
+      }
+      page.path("resultSet").forEach(g -> actualNames.add(g.path("name").asText()));
+      cursor = page.path("next").isMissingNode() ? null : page.path("next").asText();
+    } while (cursor != null);
+
+    assertEquals(expectedNames, actualNames);
+  }
+
+  @Test
+  @SneakyThrows
+  public void listGroups_WithoutCount_Success() {
+    entityGenerator.setupGroups("uncountedA", "uncountedB", "uncountedC");
+
+    val firstPage =
+        MAPPER.readTree(
+            listGroupsEndpointAnd()
+                .queryParam("query", "uncounted")
+                .queryParam("limit", 2)
+                .queryParam("count", "none")
+                .getAnd()
+                .assertOk()
+                .getResponse()
+                .getBody());
+    assertEquals("NONE", firstPage.path("countMode").asText());
+    assertTrue(firstPage.path("count").isMissingNode());
+    assertEquals(2, firstPage.path("resultSet").size());
+
+    // The last page knows its total without counting
+    val lastPage =
+        MAPPER.readTree(
+            listGroupsEndpointAnd()
+                .queryParam("query", "uncounted")
+                .queryParam("limit", 2)
+                .queryParam("offset", 2)
+                .queryParam("count", "none")
+                .getAnd()
+                .assertOk()
+                .getResponse()
+                .getBody());
+    assertEquals("EXACT", lastPage.path("countMode").asText());
+    assertEquals(3, lastPage.path("count").asInt());
+  }
+
+  @Test
+  public void listGroups_InvalidCountMode_BadRequest() {
+    listGroupsEndpointAnd().queryParam("count", "roughly").getAnd().assertBadRequest();
+  }
+
+  @Test
+  public void listGroups_MalformedKeysetCursor_BadRequest() {
+    listGroupsEndpointAnd()
+        .queryParam("sort", "name")
+        .queryParam("after", "not-a-cursor")
+        .getAnd()
+        .assertBadRequest();
+  }
+
   @Test
   public void getGroups_FindSomeQuery_Success() {
     val g1 =
@@ -530,6 +626,36 @@ public class GroupControllerTest extends AbstractControllerTest {
         .contains(g1);
   }
 
+  @Test
+  public void getGroups_FindByPartialEnumText_Success() {
+    val disabledGroup =
+        createGroupPostRequestAnd(
+                GroupRequest.builder()
+                    .name("enumTextGroup")
+                    .status(DISABLED)
+                    .description("")
+                    .build())
+            .extractOneEntity(Group.class);
+    val numGroups = groupService.getRepository().count();
+
+    // Enum columns are matched against their constant names rather than cast to text
+    listGroupsEndpointAnd()
+        .queryParam("query", "isabl")
+        .queryParam("offset", 0)
+        .queryParam("limit", numGroups)
+        .getAnd()
+        .assertPageResultsOfType(Group.class)
+        .contains(disabledGroup);
+
+    listGroupsEndpointAnd()
+        .queryParam("query", "isablx")
+        .queryParam("offset", 0)
+        .queryParam("limit", numGroups)
+        .getAnd()
+        .assertPageResultsOfType(Group.class)
+        .doesNotContain(disabledGroup);
+  }
+
   @Test
   public void addUsersToGroup_NonExistentGroup_NotFound() {
     val data = generateUniqueTestGroupData();
@@ -556,6 +682,48 @@ public class GroupControllerTest extends AbstractControllerTest {
         .containsExactlyInAnyOrderElementsOf(data.getUsers());
   }
 
+  @Test
+  public void replaceUsersOfGroup_MixedMembership_Success() {
+    val data = generateUniqueTestGroupData();
+    val group0 = data.getGroups().get(0);
+    val user0 = data.getUsers().get(0);
+    val user1 = data.getUsers().get(1);
+    addUsersToGroupPostRequestAnd(group0, newArrayList(user0)).assertOk();
+
+    // Drop the first user and add the second, which is listed twice
+    val response =
+        replaceUsersOfGroupPutRequestAnd(group0.getId(), newArrayList(user1.getId(), user1.getId()))
+            .extractOneEntity(MembershipSyncResponse.class);
+    assertEquals(group0.getId(), response.getGroupId());
+    assertEquals(1, response.getAdded());
+    assertEquals(1, response.getRemoved());
+    getUsersForGroupGetRequestAnd(group0)
+        .assertPageResultsOfType(User.class)
+        .containsExactlyInAnyOrder(user1);
+
+    // Replacing with the current members changes nothing
+    val unchanged =
+        replaceUsersOfGroupPutRequestAnd(group0.getId(), newArrayList(user1.getId()))
+            .extractOneEntity(MembershipSyncResponse.class);
+    assertEquals(0, unchanged.getAdded());
+    assertEquals(0, unchanged.getRemoved());
+  }
+
+  @Test
+  public void replaceUsersOfGroup_NonExistentUser_NotFound() {
+    val data = generateUniqueTestGroupData();
+    val group0 = data.getGroups().get(0);
+    addUsersToGroupPostRequestAnd(group0, data.getUsers()).assertOk();
+
+    val userIds = newArrayList(generateNonExistentId(userService));
+    replaceUsersOfGroupPutRequestAnd(group0.getId(), userIds).assertNotFound();
+
+    // Nothing was changed
+    getUsersForGroupGetRequestAnd(group0)
+        .assertPageResultsOfType(User.class)
+        .containsExactlyInAnyOrderElementsOf(data.getUsers());
+  }
+
   @Test
   public void addUsersToGroup_SomeExistingUsersButAllUnassociated_NotFound() {
     // Setup data
@@ -968,10 +1136,38 @@ public class GroupControllerTest extends AbstractControllerTest {
   }
 
   @Test
-  @Ignore("should be tested")
   public void getScopes_FindSomeQuery_Success() {
-    throw new NotImplementedException(
-        "need to implement the test 'getScopes_FindSomeQuery_Success'");
+    val data = generateUniqueTestGroupData();
+    val group0 = data.getGroups().get(0);
+    val policy0 = data.getPolicies().get(0);
+    data.getPolicies()
+        .forEach(p -> addGroupPermissionToGroupPostRequestAnd(group0, p, READ).assertOk());
+
+    // Only the permission on the matching policy is returned
+    val results =
+        initStringRequest()
+            .endpoint("/groups/%s/permissions", group0.getId())
+            .queryParam("query", policy0.getName())
+            .getAnd()
+            .extractPageResults(GroupPermission.class);
+    assertEquals(1, results.size());
+    assertEquals(policy0.getId(), results.get(0).getPolicy().getId());
+  }
+
+  @Test
+  public void getScopes_Limit_PaginatedInDatabase() {
+    val data = generateUniqueTestGroupData();
+    val group0 = data.getGroups().get(0);
+    data.getPolicies()
+        .forEach(p -> addGroupPermissionToGroupPostRequestAnd(group0, p, READ).assertOk());
+
+    initStringRequest()
+        .endpoint("/groups/%s/permissions", group0.getId())
+        .queryParam("offset", 0)
+        .queryParam("limit", 1)
+        .getAnd()
+        .assertPageResultsOfType(GroupPermission.class)
+        .hasSize(1);
   }
 
   @Test
@@ -18,17 +18,24 @@
 package bio.overture.ego.controller;
 
 import static bio.overture.ego.controller.AbstractPermissionControllerTest.createMaskJson;
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
 import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.http.HttpStatus.*;
 
 import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.PolicyRequest;
 import bio.overture.ego.model.entity.Identifiable;
 import bio.overture.ego.service.PolicyService;
+import bio.overture.ego.service.UserPermissionService;
 import bio.overture.ego.utils.EntityGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -54,6 +61,7 @@ public class PolicyControllerTest extends AbstractControllerTest {
   @Autowired private EntityGenerator entityGenerator;
 
   @Autowired private PolicyService policyService;
+  @Autowired private UserPermissionService userPermissionService;
 
   @Value("${logging.test.controller.enable}")
   private boolean enableLogging;
@@ -237,4 +245,73 @@ public class PolicyControllerTest extends AbstractControllerTest {
     val testApp = entityGenerator.setupApplication("AppPolicyDelete");
     disassociatePermissionsFromEntity(testApp, "application");
   }
+
+  @Test
+  @SneakyThrows
+  public void listEffectiveAccess_DirectAndGroupGrantsWithDenyOverride_Success() {
+    val policy = entityGenerator.setupSinglePolicy("EffectiveAccessPolicy");
+    val users =
+        entityGenerator.setupUsers("Effective Reader", "Effective Writer", "Effective Denied");
+    val reader = users.get(0);
+    val writer = users.get(1);
+    val denied = users.get(2);
+    val group = entityGenerator.setupGroup("EffectiveAccessGroup");
+    entityGenerator.addUsersToGroup(ImmutableList.of(writer, denied), group);
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+    userPermissionService.addPermissions(
+        reader.getId(),
+        ImmutableList.of(PermissionRequest.builder().policyId(policy.getId()).mask(READ).build()));
+    userPermissionService.addPermissions(
+        denied.getId(),
+        ImmutableList.of(PermissionRequest.builder().policyId(policy.getId()).mask(DENY).build()));
+
+    val expected =
+        ImmutableMap.of(
+            reader.getId().toString(), READ.toString(),
+            writer.getId().toString(), WRITE.toString(),
+            denied.getId().toString(), DENY.toString());
+
+    // First page stops at the limit and hands back a cursor
+    val firstResponse =
+        initStringRequest()
+            .endpoint("/policies/%s/access", policy.getId())
+            .queryParam("limit", 2)
+            .get();
+    assertEquals(OK, firstResponse.getStatusCode());
+    val firstJson = MAPPER.readTree(firstResponse.getBody());
+    assertEquals(2, firstJson.get("resultSet").size());
+    assertTrue(firstJson.hasNonNull("next"));
+
+    // Second page resumes after the cursor and is the last one
+    val secondResponse =
+        initStringRequest()
+            .endpoint("/policies/%s/access", policy.getId())
+            .queryParam("limit", 2)
+            .queryParam("after", firstJson.get("next").asText())
+            .get();
+    assertEquals(OK, secondResponse.getStatusCode());
+    val secondJson = MAPPER.readTree(secondResponse.getBody());
+    assertEquals(1, secondJson.get("resultSet").size());
+    assertTrue(secondJson.get("next").isNull());
+
+    val actual = new HashMap<String, String>();
+    firstJson
+        .get("resultSet")
+        .forEach(x -> actual.put(x.get("id").asText(), x.get("mask").asText()));
+    secondJson
+        .get("resultSet")
+        .forEach(x -> actual.put(x.get("id").asText(), x.get("mask").asText()));
+    assertEquals(expected, actual);
+
+    // The export streams the same grantees, one JSON document per line
+    val exportResponse =
+        initStringRequest().endpoint("/policies/%s/access/export", policy.getId()).get();
+    assertEquals(OK, exportResponse.getStatusCode());
+    val exported = new HashMap<String, String>();
+    for (val line : exportResponse.getBody().split("\n")) {
+      val json = MAPPER.readTree(line);
+      exported.put(json.get("id").asText(), json.get("mask").asText());
+    }
+    assertEquals(expected, exported);
+  }
 }
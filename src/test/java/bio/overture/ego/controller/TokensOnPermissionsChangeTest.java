@@ -451,6 +451,30 @@ public class TokensOnPermissionsChangeTest extends AbstractControllerTest {
     assertEquals(checkTokenAfterGroupDeleteResponse.getStatusCode(), HttpStatus.UNAUTHORIZED);
   }
 
+  /**
+   * Scenario: User is a member of a group that has a READ permission. User has a token using this
+   * scope. The group itself is then deleted. Behavior: Token should be revoked.
+   */
+  @Test
+  @SneakyThrows
+  public void deleteGroup_ExistingToken_RevokeTokenSuccess() {
+    val user = entityGenerator.setupUser("UserFoo deleteGroupWithMember");
+    val group = entityGenerator.setupGroup("DeleteGroupWithMember");
+    val policy = entityGenerator.setupSinglePolicy("PolicyForDeleteGroupWithMember");
+
+    val apiKey = groupPermissionTestSetup(user, group, policy, AccessLevel.READ, "READ");
+
+    val deleteGroupResponse =
+        initStringRequest().endpoint("/groups/%s", group.getId().toString()).delete();
+    assertEquals(deleteGroupResponse.getStatusCode(), HttpStatus.OK);
+
+    val checkTokenAfterGroupDeleteResponse =
+        initStringRequest(tokenHeaders).endpoint("/o/check_api_key?apiKey=%s", apiKey).post();
+
+    // Should be revoked
+    assertEquals(checkTokenAfterGroupDeleteResponse.getStatusCode(), HttpStatus.UNAUTHORIZED);
+  }
+
   /**
    * This helper method is responsible for executing the pre-conditions of the scenario for user
    * permission mutations.
@@ -17,17 +17,22 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
+import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import bio.overture.ego.AuthorizationServiceMain;
 import bio.overture.ego.model.dto.TransactionalDeleteRequest;
 import bio.overture.ego.model.dto.TransactionalGroupPermissionRequest;
 import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.service.GroupService;
 import java.util.*;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
@@ -44,6 +49,8 @@ public class TransactionControllerTest extends AbstractControllerTest {
   @Value("${logging.test.controller.enable}")
   private boolean enableLogging;
 
+  @Autowired private GroupService groupService;
+
   @Override
   protected boolean enableLogging() {
     return enableLogging;
@@ -64,6 +71,32 @@ public class TransactionControllerTest extends AbstractControllerTest {
     assertEquals(200, response.getStatusCodeValue());
   }
 
+  /**
+   * Before: Group and policy do not exist. Request the same group and policy twice, the second time
+   * with a different case and mask. After: Group exists with a single permission, with the last
+   * mask.
+   */
+  @Test
+  public void createGroupPermissions_repeatedPair_lastMaskWins() {
+    val suffix = UUID.randomUUID().toString();
+    val groupName = "txGroup-" + suffix;
+    val policyName = "txPolicy-" + suffix;
+    val request =
+        List.of(
+            new TransactionalGroupPermissionRequest(groupName, policyName, READ),
+            new TransactionalGroupPermissionRequest(groupName.toUpperCase(), policyName, DENY));
+    val response = createPermissions(request);
+    assertEquals(200, response.getStatusCodeValue());
+
+    val group = groupService.findByName(groupName);
+    assertTrue(group.isPresent());
+    assertEquals(groupName, group.get().getName());
+    val permissions = group.get().getPermissions();
+    assertEquals(1, permissions.size());
+    val permission = permissions.iterator().next();
+    assertEquals(DENY, permission.getAccessLevel());
+  }
+
   @Test
   public void deleteSuccessful() {
     val request = new TransactionalDeleteRequest(List.of("group1"), List.of("policy1"));
@@ -34,6 +34,7 @@ import static bio.overture.ego.utils.Joiners.COMMA;
 import static bio.overture.ego.utils.Streams.stream;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.String.format;
 import static org.junit.Assert.*;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -49,7 +50,9 @@ import bio.overture.ego.service.GroupService;
 import bio.overture.ego.service.UserService;
 import bio.overture.ego.utils.EntityGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -69,6 +72,8 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -198,6 +203,85 @@ public class UserControllerTest extends AbstractControllerTest {
             .allMatch(x -> x.getProviderType().equals(providerTypeFilter)));
   }
 
+  @Test
+  @SneakyThrows
+  public void listUsersWithTypedFilter_Success() {
+    val user = entityGenerator.setupUser("Typed Filter");
+    val otherProvider = randomEnumExcluding(ProviderType.class, user.getProviderType());
+
+    // id is matched exactly
+    initStringRequest()
+        .endpoint("/users?offset=0&id=%s", user.getId())
+        .getAnd()
+        .assertPageResultsOfType(User.class)
+        .containsExactly(user);
+
+    // enum filters accept a comma separated list of values
+    val results =
+        initStringRequest()
+            .endpoint(
+                "/users?offset=0&limit=%s&providerType=%s,%s",
+                userService.getRepository().count(), user.getProviderType(), otherProvider)
+            .getAnd()
+            .extractPageResults(User.class);
+    assertTrue(results.contains(user));
+    assertTrue(
+        results.stream()
+            .allMatch(
+                x ->
+                    x.getProviderType() == user.getProviderType()
+                        || x.getProviderType() == otherProvider));
+  }
+
+  @Test
+  @SneakyThrows
+  public void listUsersWithTypedFilter_MalformedValue_BadRequest() {
+    initStringRequest().endpoint("/users?offset=0&id=%s", "not-a-uuid").getAnd().assertBadRequest();
+    initStringRequest()
+        .endpoint("/users?offset=0&providerType=%s", "NOT_A_PROVIDER")
+        .getAnd()
+        .assertBadRequest();
+  }
+
+  @Test
+  @SneakyThrows
+  public void importUsersFromCsv_ReportsRejectedRows() {
+    val existing = entityGenerator.setupUser("Import Existing");
+    val subjectId = UUID.randomUUID().toString();
+    val csv =
+        "providerType,providerSubjectId,firstName,lastName,type,status\n"
+            + format("GOOGLE,%s,Imported,User,USER,APPROVED\n", subjectId)
+            + format("GOOGLE,%s,Duplicate,User,USER,APPROVED\n", subjectId)
+            + format(
+                "%s,%s,Existing,User,USER,APPROVED\n",
+                existing.getProviderType(), existing.getProviderSubjectId())
+            + "GOOGLE,,Missing,Subject,USER,APPROVED\n";
+
+    val headers = new HttpHeaders();
+    headers.putAll(getHeaders());
+    headers.setContentType(MediaType.valueOf("text/csv"));
+    val response = initStringRequest(headers).endpoint("/users/import").body(csv).post();
+    assertEquals(OK, response.getStatusCode());
+
+    // Rejected rows are reported as soon as they are known, then the summary comes last
+    val lines = response.getBody().split("\n");
+    assertEquals(4, lines.length);
+    val statusByLine = new HashMap<Integer, String>();
+    for (int i = 0; i < 3; i++) {
+      val result = MAPPER.readTree(lines[i]);
+      statusByLine.put(result.get("line").asInt(), result.get("status").asText());
+    }
+    assertEquals(ImmutableMap.of(3, "SKIPPED", 4, "SKIPPED", 5, "FAILED"), statusByLine);
+
+    val summary = MAPPER.readTree(lines[3]);
+    assertEquals(1, summary.get("imported").asInt());
+    assertEquals(2, summary.get("skipped").asInt());
+    assertEquals(1, summary.get("failed").asInt());
+
+    val imported = userService.findByProviderTypeAndProviderSubjectId(GOOGLE, subjectId);
+    assertTrue(imported.isPresent());
+  }
+
   // flakey test keeps failing randomly
   @Test
   @Ignore
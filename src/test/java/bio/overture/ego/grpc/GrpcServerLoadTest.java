@@ -0,0 +1,227 @@
+package bio.overture.ego.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import bio.overture.ego.config.GrpcProperties;
+import bio.overture.ego.grpc.interceptor.NoAuthInterceptor;
+import bio.overture.ego.grpc.service.ChangeLogServiceGrpcImpl;
+import bio.overture.ego.grpc.service.TokenServiceGrpcImpl;
+import bio.overture.ego.grpc.service.UserServiceGrpcImpl;
+import bio.overture.ego.service.TokenService;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.jsonwebtoken.MalformedJwtException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the real Netty server, built from GrpcProperties, with concurrent clients. The token
+ * service behind it is mocked, so only the transport settings are under test.
+ */
+public class GrpcServerLoadTest {
+
+  /** Constants */
+  private static final String SLOW_TOKEN = "slow";
+
+  private static final String BLOCKED_TOKEN = "blocked";
+
+  private static final long SLOW_CALL_MS = 1000L;
+  private static final int CLIENTS = 8;
+  private static final int CALLS_PER_CLIENT = 250;
+
+  private GrpcProperties properties;
+  private GrpcServer server;
+  private ManagedChannel channel;
+  private ExecutorService clients;
+  private CountDownLatch blockedCallStarted;
+  private CountDownLatch releaseBlockedCalls;
+
+  @Before
+  public void before() {
+    properties = new GrpcProperties();
+    properties.setPort(0);
+    properties.setShutdownGraceMs(5000);
+    clients = Executors.newFixedThreadPool(CLIENTS);
+    blockedCallStarted = new CountDownLatch(1);
+    releaseBlockedCalls = new CountDownLatch(1);
+  }
+
+  @After
+  @SneakyThrows
+  public void after() {
+    releaseBlockedCalls.countDown();
+    clients.shutdownNow();
+    if (channel != null) {
+      channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+    if (server != null) {
+      server.destroy();
+    }
+  }
+
+  @Test
+  public void boundedExecutor_gzipAndConnectionAge_allCallsSucceed() {
+    properties.getExecutor().setThreads(4);
+    properties.getEventLoop().setWorkerThreads(2);
+    properties.setGzipResponses(true);
+    properties.getConnection().setMaxConnectionAgeMs(200);
+    properties.getConnection().setMaxConnectionAgeGraceMs(1000);
+    properties.getConnection().setMaxConcurrentCallsPerConnection(16);
+    properties.getConnection().setKeepAliveTimeMs(10000);
+    properties.getConnection().setKeepAliveTimeoutMs(1000);
+    start();
+
+    assertEquals(CLIENTS * CALLS_PER_CLIENT, runLoad(true));
+  }
+
+  @Test
+  public void directExecutor_allCallsSucceed() {
+    properties.getExecutor().setDirect(true);
+    properties.getConnection().setFlowControlWindow(1 << 20);
+    properties.getConnection().setMaxInboundMessageSize(1 << 16);
+    start();
+
+    assertEquals(CLIENTS * CALLS_PER_CLIENT, runLoad(false));
+  }
+
+  @Test
+  public void maxCallDuration_slowUnaryCall_deadlineExceeded() {
+    properties.setMaxCallDurationMs(100);
+    start();
+
+    val started = System.currentTimeMillis();
+    try {
+      introspect(SLOW_TOKEN, false);
+      fail("Expected the slow call to exceed the server deadline");
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.DEADLINE_EXCEEDED, e.getStatus().getCode());
+      assertTrue(System.currentTimeMillis() - started < SLOW_CALL_MS);
+    }
+
+    // Calls within the limit are unaffected
+    assertFalse(introspect("fast", false).getActive());
+  }
+
+  @Test
+  @SneakyThrows
+  public void fullQueue_newCall_resourceExhaustedWithoutWaiting() {
+    properties.getExecutor().setThreads(1);
+    properties.getExecutor().setQueueCapacity(1);
+    start();
+
+    // The first call holds the only thread until released
+    val running = clients.submit(() -> introspect(BLOCKED_TOKEN, false));
+    assertTrue(blockedCallStarted.await(5, TimeUnit.SECONDS));
+
+    // Of two more calls, whichever arrives first is admitted and waits, the other is refused at
+    // once, while the running call still holds the thread
+    val completion = new ExecutorCompletionService<IntrospectTokenResponse>(clients);
+    completion.submit(() -> introspect(BLOCKED_TOKEN, false));
+    completion.submit(() -> introspect(BLOCKED_TOKEN, false));
+    try {
+      completion.take().get();
+      fail("Expected a call to be refused while the queue is full");
+    } catch (ExecutionException e) {
+      assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(e.getCause()).getCode());
+    }
+
+    // Admitted calls still complete, and the server accepts calls again once they have
+    releaseBlockedCalls.countDown();
+    assertFalse(running.get(5, TimeUnit.SECONDS).getActive());
+    assertFalse(completion.take().get(5, TimeUnit.SECONDS).getActive());
+    assertFalse(introspect("fast", false).getActive());
+  }
+
+  @Test
+  @SneakyThrows
+  public void shutdown_inFlightCall_drainsBeforeStopping() {
+    start();
+    val inFlight = clients.submit(() -> introspect(SLOW_TOKEN, false));
+    Thread.sleep(SLOW_CALL_MS / 4);
+
+    server.destroy();
+    server = null;
+
+    assertFalse(inFlight.get(5, TimeUnit.SECONDS).getActive());
+  }
+
+  @SneakyThrows
+  private void start() {
+    val tokenService = mock(TokenService.class);
+    when(tokenService.getTokenClaims(anyString())).thenThrow(new MalformedJwtException("test"));
+    when(tokenService.getTokenClaims(eq(SLOW_TOKEN)))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(SLOW_CALL_MS);
+              throw new MalformedJwtException("slow");
+            });
+    when(tokenService.getTokenClaims(eq(BLOCKED_TOKEN)))
+        .thenAnswer(
+            invocation -> {
+              blockedCallStarted.countDown();
+              releaseBlockedCalls.await();
+              throw new MalformedJwtException("blocked");
+            });
+
+    server =
+        new GrpcServer(
+            properties,
+            new NoAuthInterceptor(),
+            new UserServiceGrpcImpl(null),
+            new ChangeLogServiceGrpcImpl(null),
+            new TokenServiceGrpcImpl(tokenService));
+    server.run();
+    channel = NettyChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+  }
+
+  /** Returns the number of calls that succeeded */
+  @SneakyThrows
+  private int runLoad(boolean gzip) {
+    val futures = new ArrayList<Future<Integer>>();
+    for (int i = 0; i < CLIENTS; i++) {
+      final Callable<Integer> client =
+          () -> {
+            int succeeded = 0;
+            for (int call = 0; call < CALLS_PER_CLIENT; call++) {
+              if (!introspect("token-" + call, gzip).getActive()) {
+                succeeded++;
+              }
+            }
+            return succeeded;
+          };
+      futures.add(clients.submit(client));
+    }
+    int succeeded = 0;
+    for (val future : futures) {
+      succeeded += future.get(60, TimeUnit.SECONDS);
+    }
+    return succeeded;
+  }
+
+  private IntrospectTokenResponse introspect(String token, boolean gzip) {
+    val stub = TokenServiceGrpc.newBlockingStub(channel);
+    return (gzip ? stub.withCompression("gzip") : stub)
+        .introspectToken(IntrospectTokenRequest.newBuilder().setToken(token).build());
+  }
+}
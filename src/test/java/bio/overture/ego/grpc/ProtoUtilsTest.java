@@ -1,9 +1,14 @@
 package bio.overture.ego.grpc;
 
 import static bio.overture.ego.grpc.ProtoUtils.*;
+import static bio.overture.ego.model.domain.CountedPageable.countModeOf;
+import static bio.overture.ego.model.enums.CountMode.ESTIMATE;
+import static bio.overture.ego.model.enums.CountMode.EXACT;
+import static bio.overture.ego.model.enums.CountMode.NONE;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
+import bio.overture.ego.model.domain.SlicePage;
 import bio.overture.ego.model.enums.JavaFields;
 import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
@@ -74,6 +79,49 @@ public class ProtoUtilsTest {
     assertEquals(result.getMaxResults(), dataList.size());
   }
 
+  @Test
+  public void createPagedResponseForUncountedSlice() {
+    val pageable =
+        getPageable(
+            PagedRequest.newBuilder()
+                .setPageSize(2)
+                .setTotalCount(TotalCount.TOTAL_COUNT_NONE)
+                .build());
+    assertEquals(NONE, countModeOf(pageable));
+
+    val page = new SlicePage<>(Arrays.asList("1", "2"), pageable, true, null, NONE);
+    val result = createPagedResponse(page, 0);
+
+    assertEquals(TotalCount.TOTAL_COUNT_NONE, result.getTotalCount());
+    assertEquals(0, result.getMaxResults());
+    assertTrue(result.hasNextPage());
+    assertEquals(1, result.getNextPage().getValue());
+  }
+
+  @Test
+  public void createPagedResponseForEstimatedTotal() {
+    val pageable =
+        getPageable(
+            PagedRequest.newBuilder()
+                .setPageSize(2)
+                .setTotalCount(TotalCount.TOTAL_COUNT_ESTIMATE)
+                .build());
+    assertEquals(ESTIMATE, countModeOf(pageable));
+
+    val page = new SlicePage<>(Arrays.asList("1", "2"), pageable, true, 1000L, ESTIMATE);
+    val result = createPagedResponse(page, 0);
+
+    assertEquals(TotalCount.TOTAL_COUNT_ESTIMATE, result.getTotalCount());
+    assertEquals(1000, result.getMaxResults());
+    assertTrue(result.hasNextPage());
+  }
+
+  @Test
+  public void getPageableDefaultsToExactCount() {
+    val pageable = getPageable(PagedRequest.newBuilder().setPageSize(2).build());
+    assertEquals(EXACT, countModeOf(pageable));
+  }
+
   @Test
   public void createPagedResponseForPartialSetWithDifferentPageNumber() {
     val dataList = Arrays.asList("1", "2", "3", "4", "5");
@@ -0,0 +1,75 @@
+package bio.overture.ego.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.enums.StatusType;
+import com.google.protobuf.FieldMask;
+import java.util.UUID;
+import lombok.val;
+import org.junit.Test;
+
+public class UserFieldMaskTest {
+
+  @Test
+  public void emptyMask_fetchesAndReturnsEverything() {
+    val mask = UserFieldMask.from(FieldMask.getDefaultInstance());
+    val plan = mask.toFetchPlan();
+
+    assertTrue(plan.isApplications());
+    assertTrue(plan.isUserGroups());
+    assertTrue(plan.isUserPermissions());
+    assertTrue(plan.isGroupPermissions());
+    assertEquals(newUser().toProto(), mask.toProto(newUser()));
+  }
+
+  @Test
+  public void scalarMask_fetchesNoCollections() {
+    val mask = UserFieldMask.from(FieldMask.newBuilder().addPaths("id").addPaths("email").build());
+    val plan = mask.toFetchPlan();
+
+    assertFalse(plan.isApplications());
+    assertFalse(plan.isUserGroups());
+    assertFalse(plan.isUserPermissions());
+    assertFalse(plan.isGroupPermissions());
+  }
+
+  @Test
+  public void scalarMask_trimsUnrequestedFields() {
+    val user = newUser();
+    val proto =
+        UserFieldMask.from(FieldMask.newBuilder().addPaths("id").addPaths("email").build())
+            .toProto(user);
+
+    assertEquals(user.getId().toString(), proto.getId().getValue());
+    assertEquals(user.getEmail(), proto.getEmail().getValue());
+    assertFalse(proto.hasFirstName());
+    assertFalse(proto.hasStatus());
+  }
+
+  @Test
+  public void scopesMask_fetchesUserAndGroupPermissions() {
+    val plan = UserFieldMask.from(FieldMask.newBuilder().addPaths("scopes").build()).toFetchPlan();
+
+    assertTrue(plan.isUserPermissions());
+    assertTrue(plan.isGroupPermissions());
+    assertFalse(plan.isApplications());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownPath_rejected() {
+    UserFieldMask.from(FieldMask.newBuilder().addPaths("password").build());
+  }
+
+  private static User newUser() {
+    val user = new User();
+    user.setId(UUID.fromString("6f6e0ac5-6b5b-4bd5-8f2b-41a8b0c3d0f1"));
+    user.setEmail("someone@example.com");
+    user.setFirstName("Some");
+    user.setLastName("One");
+    user.setStatus(StatusType.APPROVED);
+    return user;
+  }
+}
@@ -0,0 +1,60 @@
+package bio.overture.ego.grpc.interceptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor.AuthInfo;
+import com.google.common.collect.ImmutableSet;
+import java.util.Date;
+import java.util.UUID;
+import lombok.val;
+import org.junit.Test;
+
+public class AuthInfoCacheTest {
+
+  private static final long HOUR_MS = 3600000L;
+
+  private final AuthInfoCache cache = new AuthInfoCache(HOUR_MS, 10);
+
+  @Test
+  public void get_cachedToken_returnsAuthInfoUntilExpiry() {
+    val authInfo = new AuthInfo(true, false, false, UUID.randomUUID());
+    cache.put("valid", authInfo, inMs(HOUR_MS), cache.getGeneration());
+    cache.put("expired", authInfo, inMs(-1), cache.getGeneration());
+
+    assertEquals(authInfo, cache.get("valid").get());
+    assertFalse(cache.get("expired").isPresent());
+    assertFalse(cache.get("unknown").isPresent());
+  }
+
+  @Test
+  public void invalidate_principal_dropsOnlyItsTokens() {
+    val user = new AuthInfo(true, false, false, UUID.randomUUID());
+    val app = new AuthInfo(false, true, true, UUID.randomUUID());
+    cache.put("user1", user, inMs(HOUR_MS), cache.getGeneration());
+    cache.put("user2", user, inMs(HOUR_MS), cache.getGeneration());
+    cache.put("app", app, inMs(HOUR_MS), cache.getGeneration());
+
+    cache.invalidate(ImmutableSet.of(user.getId()));
+
+    assertFalse(cache.get("user1").isPresent());
+    assertFalse(cache.get("user2").isPresent());
+    assertTrue(cache.get("app").isPresent());
+  }
+
+  @Test
+  public void put_resolvedBeforeInvalidation_notCached() {
+    val authInfo = new AuthInfo(true, false, false, UUID.randomUUID());
+    val generation = cache.getGeneration();
+
+    cache.invalidate(ImmutableSet.of(authInfo.getId()));
+    cache.put("stale", authInfo, inMs(HOUR_MS), generation);
+
+    assertFalse(cache.get("stale").isPresent());
+  }
+
+  private static Date inMs(long ms) {
+    return new Date(System.currentTimeMillis() + ms);
+  }
+}
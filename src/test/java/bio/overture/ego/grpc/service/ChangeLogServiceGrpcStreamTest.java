@@ -0,0 +1,135 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import bio.overture.ego.grpc.ChangeEvent;
+import bio.overture.ego.grpc.ChangeLogServiceGrpc;
+import bio.overture.ego.grpc.StreamChangesRequest;
+import bio.overture.ego.model.dto.ChangeLogResponse;
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import bio.overture.ego.service.ChangeLogService;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Streams from a mocked change log over an in-process channel, so only the flow of the stream is
+ * under test.
+ */
+public class ChangeLogServiceGrpcStreamTest {
+
+  private ChangeLogService changeLogService;
+  private ChangeLogServiceGrpcImpl changeLogServiceImpl;
+  private Server server;
+  private ManagedChannel channel;
+
+  @Before
+  @SneakyThrows
+  public void before() {
+    changeLogService = mock(ChangeLogService.class);
+    changeLogServiceImpl = new ChangeLogServiceGrpcImpl(changeLogService);
+    val name = InProcessServerBuilder.generateName();
+    server =
+        InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(changeLogServiceImpl)
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+  }
+
+  @After
+  @SneakyThrows
+  public void after() {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    changeLogServiceImpl.destroy();
+  }
+
+  @Test
+  public void streamChanges_quietLogThenNewChanges_allEventsInOrder() {
+    when(changeLogService.listChanges(anyLong(), anyInt()))
+        .thenAnswer(i -> changes(i.getArgument(0)));
+    when(changeLogService.listChanges(eq(0L), eq(2))).thenReturn(changes(0L, 1L, 2L));
+    when(changeLogService.listChanges(eq(2L), eq(2)))
+        .thenReturn(changes(2L), changes(2L), changes(2L, 3L));
+
+    val events = stream(0L, 2, 3);
+
+    assertEquals(List.of(1L, 2L, 3L), events.stream().map(ChangeEvent::getSeq).collect(toList()));
+  }
+
+  @Test
+  public void streamChanges_failedRead_internal() {
+    when(changeLogService.listChanges(anyLong(), anyInt()))
+        .thenReturn(changes(5L, 6L))
+        .thenThrow(new IllegalStateException("connection lost"));
+
+    try {
+      stream(4L, 10, 3);
+      fail("Expected the stream to fail");
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.INTERNAL, e.getStatus().getCode());
+    }
+  }
+
+  /** Reads the given number of events, then cancels the call */
+  private List<ChangeEvent> stream(long after, int batchSize, int count) {
+    val request = StreamChangesRequest.newBuilder().setAfter(after).setBatchSize(batchSize).build();
+    val events = new ArrayList<ChangeEvent>();
+    val context = Context.current().withCancellation();
+    try {
+      context.run(
+          () -> {
+            val iterator = ChangeLogServiceGrpc.newBlockingStub(channel).streamChanges(request);
+            while (events.size() < count) {
+              events.add(iterator.next());
+            }
+          });
+    } finally {
+      context.cancel(null);
+    }
+    return events;
+  }
+
+  private static ChangeLogResponse changes(long after, long... seqs) {
+    val entries =
+        LongStream.of(seqs)
+            .mapToObj(
+                seq ->
+                    ChangeLogEntry.builder()
+                        .seq(seq)
+                        .entityType(USER)
+                        .entityId(UUID.randomUUID())
+                        .changeType(CREATED)
+                        .createdAt(new Date())
+                        .build())
+            .collect(toList());
+    val cursor = seqs.length == 0 ? after : seqs[seqs.length - 1];
+    return ChangeLogResponse.builder().cursor(cursor).changes(entries).build();
+  }
+}
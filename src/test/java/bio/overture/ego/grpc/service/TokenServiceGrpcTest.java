@@ -0,0 +1,147 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToSet;
+import static org.junit.Assert.*;
+
+import bio.overture.ego.grpc.CheckApiKeyRequest;
+import bio.overture.ego.grpc.GetUserScopesRequest;
+import bio.overture.ego.grpc.IntrospectTokenRequest;
+import bio.overture.ego.grpc.TokenServiceGrpc;
+import bio.overture.ego.grpc.TokenType;
+import bio.overture.ego.model.dto.Scope;
+import bio.overture.ego.service.TokenService;
+import bio.overture.ego.utils.EntityGenerator;
+import bio.overture.ego.utils.TestData;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest
+@RunWith(SpringRunner.class)
+public class TokenServiceGrpcTest {
+
+  private TokenServiceGrpc.TokenServiceBlockingStub stub;
+
+  private TestData test;
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private TokenService tokenService;
+  @Autowired TokenServiceGrpcImpl tokenServiceGrpc;
+
+  @Rule public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Before
+  public void before() throws IOException {
+    val serverName = InProcessServerBuilder.generateName();
+    val channel =
+        grpcCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build());
+    grpcCleanup.register(
+        InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(tokenServiceGrpc)
+            .build()
+            .start());
+    stub = TokenServiceGrpc.newBlockingStub(channel);
+
+    test = new TestData(entityGenerator);
+  }
+
+  @Test
+  public void checkApiKey_validKey_ownerAndScopes() {
+    val scopes = test.getScopes("song.READ", "collab.READ");
+    val apiKey =
+        entityGenerator.setupApiKey(
+            test.regularUser, UUID.randomUUID().toString(), false, 1000, "grpc check", scopes);
+
+    val reply =
+        stub.checkApiKey(CheckApiKeyRequest.newBuilder().setApiKey(apiKey.getName()).build());
+
+    assertEquals(reply.getUserId(), test.regularUser.getId().toString());
+    assertTrue(reply.getExp() > 0);
+    assertEquals(new HashSet<>(reply.getScopesList()), mapToSet(scopes, Scope::toString));
+  }
+
+  @Test
+  public void checkApiKey_unknownKey_invalidArgument() {
+    try {
+      stub.checkApiKey(
+          CheckApiKeyRequest.newBuilder().setApiKey(UUID.randomUUID().toString()).build());
+      fail("Expected an unknown api key to be rejected");
+    } catch (StatusRuntimeException e) {
+      assertEquals(e.getStatus().getCode(), Status.Code.INVALID_ARGUMENT);
+    }
+  }
+
+  @Test
+  public void introspectToken_userToken_activeWithClaims() {
+    val token = tokenService.generateUserToken(test.regularUser);
+
+    val reply = stub.introspectToken(IntrospectTokenRequest.newBuilder().setToken(token).build());
+
+    assertTrue(reply.getActive());
+    assertEquals(reply.getType(), TokenType.TOKEN_TYPE_USER);
+    assertEquals(reply.getSubject(), test.regularUser.getId().toString());
+    assertTrue(reply.getExp() > System.currentTimeMillis() / 1000L);
+  }
+
+  @Test
+  public void introspectToken_appToken_activeApplication() {
+    val token = tokenService.generateAppToken(test.score);
+
+    val reply = stub.introspectToken(IntrospectTokenRequest.newBuilder().setToken(token).build());
+
+    assertTrue(reply.getActive());
+    assertEquals(reply.getType(), TokenType.TOKEN_TYPE_APPLICATION);
+    assertEquals(reply.getSubject(), test.score.getId().toString());
+  }
+
+  @Test
+  public void introspectToken_garbage_inactive() {
+    val reply =
+        stub.introspectToken(IntrospectTokenRequest.newBuilder().setToken("not.a.jwt").build());
+
+    assertFalse(reply.getActive());
+    assertEquals(reply.getSubject(), "");
+  }
+
+  @Test
+  public void getUserScopes_existingUser_sameAsRest() {
+    val expected = tokenService.userScopes(test.regularUser.getId()).getScopes();
+
+    val reply =
+        stub.getUserScopes(
+            GetUserScopesRequest.newBuilder()
+                .setUserId(test.regularUser.getId().toString())
+                .build());
+
+    assertEquals(new HashSet<>(reply.getScopesList()), expected);
+  }
+
+  @Test
+  public void getUserScopes_unknownUser_notFound() {
+    try {
+      stub.getUserScopes(
+          GetUserScopesRequest.newBuilder().setUserId(UUID.randomUUID().toString()).build());
+      fail("Expected an unknown user to be rejected");
+    } catch (StatusRuntimeException e) {
+      assertEquals(e.getStatus().getCode(), Status.Code.NOT_FOUND);
+    }
+  }
+}
@@ -5,8 +5,10 @@ import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
 import bio.overture.ego.grpc.GetUserRequest;
+import bio.overture.ego.grpc.GetUsersRequest;
 import bio.overture.ego.grpc.ListUsersRequest;
 import bio.overture.ego.grpc.PagedRequest;
+import bio.overture.ego.grpc.StreamUsersRequest;
 import bio.overture.ego.grpc.UserServiceGrpc;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
@@ -14,12 +16,18 @@ import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.AccessLevel;
 import bio.overture.ego.service.UserService;
 import bio.overture.ego.utils.EntityGenerator;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.StringValue;
 import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Before;
@@ -142,6 +150,48 @@ public class UserServiceGrpcTest {
     assertEquals(reply.getScopesList().size(), 2);
   }
 
+  @Test
+  public void getUser_nameMask_onlyNamesReturned() {
+    val testUser = testUsers.iterator().next();
+    val mask = FieldMask.newBuilder().addPaths("first_name").addPaths("last_name").build();
+
+    val reply =
+        stub.getUser(
+            GetUserRequest.newBuilder()
+                .setId(testUser.getId().toString())
+                .setFieldMask(mask)
+                .build());
+
+    assertEquals(reply.getFirstName().getValue(), testUser.getFirstName());
+    assertEquals(reply.getLastName().getValue(), testUser.getLastName());
+    assertFalse(reply.hasId());
+    assertEquals(reply.getScopesCount(), 0);
+  }
+
+  @Test
+  public void getUsers_manyIds_requestOrderWithMaskedCollections() {
+    val ids = testUsers.stream().map(user -> user.getId().toString()).collect(toList());
+    val reversed = ImmutableList.copyOf(ids).reverse();
+    val mask = FieldMask.newBuilder().addPaths("id").addPaths("groups").build();
+
+    val reply =
+        stub.getUsers(
+            GetUsersRequest.newBuilder()
+                .addAllIds(reversed)
+                .addIds(UUID.randomUUID().toString())
+                .setFieldMask(mask)
+                .build());
+
+    // Unknown ids are left out, the rest keep request order
+    assertEquals(
+        reply.getUsersList().stream().map(user -> user.getId().getValue()).collect(toList()),
+        reversed);
+    assertEquals(
+        reply.getUsersList().stream().filter(user -> user.getGroupsCount() == 1).count(),
+        usersWithGroup.size());
+    reply.getUsersList().forEach(user -> assertEquals(user.getScopesCount(), 0));
+  }
+
   @Test
   public void listUser_emptyRequest() {
     val request = ListUsersRequest.newBuilder().build();
@@ -217,4 +267,62 @@ public class UserServiceGrpcTest {
     assertEquals(reply.getUsersCount(), 0);
     assertFalse(reply.getPage().hasNextPage());
   }
+
+  @Test
+  public void streamUsers_smallBatches_allUsersInIdOrder() {
+    val request = StreamUsersRequest.newBuilder().setBatchSize(2).build();
+
+    val ids =
+        ImmutableList.copyOf(stub.streamUsers(request)).stream()
+            .map(user -> UUID.fromString(user.getId().getValue()))
+            .collect(toList());
+
+    // Every test user is streamed, once each, in id order across batch boundaries
+    testUsers.forEach(user -> assertTrue(ids.contains(user.getId())));
+    assertEquals(ids.stream().distinct().count(), ids.size());
+    // Postgres orders uuids by their unsigned bytes, which matches the order of their lower case
+    // strings but not UUID.compareTo, which compares signed longs
+    val idStrings = ids.stream().map(UUID::toString).collect(toList());
+    assertEquals(idStrings.stream().sorted().collect(toList()), idStrings);
+  }
+
+  @Test
+  public void streamUsers_afterId_resumesExclusive() {
+    val all =
+        ImmutableList.copyOf(
+            stub.streamUsers(StreamUsersRequest.newBuilder().setBatchSize(3).build()));
+    val resumeAfter = all.get(1).getId();
+
+    val request = StreamUsersRequest.newBuilder().setAfterId(resumeAfter).setBatchSize(3).build();
+    val resumed = ImmutableList.copyOf(stub.streamUsers(request));
+
+    assertEquals(all.subList(2, all.size()), resumed);
+  }
+
+  @Test
+  public void streamUsers_groupFilter_onlyGroupMembers() {
+    val request =
+        StreamUsersRequest.newBuilder()
+            .addGroupIds(groupWithUsers.getId().toString())
+            .setBatchSize(1)
+            .build();
+
+    val users = ImmutableList.copyOf(stub.streamUsers(request));
+
+    assertEquals(users.size(), usersWithGroup.size());
+    users.forEach(user -> assertEquals(user.getGroupsList().size(), 1));
+    users.forEach(user -> assertTrue(user.getScopesCount() > 0));
+  }
+
+  @Test
+  public void streamUsers_invalidAfterId_invalidArgument() {
+    val request = StreamUsersRequest.newBuilder().setAfterId(StringValue.of("not-a-uuid")).build();
+
+    try {
+      stub.streamUsers(request).hasNext();
+      fail("Expected the stream to fail");
+    } catch (StatusRuntimeException e) {
+      assertEquals(e.getStatus().getCode(), Status.Code.INVALID_ARGUMENT);
+    }
+  }
 }
@@ -0,0 +1,131 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.ChangeEntityType.GROUP;
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeType.CREATED;
+import static bio.overture.ego.model.enums.ChangeType.DELETED;
+import static bio.overture.ego.model.enums.ChangeType.MEMBERSHIP_CHANGED;
+import static bio.overture.ego.model.enums.ChangeType.UPDATED;
+
+import bio.overture.ego.model.dto.ChangeLogResponse;
+import bio.overture.ego.model.entity.ChangeLogEntry;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeType;
+import bio.overture.ego.utils.EntityGenerator;
+import com.google.common.collect.ImmutableList;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class ChangeLogServiceTest {
+
+  @Autowired private ChangeLogService changeLogService;
+  @Autowired private GroupService groupService;
+  @Autowired private UserService userService;
+  @Autowired private EntityGenerator entityGenerator;
+
+  @Test
+  public void testMutationsAreRecordedInOrder() {
+    val start = latestCursor();
+
+    val user = entityGenerator.setupUser("ChangeLog User");
+    val group = entityGenerator.setupGroup("ChangeLogGroup");
+    groupService.associateUsersWithGroup(group.getId(), ImmutableList.of(user.getId()));
+    groupService.delete(group.getId());
+    changeLogService.sequenceCommitted();
+
+    val changes = changeLogService.listChanges(start, 100).getChanges();
+    Assert.assertEquals(6, changes.size());
+    assertChange(changes.get(0), USER, user.getId(), CREATED);
+    assertChange(changes.get(1), GROUP, group.getId(), CREATED);
+    assertChange(changes.get(2), GROUP, group.getId(), MEMBERSHIP_CHANGED);
+    assertChange(changes.get(3), USER, user.getId(), MEMBERSHIP_CHANGED);
+    assertChange(changes.get(4), USER, user.getId(), MEMBERSHIP_CHANGED);
+    assertChange(changes.get(5), GROUP, group.getId(), DELETED);
+  }
+
+  @Test
+  public void testCursorResumesAfterLastChange() {
+    val start = latestCursor();
+    entityGenerator.setupGroup("ChangeLogGroupOne");
+    entityGenerator.setupGroup("ChangeLogGroupTwo");
+    changeLogService.sequenceCommitted();
+
+    val firstPage = changeLogService.listChanges(start, 1);
+    Assert.assertEquals(1, firstPage.getChanges().size());
+    Assert.assertEquals(firstPage.getChanges().get(0).getSeq().longValue(), firstPage.getCursor());
+
+    val secondPage = changeLogService.listChanges(firstPage.getCursor(), 100);
+    Assert.assertEquals(1, secondPage.getChanges().size());
+    Assert.assertTrue(secondPage.getCursor() > firstPage.getCursor());
+
+    val emptyPage = changeLogService.listChanges(secondPage.getCursor(), 100);
+    Assert.assertTrue(emptyPage.getChanges().isEmpty());
+    Assert.assertEquals(secondPage.getCursor(), emptyPage.getCursor());
+  }
+
+  @Test
+  public void testEntriesAreListedOnceNumbered() {
+    val start = latestCursor();
+    val group = entityGenerator.setupGroup("ChangeLogGroupUnnumbered");
+    Assert.assertTrue(changeLogService.listChanges(start, 100).getChanges().isEmpty());
+
+    Assert.assertEquals(1, changeLogService.sequenceCommitted());
+    val changes = changeLogService.listChanges(start, 100).getChanges();
+    Assert.assertEquals(1, changes.size());
+    assertChange(changes.get(0), GROUP, group.getId(), CREATED);
+    Assert.assertEquals(0, changeLogService.sequenceCommitted());
+  }
+
+  @Test
+  public void testLoginWithChangedEmailRecordsUpdate() {
+    val user = entityGenerator.setupUser("ChangeLog Login");
+    val idToken =
+        entityGenerator.setupUserIDToken(
+            user.getProviderType(),
+            user.getProviderSubjectId(),
+            user.getLastName(),
+            user.getFirstName());
+    idToken.setEmail("changed." + user.getEmail());
+    val start = latestCursor();
+
+    userService.getUserByToken(idToken);
+    userService.getUserByToken(idToken);
+    changeLogService.sequenceCommitted();
+
+    val changes = changeLogService.listChanges(start, 100).getChanges();
+    Assert.assertEquals(1, changes.size());
+    assertChange(changes.get(0), USER, user.getId(), UPDATED);
+  }
+
+  private long latestCursor() {
+    while (changeLogService.sequenceCommitted() == ChangeLogService.RELAY_BATCH_SIZE) {}
+    long cursor = 0;
+    ChangeLogResponse response = changeLogService.listChanges(cursor, ChangeLogService.MAX_LIMIT);
+    while (!response.getChanges().isEmpty()) {
+      cursor = response.getCursor();
+      response = changeLogService.listChanges(cursor, ChangeLogService.MAX_LIMIT);
+    }
+    return cursor;
+  }
+
+  private static void assertChange(
+      ChangeLogEntry entry, ChangeEntityType entityType, UUID entityId, ChangeType changeType) {
+    Assert.assertEquals(entityType, entry.getEntityType());
+    Assert.assertEquals(entityId, entry.getEntityId());
+    Assert.assertEquals(changeType, entry.getChangeType());
+  }
+}
@@ -0,0 +1,79 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.AccessLevel.READ;
+
+import bio.overture.ego.model.entity.Application;
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.utils.EntityGenerator;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class SecondLevelCacheServiceTest {
+
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private GroupService groupService;
+  @Autowired private PolicyService policyService;
+
+  @Test
+  public void testCachedRegions() {
+    val metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMetamodel();
+
+    Assert.assertTrue(metamodel.entityPersister(Policy.class).canReadFromCache());
+    Assert.assertTrue(metamodel.entityPersister(Group.class).canReadFromCache());
+    Assert.assertTrue(metamodel.entityPersister(Application.class).canReadFromCache());
+    Assert.assertFalse(metamodel.entityPersister(User.class).canReadFromCache());
+
+    Assert.assertTrue(
+        metamodel.collectionPersister(role(Policy.class, "groupPermissions")).hasCache());
+    Assert.assertTrue(
+        metamodel.collectionPersister(role(Policy.class, "applicationPermissions")).hasCache());
+    Assert.assertTrue(metamodel.collectionPersister(role(Group.class, "permissions")).hasCache());
+    Assert.assertTrue(
+        metamodel
+            .collectionPersister(role(Application.class, "applicationPermissions"))
+            .hasCache());
+    Assert.assertFalse(
+        metamodel.collectionPersister(role(Policy.class, "userPermissions")).hasCache());
+  }
+
+  @Test
+  public void testDeletingGroupEvictsPolicyGroupPermissions() {
+    val group = entityGenerator.setupGroup("CachedGroup");
+    val policy = entityGenerator.setupSinglePolicy("CachedPolicy");
+    entityGenerator.setupGroupPermission(group, policy, READ);
+    entityManager.flush();
+    entityManager.clear();
+
+    Assert.assertEquals(1, policyService.getById(policy.getId()).getGroupPermissions().size());
+
+    groupService.delete(group.getId());
+    entityManager.flush();
+    entityManager.clear();
+
+    Assert.assertTrue(policyService.getById(policy.getId()).getGroupPermissions().isEmpty());
+  }
+
+  private static String role(Class<?> ownerType, String property) {
+    return ownerType.getName() + "." + property;
+  }
+}
@@ -1,19 +1,30 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.domain.UserFetchPlan.ALL_RELATIONSHIPS;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.model.enums.FetchStrategy.SINGLE_QUERY;
 import static bio.overture.ego.utils.CollectionUtils.repeatedCallsOf;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.UserType;
 import bio.overture.ego.utils.EntityGenerator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +40,8 @@ public class UserServiceTest {
   @Autowired private EntityGenerator entityGenerator;
   @Autowired private RefreshContextService refreshContextService;
   @Autowired private TokenService tokenService;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
 
   @Test
   public void testFirstUserShouldBeAdminByDefault() {
@@ -82,6 +95,34 @@ public class UserServiceTest {
         });
   }
 
+  @Test
+  public void testFindUsersForGroupsListsMembersOfSeveralGroupsOnce() {
+    val users = repeatedCallsOf(() -> entityGenerator.generateRandomUser(), 3);
+    val inBoth = users.get(0);
+    val inFirst = users.get(1);
+    val firstGroup =
+        entityGenerator.addUsersToGroup(
+            ImmutableList.of(inBoth, inFirst), entityGenerator.setupGroup("UserServiceTestFirst"));
+    val secondGroup =
+        entityGenerator.addUsersToGroup(
+            ImmutableList.of(inBoth), entityGenerator.setupGroup("UserServiceTestSecond"));
+
+    val page =
+        userService.findUsersForGroups(
+            ImmutableList.of(firstGroup.getId(), secondGroup.getId()),
+            "",
+            ImmutableList.of(),
+            PageRequest.of(0, 10));
+
+    // Membership is matched with EXISTS, so a user in both groups is neither repeated nor counted
+    // twice, and users outside the groups are left out
+    Assert.assertEquals(
+        ImmutableSet.of(inBoth.getId(), inFirst.getId()),
+        page.getContent().stream().map(User::getId).collect(toSet()));
+    Assert.assertEquals(2, page.getContent().size());
+    Assert.assertEquals(2, page.getTotalElements());
+  }
+
   @Test
   public void testAssociateUserWithRefreshToken() {
 
@@ -96,4 +137,60 @@ public class UserServiceTest {
     Assert.assertEquals(userWithRefreshToken.getRefreshToken(), refreshToken1);
     Assert.assertEquals(userWithRefreshToken.getId(), user1.getId());
   }
+
+  @Test
+  public void testMultiQueryPlanLoadsEachCollectionSeparately() {
+    val userId = setupUserWithCollections("MultiQuery");
+    val statistics = clearedStatistics();
+
+    val user = userService.get(userId, ALL_RELATIONSHIPS);
+
+    // root with refresh token, user permissions, groups with their permissions, applications
+    Assert.assertEquals(4, statistics.getPrepareStatementCount());
+    assertCollectionsLoaded(user);
+    Assert.assertEquals(4, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testSingleQueryPlanFetchesEverythingInOneQuery() {
+    val userId = setupUserWithCollections("SingleQuery");
+    val statistics = clearedStatistics();
+
+    val user =
+        userService.get(userId, ALL_RELATIONSHIPS.toBuilder().strategy(SINGLE_QUERY).build());
+
+    Assert.assertEquals(1, statistics.getPrepareStatementCount());
+    assertCollectionsLoaded(user);
+    Assert.assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  private UUID setupUserWithCollections(String prefix) {
+    val user = entityGenerator.setupUser(prefix + " User");
+    val groups = entityGenerator.setupGroups(prefix + "GroupOne", prefix + "GroupTwo");
+    val policies = entityGenerator.setupPolicies(prefix + "PolicyOne", prefix + "PolicyTwo");
+    groups.forEach(
+        group -> {
+          entityGenerator.addUsersToGroup(ImmutableList.of(user), group);
+          policies.forEach(policy -> entityGenerator.setupGroupPermission(group, policy, WRITE));
+        });
+    val application = entityGenerator.setupApplication(prefix + "Application");
+    entityGenerator.addUsersToApplication(ImmutableList.of(user), application);
+
+    // Start the load from an empty persistence context so every query is counted
+    entityManager.flush();
+    entityManager.clear();
+    return user.getId();
+  }
+
+  private Statistics clearedStatistics() {
+    val statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  private static void assertCollectionsLoaded(User user) {
+    Assert.assertEquals(2, user.getUserGroups().size());
+    Assert.assertEquals(1, user.getUserApplications().size());
+    Assert.assertEquals(2, user.getPermissions().size());
+  }
 }
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import bio.overture.ego.model.entity.User;
+import bio.overture.ego.service.LastLoginBuffer;
 import bio.overture.ego.service.TokenService;
 import bio.overture.ego.service.UserService;
 import bio.overture.ego.utils.EntityGenerator;
@@ -30,6 +31,8 @@ public class LastloginTest {
 
   @Autowired private UserService userService;
 
+  @Autowired private LastLoginBuffer lastLoginBuffer;
+
   @Autowired private EntityGenerator entityGenerator;
 
   @Test
@@ -52,6 +55,7 @@ public class LastloginTest {
             .getLastLogin());
 
     tokenService.generateUserToken(idToken);
+    lastLoginBuffer.flush();
 
     val lastLogin =
         userService
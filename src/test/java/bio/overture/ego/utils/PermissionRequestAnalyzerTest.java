@@ -0,0 +1,76 @@
+package bio.overture.ego.utils;
+
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
+import static bio.overture.ego.model.enums.AccessLevel.READ;
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.utils.PermissionRequestAnalyzer.analyze;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.model.dto.PermissionRequest;
+import bio.overture.ego.model.enums.AccessLevel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.val;
+import org.junit.Test;
+
+public class PermissionRequestAnalyzerTest {
+
+  private final UUID existingReadPolicy = UUID.randomUUID();
+  private final UUID existingWritePolicy = UUID.randomUUID();
+  private final UUID newPolicy = UUID.randomUUID();
+  private final UUID conflictingPolicy = UUID.randomUUID();
+
+  @Test
+  public void analyze_MixedRequests_ClassifiedByPolicyAndMask() {
+    val existing = List.of(request(existingReadPolicy, READ), request(existingWritePolicy, WRITE));
+    val requests =
+        List.of(
+            request(existingReadPolicy, READ),
+            request(existingWritePolicy, DENY),
+            request(newPolicy, WRITE),
+            request(conflictingPolicy, READ),
+            request(conflictingPolicy, WRITE));
+
+    val analysis = analyze(existing, requests);
+
+    assertEquals(Set.of(request(existingReadPolicy, READ)), analysis.getDuplicates());
+    assertEquals(Set.of(request(existingWritePolicy, DENY)), analysis.getUpdateables());
+    assertEquals(Set.of(request(newPolicy, WRITE)), analysis.getCreateables());
+    assertEquals(Set.of(conflictingPolicy), analysis.getUnresolvableMap().keySet());
+    assertEquals(2, analysis.getUnresolvableMap().get(conflictingPolicy).size());
+    assertTrue(analysis.summarizeUnresolvables().isPresent());
+  }
+
+  @Test
+  public void analyze_RepeatedRequest_TreatedAsOne() {
+    val requests = List.of(request(newPolicy, READ), request(newPolicy, READ));
+
+    val analysis = analyze(List.of(), requests);
+
+    assertTrue(analysis.getUnresolvableMap().isEmpty());
+    assertFalse(analysis.summarizeUnresolvables().isPresent());
+    assertEquals(Set.of(request(newPolicy, READ)), analysis.getCreateables());
+  }
+
+  @Test
+  public void analyze_ManyRequests_AllCreateable() {
+    val requests = new ArrayList<PermissionRequest>();
+    for (int i = 0; i < 10000; i++) {
+      requests.add(request(UUID.randomUUID(), WRITE));
+    }
+
+    val analysis = analyze(List.of(request(existingReadPolicy, READ)), requests);
+
+    assertEquals(requests.size(), analysis.getCreateables().size());
+    assertTrue(analysis.getUpdateables().isEmpty());
+    assertTrue(analysis.getDuplicates().isEmpty());
+  }
+
+  private static PermissionRequest request(UUID policyId, AccessLevel mask) {
+    return new PermissionRequest(policyId, mask);
+  }
+}
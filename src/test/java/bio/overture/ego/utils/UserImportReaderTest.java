@@ -0,0 +1,108 @@
+package bio.overture.ego.utils;
+
+import static bio.overture.ego.model.enums.ProviderType.GOOGLE;
+import static bio.overture.ego.model.enums.StatusType.APPROVED;
+import static bio.overture.ego.model.enums.UserImportFormat.CSV;
+import static bio.overture.ego.model.enums.UserImportFormat.NDJSON;
+import static bio.overture.ego.model.enums.UserType.USER;
+import static bio.overture.ego.utils.UserImportReader.parseCsvLine;
+import static bio.overture.ego.utils.UserImportReader.readUsers;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.model.domain.UserImportRow;
+import bio.overture.ego.model.enums.UserImportFormat;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.val;
+import org.junit.Test;
+
+public class UserImportReaderTest {
+
+  @Test
+  public void readCsv_ColumnsInAnyOrderAndCase_Success() {
+    val rows =
+        read(
+            CSV,
+            "PROVIDERSUBJECTID,providerType,firstName,lastName,type,status,email\n"
+                + "123,GOOGLE,\"Doe, Jane\",Doe,USER,APPROVED,\n"
+                + "\n"
+                + "456,GOOGLE,John,\"The \"\"Rock\"\"\",USER,APPROVED,john@example.com\n");
+
+    assertEquals(2, rows.size());
+    val first = rows.get(0);
+    assertTrue(first.isReadable());
+    assertEquals(2, first.getLine());
+    assertEquals("123", first.getRequest().getProviderSubjectId());
+    assertEquals(GOOGLE, first.getRequest().getProviderType());
+    assertEquals("Doe, Jane", first.getRequest().getFirstName());
+    assertEquals(USER, first.getRequest().getType());
+    assertEquals(APPROVED, first.getRequest().getStatus());
+    assertNull(first.getRequest().getEmail());
+
+    val second = rows.get(1);
+    assertEquals(4, second.getLine());
+    assertEquals("The \"Rock\"", second.getRequest().getLastName());
+    assertEquals("john@example.com", second.getRequest().getEmail());
+  }
+
+  @Test
+  public void readCsv_BadRows_ReportedWithoutStopping() {
+    val rows =
+        read(
+            CSV,
+            "providerSubjectId,providerType\n"
+                + "1,GOOGLE,extra\n"
+                + "2,NOT_A_PROVIDER\n"
+                + "3,\"GOOGLE\n"
+                + "4,GOOGLE\n");
+
+    assertEquals(4, rows.size());
+    assertFalse(rows.get(0).isReadable());
+    assertFalse(rows.get(1).isReadable());
+    assertFalse(rows.get(2).isReadable());
+    assertTrue(rows.get(3).isReadable());
+    assertEquals(5, rows.get(3).getLine());
+  }
+
+  @Test(expected = MalformedRequestException.class)
+  public void readCsv_UnknownColumn_Malformed() {
+    read(CSV, "providerSubjectId,password\n1,secret\n");
+  }
+
+  @Test
+  public void readNdjson_BadLines_ReportedWithoutStopping() {
+    val rows =
+        read(
+            NDJSON,
+            "{\"providerSubjectId\":\"1\",\"providerType\":\"GOOGLE\"}\n"
+                + "{not json}\n"
+                + "{\"providerSubjectId\":\"2\",\"unknownField\":true}\n"
+                + "{\"providerSubjectId\":\"3\",\"providerType\":\"GOOGLE\"}\n");
+
+    assertEquals(4, rows.size());
+    assertTrue(rows.get(0).isReadable());
+    assertFalse(rows.get(1).isReadable());
+    assertFalse(rows.get(2).isReadable());
+    assertTrue(rows.get(3).isReadable());
+    assertEquals("3", rows.get(3).getRequest().getProviderSubjectId());
+  }
+
+  @Test
+  public void parseCsvLine_QuotedAndEmptyFields_Success() {
+    assertEquals(ImmutableList.of("a", "", "b,c", ""), parseCsvLine("a,,\"b,c\","));
+  }
+
+  private static List<UserImportRow> read(UserImportFormat format, String input) {
+    val reader = readUsers(new ByteArrayInputStream(input.getBytes(UTF_8)), format);
+    val rows = new ArrayList<UserImportRow>();
+    reader.forEachRemaining(rows::add);
+    return rows;
+  }
+}
@@ -0,0 +1,54 @@
+-- Free-text user search before and after the V1_24 trigram indexes, against 1M synthetic users.
+--
+--   psql -h localhost -U postgres -d ego -f src/test/resources/benchmark/search_benchmark.sql
+--
+-- Everything runs in one transaction that is rolled back, so the database is left untouched.
+-- Requires a database migrated to at least V1_24.
+
+BEGIN;
+
+INSERT INTO egouser (id, email, type, status, firstname, lastname, createdat, providertype, providersubjectid)
+SELECT md5('bench' || i)::uuid,
+       'user' || i || '@example' || (i % 1000) || '.org',
+       'USER',
+       (ARRAY['APPROVED', 'PENDING', 'REJECTED', 'DISABLED'])[1 + i % 4]::statustype,
+       'First' || md5(i::text),
+       'Last' || md5((i * 7)::text),
+       now(),
+       'GOOGLE',
+       'bench-' || i
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE egouser;
+
+\echo '=== Trigram indexes, containsText as now generated (no casts, no DISTINCT) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM egouser
+WHERE lower(email) LIKE '%user4242%'
+   OR lower(firstname) LIKE '%user4242%'
+   OR lower(lastname) LIKE '%user4242%'
+ORDER BY id DESC
+LIMIT 20;
+
+\echo '=== Previous form: casts to varchar and DISTINCT (cannot use the indexes) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT * FROM egouser
+WHERE lower(cast(email AS varchar(255))) LIKE '%user4242%'
+   OR lower(cast(firstname AS varchar(255))) LIKE '%user4242%'
+   OR lower(cast(lastname AS varchar(255))) LIKE '%user4242%'
+   OR lower(cast(status AS varchar(255))) LIKE '%user4242%'
+   OR lower(cast(providertype AS varchar(255))) LIKE '%user4242%'
+ORDER BY id DESC
+LIMIT 20;
+
+\echo '=== Same query as the first one, with the trigram indexes dropped ==='
+DROP INDEX idx_egouser_email_trgm, idx_egouser_firstname_trgm, idx_egouser_lastname_trgm;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM egouser
+WHERE lower(email) LIKE '%user4242%'
+   OR lower(firstname) LIKE '%user4242%'
+   OR lower(lastname) LIKE '%user4242%'
+ORDER BY id DESC
+LIMIT 20;
+
+ROLLBACK;